@@ -0,0 +1,46 @@
+package com.papercheck.benchmark;
+
+import com.papercheck.generator.ThesisGenerator;
+import com.papercheck.generator.ThesisSpec;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 基准测试用的文档规模
+ */
+public enum BenchmarkDocuments {
+    /** 小文档：20个段落、1个表格 */
+    SMALL(20, 1, 1),
+    /** 典型论文：约500个段落、10个表格、5张图片（与日志中常见的文档相当） */
+    TYPICAL(500, 10, 5),
+    /** 超大文档：10000个段落、200个表格、50张图片 */
+    HUGE(10_000, 200, 50);
+
+    private static final long SEED = 20240601L;
+
+    private final int paragraphs;
+    private final int tables;
+    private final int pictures;
+
+    BenchmarkDocuments(int paragraphs, int tables, int pictures) {
+        this.paragraphs = paragraphs;
+        this.tables = tables;
+        this.pictures = pictures;
+    }
+
+    /**
+     * @return 文档的生成参数，固定随机种子，同一规模每次生成的内容相同
+     */
+    public ThesisSpec spec() {
+        return new ThesisSpec()
+                .seed(SEED)
+                .paragraphs(paragraphs)
+                .tables(tables)
+                .pictures(pictures);
+    }
+
+    public void write(File file) throws IOException {
+        ThesisGenerator.write(spec(), file);
+    }
+}
@@ -0,0 +1,41 @@
+package com.papercheck.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 在JMH标准命令行的基础上默认开启GC分析器（报告分配速率），并把结果以JSON写入 jmh-result.json，
+ * 不同提交的结果文件可用 JMH Visualizer 等工具对比。例如：
+ * <pre>
+ * java -jar target/benchmarks.jar                          # 全部基准、全部规模
+ * java -jar target/benchmarks.jar checkDocument -p size=TYPICAL
+ * java -jar target/benchmarks.jar -rff result-abc123.json   # 指定结果文件名
+ * </pre>
+ */
+public class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON);
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(CheckerBenchmark.class.getSimpleName());
+        }
+        new Runner(options.build()).run();
+    }
+}
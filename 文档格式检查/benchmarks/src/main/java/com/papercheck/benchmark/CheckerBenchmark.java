@@ -0,0 +1,92 @@
+package com.papercheck.benchmark;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.service.PaperFormatChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 检查、修复、预览、导出报告的性能基准
+ * <p>
+ * 每种规模的文档在试验开始时按固定种子生成一次，各次运行的输入完全相同，便于在不同提交之间比较结果。
+ * 不使用检查结果缓存，每次调用都完整地解析文档。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g", "-Dlogback.configurationFile=logback-benchmark.xml"})
+public class CheckerBenchmark {
+
+    @Param({"SMALL", "TYPICAL", "HUGE"})
+    public BenchmarkDocuments size;
+
+    private final PaperFormatChecker checker = new PaperFormatChecker();
+    private File directory;
+    private File input;
+    private File output;
+    private File report;
+    private List<CheckResult> results;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("paper-check-bench").toFile();
+        input = new File(directory, size.name().toLowerCase() + ".docx");
+        output = new File(directory, "output.docx");
+        report = new File(directory, "report.html");
+        size.write(input);
+        results = checker.checkDocument(input);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : new File[]{input, output, report}) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public List<CheckResult> checkDocument() throws IOException {
+        return checker.checkDocument(input);
+    }
+
+    @Benchmark
+    public List<CheckResult> checkDocumentStreaming() throws IOException {
+        return checker.checkDocumentStreaming(input);
+    }
+
+    @Benchmark
+    public List<CheckResult> fixDocument() throws IOException {
+        return checker.fixDocument(input, output);
+    }
+
+    @Benchmark
+    public List<CheckResult> createFixedDocumentPreview() throws IOException {
+        return checker.createFixedDocumentPreview(input, output);
+    }
+
+    @Benchmark
+    public File exportReportToHtml() throws IOException {
+        checker.exportReportToHtml(results, report);
+        return report;
+    }
+}
@@ -0,0 +1,144 @@
+package com.papercheck.batch;
+
+import com.papercheck.export.ExportFormat;
+import com.papercheck.export.ResultExporter;
+import com.papercheck.model.CheckResult;
+import com.papercheck.service.PaperFormatChecker;
+import com.papercheck.service.ResultAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量检查器：用固定数量的工作线程并行检查多个文档
+ * <p>
+ * 任务队列有界，队列满时由提交线程自己执行检查，避免一次性把成千上万个文件排进内存。
+ * 每个文档检查完成后立即把结果写入输出，所有线程共享同一个 {@link PaperFormatChecker}。
+ */
+public class BatchChecker {
+    private static final Logger logger = LoggerFactory.getLogger(BatchChecker.class);
+
+    private final PaperFormatChecker checker;
+    private final int threads;
+    private final boolean streaming;
+    private final boolean aggregate;
+
+    public BatchChecker(PaperFormatChecker checker, int threads) {
+        this(checker, threads, false);
+    }
+
+    public BatchChecker(PaperFormatChecker checker, int threads, boolean streaming) {
+        this(checker, threads, streaming, false);
+    }
+
+    /**
+     * @param checker   检查器，所有工作线程共享
+     * @param threads   工作线程数
+     * @param streaming 是否使用只读流式检查（{@link PaperFormatChecker#checkDocumentStreaming(File)}）
+     * @param aggregate 是否合并重复和连续段落上的相同问题（{@link ResultAggregator}）后再输出
+     */
+    public BatchChecker(PaperFormatChecker checker, int threads, boolean streaming, boolean aggregate) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("线程数必须大于0: " + threads);
+        }
+        this.checker = checker;
+        this.threads = threads;
+        this.streaming = streaming;
+        this.aggregate = aggregate;
+    }
+
+    /**
+     * 检查全部文档
+     *
+     * @param files  待检查的文档
+     * @param output 结果输出，每行一条：文件、问题类型、位置、问题描述、修改建议，以制表符分隔；不会被关闭
+     * @return 汇总统计
+     * @throws InterruptedException 如果等待过程中被中断
+     */
+    public BatchSummary run(List<File> files, Writer output) throws InterruptedException {
+        // TSV格式没有结尾，不关闭导出器，输出由调用方关闭
+        return run(files, ResultExporter.create(ExportFormat.TSV, output));
+    }
+
+    /**
+     * 检查全部文档
+     *
+     * @param files    待检查的文档
+     * @param exporter 结果导出器，每个文档检查完成后立即写出；不会被关闭
+     * @return 汇总统计
+     * @throws InterruptedException 如果等待过程中被中断
+     */
+    public BatchSummary run(List<File> files, ResultExporter exporter) throws InterruptedException {
+        logger.info("开始批量检查 {} 个文档，工作线程 {} 个", files.size(), threads);
+        
+        long[] latencies = new long[files.size()];
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong issues = new AtomicLong();
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2), new WorkerThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                int slot = i;
+                File file = files.get(i);
+                executor.execute(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        List<CheckResult> results = streaming
+                                ? checker.checkDocumentStreaming(file)
+                                : checker.checkDocument(file);
+                        issues.addAndGet(results.size());
+                        exporter.writeDocument(file.getPath(),
+                                aggregate ? ResultAggregator.aggregate(results) : results);
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        logger.error("检查文档失败: {}", file.getPath(), e);
+                        writeFailure(exporter, file, e);
+                    } finally {
+                        latencies[slot] = System.nanoTime() - begin;
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        BatchSummary summary = new BatchSummary(files.size(), failed.get(), issues.get(), elapsed, latencies);
+        logger.info("批量检查完成: {}", summary);
+        return summary;
+    }
+
+    private static void writeFailure(ResultExporter exporter, File file, Exception e) {
+        try {
+            exporter.writeFailure(file.getPath(), String.valueOf(e.getMessage()));
+        } catch (IOException ex) {
+            logger.error("写入检查结果失败", ex);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "batch-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.papercheck.batch;
+
+import com.papercheck.export.ExportFormat;
+import com.papercheck.export.ResultExporter;
+import com.papercheck.metrics.CheckerMetrics;
+import com.papercheck.rule.RuleProfile;
+import com.papercheck.service.CheckResultCache;
+import com.papercheck.service.PaperFormatChecker;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 无界面批量检查命令
+ * <p>
+ * 不依赖JavaFX，可直接运行：
+ * {@code java -cp word-paper-checker-jar-with-dependencies.jar com.papercheck.batch.BatchCommand
+ * [--threads N] [--output 结果文件] [--format 格式] [--aggregate] [--streaming] [--cache 缓存目录] [--profile 规则配置] [--metrics] <目录|文件|@列表文件>...}
+ * <ul>
+ *     <li>目录：递归查找其中的 .docx 文件（忽略 Word 的 ~$ 临时文件）</li>
+ *     <li>@列表文件：每行一个文档路径</li>
+ *     <li>--threads：工作线程数，默认为CPU核数</li>
+ *     <li>--output：结果文件（UTF-8），默认输出到控制台</li>
+ *     <li>--format：输出格式，tsv（默认）、jsonl、csv 或 sarif，结果随检查进度逐条写出，可直接通过管道交给下游工具；
+ *     结果输出到控制台时，提示信息、汇总和统计改写到标准错误，不混入结果</li>
+ *     <li>--aggregate：合并同一段落中的重复问题，并把连续段落上的相同问题合并为一条，如"第12–87段落"</li>
+ *     <li>--streaming：使用只读流式检查，内存占用更低、速度更快</li>
+ *     <li>--cache：检查结果缓存目录，内容未变的文档直接使用上次的检查结果</li>
+ *     <li>--profile：规则配置文件（.properties），默认使用内置的默认配置</li>
+ *     <li>--metrics：结束时输出各阶段、各规则的耗时及各类问题数（同时开启规则计时）；运行期间也可通过JMX查看</li>
+ * </ul>
+ */
+public class BatchCommand {
+    private BatchCommand() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(execute(args));
+    }
+
+    /**
+     * 执行批量检查命令
+     *
+     * @param args 命令行参数
+     * @return 进程退出码：0 全部成功，1 有文档检查失败，2 参数错误
+     */
+    public static int execute(String[] args) {
+        PrintStream console = System.out;
+        int threads = Runtime.getRuntime().availableProcessors();
+        File outputFile = null;
+        ExportFormat format = ExportFormat.TSV;
+        boolean streaming = false;
+        boolean aggregate = false;
+        Path cacheDirectory = null;
+        Path profileFile = null;
+        boolean printMetrics = false;
+        List<String> inputs = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "--output":
+                        outputFile = new File(requireValue(args, ++i));
+                        break;
+                    case "--format":
+                        format = ExportFormat.fromName(requireValue(args, ++i));
+                        break;
+                    case "--aggregate":
+                        aggregate = true;
+                        break;
+                    case "--streaming":
+                        streaming = true;
+                        break;
+                    case "--cache":
+                        cacheDirectory = Path.of(requireValue(args, ++i));
+                        break;
+                    case "--profile":
+                        profileFile = Path.of(requireValue(args, ++i));
+                        break;
+                    case "--metrics":
+                        printMetrics = true;
+                        break;
+                    default:
+                        inputs.add(args[i]);
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("未指定要检查的文档或目录");
+            }
+            
+            if (outputFile == null) {
+                // 结果写到标准输出时，提示信息改写到标准错误，不混入结果
+                console = System.err;
+            }
+            List<File> files = collectFiles(inputs);
+            RuleProfile profile = profileFile == null ? RuleProfile.defaults() : RuleProfile.load(profileFile);
+            console.println("待检查文档: " + files.size() + " 个，工作线程: " + threads + " 个，规则配置: " + profile.getName());
+            
+            if (printMetrics) {
+                CheckerMetrics.get().setRuleTimingEnabled(true);
+            }
+            CheckResultCache cache = cacheDirectory == null ? null : new CheckResultCache(cacheDirectory);
+            BatchChecker batchChecker = new BatchChecker(new PaperFormatChecker(profile, cache), threads, streaming, aggregate);
+            BatchSummary summary;
+            try (ResultExporter exporter = ResultExporter.create(format, openOutput(outputFile))) {
+                summary = batchChecker.run(files, exporter);
+            }
+            
+            console.println(summary);
+            if (cache != null) {
+                console.println(cache);
+            }
+            if (printMetrics) {
+                console.print(CheckerMetrics.get());
+            }
+            return summary.getFailed() == 0 ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            console.println("参数错误: " + e.getMessage());
+            console.println("用法: BatchCommand [--threads N] [--output 结果文件] [--format 格式] [--aggregate] [--streaming] [--cache 缓存目录] [--profile 规则配置] [--metrics] <目录|文件|@列表文件>...");
+            return 2;
+        } catch (IOException e) {
+            console.println("批量检查失败: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            console.println("批量检查被中断");
+            return 1;
+        }
+    }
+
+    /**
+     * 展开目录和列表文件，得到按路径排序的文档列表
+     */
+    static List<File> collectFiles(List<String> inputs) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String input : inputs) {
+            if (input.startsWith("@")) {
+                for (String line : Files.readAllLines(Path.of(input.substring(1)), StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        files.add(new File(line.trim()));
+                    }
+                }
+            } else if (new File(input).isDirectory()) {
+                try (Stream<Path> paths = Files.walk(Path.of(input))) {
+                    files.addAll(paths.filter(Files::isRegularFile)
+                            .filter(path -> isDocx(path.getFileName().toString()))
+                            .sorted()
+                            .map(Path::toFile)
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(new File(input));
+            }
+        }
+        return files;
+    }
+
+    private static boolean isDocx(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".docx") && !name.startsWith("~$");
+    }
+
+    private static Writer openOutput(File outputFile) throws IOException {
+        if (outputFile == null) {
+            // 控制台输出不能随结果一起关闭
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " 缺少参数值");
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,68 @@
+package com.papercheck.batch;
+
+import java.util.Arrays;
+
+/**
+ * 批量检查的汇总统计
+ */
+public class BatchSummary {
+    private final int documents;
+    private final int failed;
+    private final long issues;
+    private final long elapsedNanos;
+    private final long[] latencyNanos; // 已排序
+
+    public BatchSummary(int documents, int failed, long issues, long elapsedNanos, long[] latencyNanos) {
+        this.documents = documents;
+        this.failed = failed;
+        this.issues = issues;
+        this.elapsedNanos = elapsedNanos;
+        this.latencyNanos = latencyNanos.clone();
+        Arrays.sort(this.latencyNanos);
+    }
+
+    public int getDocuments() {
+        return documents;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getIssues() {
+        return issues;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return 吞吐量（文档/秒）
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedNanos == 0 ? 0 : documents * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * 单文档耗时的百分位数（最近秩法）
+     *
+     * @param percentile 百分位，如50、99
+     * @return 耗时（毫秒），没有样本时为0
+     */
+    public double getLatencyMillis(double percentile) {
+        if (latencyNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * latencyNanos.length);
+        int index = Math.min(Math.max(rank - 1, 0), latencyNanos.length - 1);
+        return latencyNanos[index] / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("文档 %d 个（失败 %d），问题 %d 个，耗时 %.1f 秒，吞吐量 %.2f 文档/秒，p50 %.1f ms，p99 %.1f ms",
+                documents, failed, issues, elapsedNanos / 1_000_000_000.0, getDocumentsPerSecond(),
+                getLatencyMillis(50), getLatencyMillis(99));
+    }
+}
@@ -0,0 +1,429 @@
+package com.papercheck.batch;
+
+import com.papercheck.export.ExportFormat;
+import com.papercheck.model.CheckResult;
+import com.papercheck.service.PaperFormatChecker;
+import com.papercheck.service.ResultAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 监视目录，文档保存后自动重新检查
+ * <p>
+ * 用 {@link WatchService} 监视目录及其子目录中的 .docx 文件（忽略 Word 的 ~$ 临时文件）。Word 保存时先写临时文件，
+ * 再删除、改名，同一文件短时间内会收到多个事件，因此每个文件的事件先去抖：最后一个事件之后静默 debounce 毫秒
+ * 才排入后台线程池检查。大小和修改时间与上次检查时相同的文件直接跳过；同一文件同时只有一个检查，
+ * 检查过程中又有变化时，检查结束后再检查一次。
+ * <p>
+ * 每次检查后原地覆盖该文档的报告（先写临时文件再替换，查看报告的人不会读到写了一半的文件），
+ * 文档被删除时同时删除报告。启动时先检查目录中已有的全部文档。
+ */
+public class FolderWatcher implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(FolderWatcher.class);
+
+    private final PaperFormatChecker checker;
+    private final boolean streaming;
+    private final boolean aggregate;
+    private final ExportFormat format;
+    private final Path reportDirectory;
+    private final long debounceMillis;
+    private final Listener listener;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final List<Path> roots = new ArrayList<>();
+    private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final Map<Path, FileState> states = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    /**
+     * @param checker         检查器，所有工作线程共享
+     * @param threads         检查线程数
+     * @param streaming       是否使用只读流式检查
+     * @param aggregate       是否合并重复和连续段落上的相同问题后再写报告
+     * @param format          报告格式，为null时写HTML报告
+     * @param reportDirectory 报告目录，按文档相对于监视目录的路径存放；为null时写在文档旁边
+     * @param debounceMillis  去抖时间（毫秒）
+     * @param listener        检查结果的接收方
+     * @throws IOException 如果无法创建文件监视服务
+     */
+    public FolderWatcher(PaperFormatChecker checker, int threads, boolean streaming, boolean aggregate,
+                         ExportFormat format, Path reportDirectory, long debounceMillis, Listener listener)
+            throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("线程数必须大于0: " + threads);
+        }
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("去抖时间不能为负数: " + debounceMillis);
+        }
+        this.checker = checker;
+        this.streaming = streaming;
+        this.aggregate = aggregate;
+        this.format = format;
+        this.reportDirectory = reportDirectory == null ? null : reportDirectory.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("watch-debounce"));
+        this.workers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("watch-worker"));
+    }
+
+    /**
+     * 开始监视目录，并检查其中已有的文档
+     *
+     * @throws IOException 如果目录不存在或无法监视
+     */
+    public void addDirectory(Path directory) throws IOException {
+        Path root = directory.toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            throw new IOException("目录不存在: " + directory);
+        }
+        synchronized (roots) {
+            roots.add(root);
+        }
+        register(root);
+        logger.info("开始监视目录: {}", root);
+    }
+
+    /**
+     * 处理文件事件，直到 {@link #close()} 被调用或线程被中断
+     *
+     * @throws InterruptedException 如果等待事件时被中断
+     */
+    public void run() throws InterruptedException {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // 事件丢失，重新扫描全部目录；未变化的文件会被跳过
+                        logger.warn("文件事件过多，重新扫描监视目录");
+                        rescan();
+                    } else if (directory != null) {
+                        onEvent(event.kind(), directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.info("停止监视目录");
+        }
+    }
+
+    /**
+     * 停止监视，等待正在进行的检查结束
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        scheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return 文档的报告文件
+     */
+    File reportFile(Path document) {
+        String name = document.getFileName().toString();
+        String reportName = name.substring(0, name.length() - ".docx".length())
+                + "-检查报告." + (format == null ? "html" : format.getExtension());
+        if (reportDirectory == null) {
+            return document.resolveSibling(reportName).toFile();
+        }
+        Path root = rootOf(document);
+        Path relative = root == null ? document.getFileName() : root.getFileName().resolve(root.relativize(document));
+        return reportDirectory.resolve(relative).resolveSibling(reportName).toFile();
+    }
+
+    private void onEvent(WatchEvent.Kind<?> kind, Path path) {
+        if (kind == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+            try {
+                register(path);
+            } catch (IOException e) {
+                logger.warn("无法监视新目录 {}: {}", path, e.getMessage());
+            }
+        } else if (isDocx(path) && !isReportDirectory(path)) {
+            schedule(path, debounceMillis);
+        }
+    }
+
+    /**
+     * 注册目录及其全部子目录，并把其中已有的文档排入检查
+     */
+    private void register(Path directory) throws IOException {
+        List<Path> documents;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<Path> all = paths.filter(path -> !isReportDirectory(path)).collect(Collectors.toList());
+            for (Path path : all) {
+                if (Files.isDirectory(path)) {
+                    WatchKey key = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                    directories.put(key, path);
+                }
+            }
+            documents = all.stream().filter(Files::isRegularFile).filter(FolderWatcher::isDocx).sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path document : documents) {
+            schedule(document, 0);
+        }
+    }
+
+    private void rescan() {
+        List<Path> current;
+        synchronized (roots) {
+            current = new ArrayList<>(roots);
+        }
+        for (Path root : current) {
+            try {
+                register(root);
+            } catch (IOException e) {
+                logger.warn("重新扫描目录 {} 失败: {}", root, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 去抖：取消该文件尚未执行的检查，重新计时
+     */
+    private void schedule(Path document, long delayMillis) {
+        pending.compute(document, (path, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return scheduler.schedule(() -> {
+                pending.remove(path);
+                workers.execute(() -> check(path));
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * 检查文档；同一文档已在检查时只做标记，由正在进行的检查结束后再检查一次
+     */
+    private void check(Path document) {
+        FileState state = states.computeIfAbsent(document, path -> new FileState());
+        if (!state.begin()) {
+            return;
+        }
+        try {
+            do {
+                checkOnce(document, state);
+            } while (state.again());
+        } catch (RuntimeException e) {
+            state.end();
+            throw e;
+        }
+    }
+
+    private void checkOnce(Path document, FileState state) {
+        File file = document.toFile();
+        if (!file.isFile()) {
+            // 文件已删除（Word 保存过程中的删除会被去抖合并，到这里时文件通常已重新出现）。
+            // 只清除记录的大小和修改时间，不移除状态：检查仍在进行，移除后新的事件会为同一文件再开始一个检查
+            state.forget();
+            deleteReport(document);
+            listener.onRemoved(file);
+            return;
+        }
+        long length = file.length();
+        long lastModified = file.lastModified();
+        if (state.isUnchanged(length, lastModified)) {
+            logger.debug("文档未变化，跳过: {}", document);
+            return;
+        }
+
+        try {
+            List<CheckResult> results = streaming ? checker.checkDocumentStreaming(file) : checker.checkDocument(file);
+            writeReport(document, aggregate ? ResultAggregator.aggregate(results) : results);
+            state.checked(length, lastModified);
+            listener.onChecked(file, results);
+        } catch (IOException e) {
+            // Word 可能仍在写入，下一个文件事件会再次触发检查
+            logger.warn("检查文档失败: {}: {}", document, e.getMessage());
+            listener.onFailed(file, e);
+        }
+    }
+
+    private void writeReport(Path document, List<CheckResult> results) throws IOException {
+        Path report = reportFile(document).toPath();
+        Files.createDirectories(report.getParent());
+        Path temp = report.resolveSibling("." + report.getFileName() + "." + System.nanoTime() + ".tmp");
+        try {
+            if (format == null) {
+                checker.exportReportToHtml(results, temp.toFile());
+            } else {
+                checker.exportReport(document.toString(), results, format, temp.toFile());
+            }
+            try {
+                Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void deleteReport(Path document) {
+        try {
+            Files.deleteIfExists(reportFile(document).toPath());
+        } catch (IOException e) {
+            logger.warn("删除报告失败: {}: {}", document, e.getMessage());
+        }
+    }
+
+    private Path rootOf(Path document) {
+        synchronized (roots) {
+            for (Path root : roots) {
+                if (document.startsWith(root)) {
+                    return root;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 报告目录位于监视目录之中时，不监视报告目录
+     */
+    private boolean isReportDirectory(Path path) {
+        return reportDirectory != null && path.startsWith(reportDirectory);
+    }
+
+    private static boolean isDocx(Path path) {
+        String name = path.getFileName().toString();
+        return name.toLowerCase(Locale.ROOT).endsWith(".docx") && !name.startsWith("~$");
+    }
+
+    /**
+     * 接收检查结果，在检查线程上调用
+     */
+    public interface Listener {
+        /**
+         * 文档检查完成，报告已更新
+         */
+        void onChecked(File document, List<CheckResult> results);
+
+        /**
+         * 文档检查失败，下次文件事件时会再次检查
+         */
+        default void onFailed(File document, Exception e) {
+        }
+
+        /**
+         * 文档已删除，报告随之删除
+         */
+        default void onRemoved(File document) {
+        }
+    }
+
+    /**
+     * 文档的检查状态
+     */
+    private static final class FileState {
+        private boolean running;
+        private boolean dirty;
+        private long length = -1;
+        private long lastModified = -1;
+
+        /**
+         * @return 是否可以开始检查；已有检查在进行时标记为需要再检查一次，返回false
+         */
+        synchronized boolean begin() {
+            if (running) {
+                dirty = true;
+                return false;
+            }
+            running = true;
+            return true;
+        }
+
+        /**
+         * @return 检查期间是否又有变化；没有时结束检查
+         */
+        synchronized boolean again() {
+            if (dirty) {
+                dirty = false;
+                return true;
+            }
+            running = false;
+            return false;
+        }
+
+        synchronized void end() {
+            running = false;
+            dirty = false;
+        }
+
+        synchronized boolean isUnchanged(long length, long lastModified) {
+            return this.length == length && this.lastModified == lastModified;
+        }
+
+        synchronized void checked(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 文件已删除，之后重新出现时无论大小和修改时间如何都要检查
+         */
+        synchronized void forget() {
+            this.length = -1;
+            this.lastModified = -1;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
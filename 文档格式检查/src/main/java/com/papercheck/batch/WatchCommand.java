@@ -0,0 +1,172 @@
+package com.papercheck.batch;
+
+import com.papercheck.export.ExportFormat;
+import com.papercheck.model.CheckResult;
+import com.papercheck.rule.RuleProfile;
+import com.papercheck.service.CheckResultCache;
+import com.papercheck.service.PaperFormatChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 监视目录命令：文档保存后自动重新检查并更新报告
+ * <p>
+ * 不依赖JavaFX，可直接运行：
+ * {@code java -cp word-paper-checker-jar-with-dependencies.jar com.papercheck.batch.WatchCommand
+ * [--threads N] [--reports 报告目录] [--format 格式] [--aggregate] [--streaming] [--debounce 毫秒] [--cache 缓存目录] [--profile 规则配置] <目录>...}
+ * <ul>
+ *     <li>目录：递归监视其中的 .docx 文件（忽略 Word 的 ~$ 临时文件），启动时先检查已有的全部文档</li>
+ *     <li>--threads：检查线程数，默认为CPU核数</li>
+ *     <li>--reports：报告目录，按文档在监视目录中的相对路径存放；默认写在文档旁边，如"论文-检查报告.html"</li>
+ *     <li>--format：报告格式，html（默认）、tsv、jsonl、csv 或 sarif</li>
+ *     <li>--aggregate：报告中合并同一段落中的重复问题和连续段落上的相同问题</li>
+ *     <li>--streaming：使用只读流式检查</li>
+ *     <li>--debounce：文件最后一次变化后等待多久再检查，默认1000毫秒</li>
+ *     <li>--cache：检查结果缓存目录，重启后内容未变的文档直接使用上次的检查结果</li>
+ *     <li>--profile：规则配置文件（.properties），默认使用内置的默认配置</li>
+ * </ul>
+ * 每检查完一个文档在控制台输出一行，按 Ctrl+C 结束。
+ */
+public class WatchCommand {
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 1000;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private WatchCommand() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(execute(args));
+    }
+
+    /**
+     * 执行监视命令，直到进程被终止
+     *
+     * @param args 命令行参数
+     * @return 进程退出码：1 无法监视目录，2 参数错误
+     */
+    public static int execute(String[] args) {
+        PrintStream console = System.out;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path reportDirectory = null;
+        ExportFormat format = null;
+        boolean aggregate = false;
+        boolean streaming = false;
+        long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+        Path cacheDirectory = null;
+        Path profileFile = null;
+        List<Path> directories = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "--reports":
+                        reportDirectory = Path.of(requireValue(args, ++i));
+                        break;
+                    case "--format":
+                        String name = requireValue(args, ++i);
+                        format = "html".equalsIgnoreCase(name) ? null : ExportFormat.fromName(name);
+                        break;
+                    case "--aggregate":
+                        aggregate = true;
+                        break;
+                    case "--streaming":
+                        streaming = true;
+                        break;
+                    case "--debounce":
+                        debounceMillis = Long.parseLong(requireValue(args, ++i));
+                        break;
+                    case "--cache":
+                        cacheDirectory = Path.of(requireValue(args, ++i));
+                        break;
+                    case "--profile":
+                        profileFile = Path.of(requireValue(args, ++i));
+                        break;
+                    default:
+                        directories.add(Path.of(args[i]));
+                }
+            }
+            if (directories.isEmpty()) {
+                throw new IllegalArgumentException("未指定要监视的目录");
+            }
+
+            RuleProfile profile = profileFile == null ? RuleProfile.defaults() : RuleProfile.load(profileFile);
+            CheckResultCache cache = cacheDirectory == null ? null : new CheckResultCache(cacheDirectory);
+            PaperFormatChecker checker = new PaperFormatChecker(profile, cache);
+            FolderWatcher watcher = new FolderWatcher(checker, threads, streaming, aggregate, format,
+                    reportDirectory, debounceMillis, new ConsoleListener(console));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    console.println("停止监视失败: " + e.getMessage());
+                }
+            }, "watch-shutdown"));
+
+            for (Path directory : directories) {
+                watcher.addDirectory(directory);
+            }
+            console.println("监视目录: " + directories.size() + " 个，检查线程: " + threads + " 个，规则配置: "
+                    + profile.getName() + "，按 Ctrl+C 结束");
+            watcher.run();
+            return 0;
+        } catch (IllegalArgumentException e) {
+            console.println("参数错误: " + e.getMessage());
+            console.println("用法: WatchCommand [--threads N] [--reports 报告目录] [--format 格式] [--aggregate] [--streaming] [--debounce 毫秒] [--cache 缓存目录] [--profile 规则配置] <目录>...");
+            return 2;
+        } catch (IOException e) {
+            console.println("监视目录失败: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            console.println("监视被中断");
+            return 1;
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " 缺少参数值");
+        }
+        return args[index];
+    }
+
+    /**
+     * 每个文档输出一行
+     */
+    private static class ConsoleListener implements FolderWatcher.Listener {
+        private final PrintStream out;
+
+        ConsoleListener(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onChecked(File document, List<CheckResult> results) {
+            out.println(now() + " 已检查 " + document.getPath() + ": " + results.size() + " 个问题");
+        }
+
+        @Override
+        public void onFailed(File document, Exception e) {
+            out.println(now() + " 检查失败 " + document.getPath() + ": " + e.getMessage());
+        }
+
+        @Override
+        public void onRemoved(File document) {
+            out.println(now() + " 已删除 " + document.getPath());
+        }
+
+        private static String now() {
+            return LocalTime.now().format(TIME);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.papercheck.controller;
 
+import com.papercheck.export.ExportFormat;
 import com.papercheck.model.CheckResult;
+import com.papercheck.rule.RuleProfile;
+import com.papercheck.service.CheckProgressListener;
+import com.papercheck.service.CheckResultCache;
+import com.papercheck.service.DocumentSession;
 import com.papercheck.service.PaperFormatChecker;
+import com.papercheck.service.ParagraphFingerprintIndex;
+import com.papercheck.service.ResultAggregator;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -12,8 +21,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 主界面控制器
@@ -45,9 +58,15 @@ public class MainController {
     @FXML
     private TableColumn<CheckResult, String> suggestionColumn;
     
+    @FXML
+    private TableColumn<CheckResult, Integer> countColumn;
+    
     @FXML
     private ListView<String> rulesListView;
     
+    @FXML
+    private ComboBox<RuleProfile> profileComboBox;
+    
     @FXML
     private Label statusLabel;
     
@@ -60,9 +79,32 @@ public class MainController {
     @FXML
     private Button fixButton;
     
+    @FXML
+    private ProgressBar progressBar;
+    
+    @FXML
+    private Button cancelButton;
+    
     private File selectedFile;
-    private PaperFormatChecker checker;
+    // 切换规则配置时在界面线程上替换，后台任务读取
+    private volatile PaperFormatChecker checker;
+    private CheckResultCache resultCache;
     private ObservableList<CheckResult> checkResults = FXCollections.observableArrayList();
+    private Task<?> currentTask;
+    
+    // 当前文档的会话，只在后台线程上读写；同一时间最多保留一个，避免重复解析同一文档
+    private volatile DocumentSession session;
+    
+    // 上次检查记录的段落指纹及对应文件，再次检查同一文件时只重新检查改动过的段落（只在后台线程上读写）
+    private volatile ParagraphFingerprintIndex lastIndex;
+    private volatile File lastIndexFile;
+    
+    // 检查、预览、修复都在后台线程执行，避免阻塞界面线程
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "paper-check-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     @FXML
     public void initialize() {
@@ -71,30 +113,84 @@ public class MainController {
         locationColumn.setCellValueFactory(new PropertyValueFactory<>("location"));
         descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
         suggestionColumn.setCellValueFactory(new PropertyValueFactory<>("suggestion"));
+        countColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
         
         resultsTable.setItems(checkResults);
         
-        // 初始化检查规则列表
-        ObservableList<String> rules = FXCollections.observableArrayList(
-            "1. 标题格式: 论文标题应使用黑体、三号字",
-            "2. 正文格式: 正文应使用宋体、小四号字",
-            "3. 段落格式: 段落首行缩进2字符",
-            "4. 页边距: 上下2.5cm，左右3.0cm",
-            "5. 行间距: 1.5倍行距",
-            "6. 页码: 页码应位于页面底部居中",
-            "7. 图表标题: 图表标题应居中显示",
-            "8. 参考文献格式: 应符合GB/T 7714-2015标准"
-        );
-        rulesListView.setItems(rules);
+        // 初始化检查器，重复检查同一文档时直接使用缓存结果
+        resultCache = openResultCache();
         
-        // 初始化检查器
-        checker = new PaperFormatChecker();
+        // 初始化规则配置，默认使用第一个内置配置；检查规则列表随配置变化
+        profileComboBox.getItems().setAll(RuleProfile.bundled());
+        profileComboBox.getSelectionModel().selectFirst();
+        if (checker == null) {
+            applyProfile(profileComboBox.getValue());
+        }
         
         // 初始化按钮状态
         previewButton.setDisable(true);
         fixButton.setDisable(true);
     }
     
+    private CheckResultCache openResultCache() {
+        try {
+            return new CheckResultCache(CheckResultCache.defaultDirectory());
+        } catch (IOException e) {
+            logger.warn("无法打开检查结果缓存，将不使用缓存", e);
+            return null;
+        }
+    }
+    
+    @FXML
+    public void handleProfileChange() {
+        RuleProfile profile = profileComboBox.getValue();
+        if (profile != null && (checker == null || profile != checker.getRulePlan().getProfile())) {
+            applyProfile(profile);
+        }
+    }
+    
+    @FXML
+    public void handleLoadProfile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("加载规则配置");
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("规则配置", "*.properties")
+        );
+        
+        File file = fileChooser.showOpenDialog(profileComboBox.getScene().getWindow());
+        if (file != null) {
+            try {
+                RuleProfile profile = RuleProfile.load(file.toPath());
+                profileComboBox.getItems().add(profile);
+                profileComboBox.getSelectionModel().select(profile);
+                applyProfile(profile);
+            } catch (Exception e) {
+                logger.error("加载规则配置时出错", e);
+                showAlert(Alert.AlertType.ERROR, "错误", "加载规则配置时出错: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 切换规则配置：重新编译检查器，之前的检查结果和段落指纹都不再适用
+     */
+    private void applyProfile(RuleProfile profile) {
+        checker = new PaperFormatChecker(profile, resultCache);
+        rulesListView.setItems(FXCollections.observableArrayList(checker.getRulePlan().describeRules()));
+        
+        checkResults.clear();
+        exportButton.setDisable(true);
+        previewButton.setDisable(true);
+        fixButton.setDisable(true);
+        executor.execute(() -> {
+            closeSession();
+            lastIndex = null;
+            lastIndexFile = null;
+        });
+        statusLabel.setText("规则配置: " + profile.getName());
+        logger.info("使用规则配置: {}", profile.getName());
+    }
+    
     @FXML
     public void handleSelectFile() {
         FileChooser fileChooser = new FileChooser();
@@ -109,6 +205,8 @@ public class MainController {
             filePathLabel.setText(selectedFile.getPath());
             checkButton.setDisable(false);
             statusLabel.setText("已选择文件: " + selectedFile.getName());
+            // 换了文件，释放上一个文档
+            executor.execute(this::closeSession);
             logger.info("已选择文件: {}", selectedFile.getPath());
         }
     }
@@ -120,20 +218,59 @@ public class MainController {
             return;
         }
         
-        statusLabel.setText("正在检查...");
-        checkButton.setDisable(true);
-        
         // 清空之前的结果
         checkResults.clear();
+        exportButton.setDisable(true);
+        previewButton.setDisable(true);
+        fixButton.setDisable(true);
         
-        try {
-            // 执行检查
-            List<CheckResult> results = checker.checkDocument(selectedFile);
+        File file = selectedFile;
+        ProgressTask<List<CheckResult>> task = new ProgressTask<>() {
+            // 边检查边合并重复问题，界面只显示合并后的结果
+            private final List<CheckResult> merged = new ArrayList<>();
+            private final ResultAggregator aggregator = new ResultAggregator(merged::add);
+            
+            @Override
+            protected List<CheckResult> call() throws Exception {
+                // 重新检查时重新解析文档，之后的预览、修复复用本次解析结果
+                closeSession();
+                session = checker.openSession(file, file.equals(lastIndexFile) ? lastIndex : null);
+                List<CheckResult> results = session.check(this);
+                if (session.getFingerprintIndex() != null) {
+                    lastIndex = session.getFingerprintIndex();
+                    lastIndexFile = file;
+                }
+                aggregator.finish();
+                publish();
+                return results;
+            }
+            
+            @Override
+            public void onResults(List<CheckResult> batch) {
+                batch.forEach(aggregator);
+                publish();
+            }
             
-            // 显示结果
-            checkResults.addAll(results);
+            private void publish() {
+                if (merged.isEmpty()) {
+                    return;
+                }
+                // 分批推送到界面，避免一次性插入大量行
+                List<CheckResult> ready = new ArrayList<>(merged);
+                merged.clear();
+                Platform.runLater(() -> {
+                    if (!isCancelled()) {
+                        checkResults.addAll(ready);
+                    }
+                });
+            }
+        };
+        
+        task.setOnSucceeded(event -> {
+            List<CheckResult> results = task.getValue();
             
-            statusLabel.setText("检查完成，发现 " + results.size() + " 个问题");
+            statusLabel.setText("检查完成，发现 " + results.size() + " 个问题"
+                    + (results.isEmpty() ? "" : "（合并为 " + checkResults.size() + " 条）"));
             exportButton.setDisable(results.isEmpty());
             
             // 如果有问题，启用预览和修复按钮
@@ -145,13 +282,18 @@ public class MainController {
             }
             
             logger.info("文档检查完成，发现 {} 个问题", results.size());
-        } catch (Exception e) {
-            logger.error("检查文档时出错", e);
+        });
+        task.setOnCancelled(event -> {
+            checkResults.clear();
+            statusLabel.setText("检查已取消");
+        });
+        task.setOnFailed(event -> {
+            logger.error("检查文档时出错", task.getException());
             statusLabel.setText("检查失败");
-            showAlert(Alert.AlertType.ERROR, "错误", "检查文档时出错: " + e.getMessage());
-        } finally {
-            checkButton.setDisable(false);
-        }
+            showAlert(Alert.AlertType.ERROR, "错误", "检查文档时出错: " + task.getException().getMessage());
+        });
+        
+        runTask(task, "正在检查...", checkButton);
     }
     
     @FXML
@@ -175,12 +317,17 @@ public class MainController {
         File previewFile = fileChooser.showSaveDialog(previewButton.getScene().getWindow());
         
         if (previewFile != null) {
-            try {
-                statusLabel.setText("正在创建预览...");
-                previewButton.setDisable(true);
-                
-                // 创建预览文档
-                List<CheckResult> fixedResults = checker.createFixedDocumentPreview(selectedFile, previewFile);
+            File file = selectedFile;
+            ProgressTask<List<CheckResult>> task = new ProgressTask<>() {
+                @Override
+                protected List<CheckResult> call() throws Exception {
+                    // 创建预览文档
+                    return openSession(file).writeFixed(previewFile, this);
+                }
+            };
+            
+            task.setOnSucceeded(event -> {
+                List<CheckResult> fixedResults = task.getValue();
                 
                 statusLabel.setText("预览文档已保存至: " + previewFile.getPath());
                 logger.info("预览文档已保存至: {}", previewFile.getPath());
@@ -192,13 +339,15 @@ public class MainController {
                 alert.setContentText("预览文档已保存至:\n" + previewFile.getPath() + 
                                     "\n\n您可以打开此文档查看修复效果，然后决定是否应用这些修改。");
                 alert.showAndWait();
-            } catch (Exception e) {
-                logger.error("创建预览文档时出错", e);
+            });
+            task.setOnCancelled(event -> statusLabel.setText("创建预览已取消"));
+            task.setOnFailed(event -> {
+                logger.error("创建预览文档时出错", task.getException());
                 statusLabel.setText("创建预览失败");
-                showAlert(Alert.AlertType.ERROR, "错误", "创建预览文档时出错: " + e.getMessage());
-            } finally {
-                previewButton.setDisable(false);
-            }
+                showAlert(Alert.AlertType.ERROR, "错误", "创建预览文档时出错: " + task.getException().getMessage());
+            });
+            
+            runTask(task, "正在创建预览...", previewButton);
         }
     }
     
@@ -231,12 +380,20 @@ public class MainController {
             File fixedFile = fileChooser.showSaveDialog(fixButton.getScene().getWindow());
             
             if (fixedFile != null) {
-                try {
-                    statusLabel.setText("正在修复...");
-                    fixButton.setDisable(true);
-                    
-                    // 修复文档
-                    List<CheckResult> fixedResults = checker.fixDocument(selectedFile, fixedFile);
+                File file = selectedFile;
+                ProgressTask<List<CheckResult>> task = new ProgressTask<>() {
+                    @Override
+                    protected List<CheckResult> call() throws Exception {
+                        // 修复文档
+                        List<CheckResult> fixedResults = openSession(file).writeFixed(fixedFile, this);
+                        // 问题已修复，释放文档
+                        closeSession();
+                        return fixedResults;
+                    }
+                };
+                
+                task.setOnSucceeded(event -> {
+                    List<CheckResult> fixedResults = task.getValue();
                     
                     statusLabel.setText("文档已修复并保存至: " + fixedFile.getPath());
                     logger.info("修复后的文档已保存至: {}", fixedFile.getPath());
@@ -251,17 +408,82 @@ public class MainController {
                     previewButton.setDisable(true);
                     fixButton.setDisable(true);
                     exportButton.setDisable(true);
-                } catch (Exception e) {
-                    logger.error("修复文档时出错", e);
+                });
+                task.setOnCancelled(event -> statusLabel.setText("修复已取消"));
+                task.setOnFailed(event -> {
+                    logger.error("修复文档时出错", task.getException());
                     statusLabel.setText("修复失败");
-                    showAlert(Alert.AlertType.ERROR, "错误", "修复文档时出错: " + e.getMessage());
-                } finally {
-                    fixButton.setDisable(false);
-                }
+                    showAlert(Alert.AlertType.ERROR, "错误", "修复文档时出错: " + task.getException().getMessage());
+                });
+                
+                runTask(task, "正在修复...", fixButton);
             }
         }
     }
     
+    @FXML
+    public void handleCancel() {
+        if (currentTask != null && currentTask.isRunning()) {
+            logger.info("用户取消当前任务");
+            currentTask.cancel();
+        }
+    }
+    
+    /**
+     * 获取当前文档的会话，没有时重新打开（仅在后台线程调用）
+     */
+    private DocumentSession openSession(File file) {
+        DocumentSession current = session;
+        if (current == null || !current.getFile().equals(file)) {
+            closeSession();
+            current = checker.openSession(file);
+            session = current;
+        }
+        return current;
+    }
+    
+    /**
+     * 释放当前文档的会话（仅在后台线程调用）
+     */
+    private void closeSession() {
+        DocumentSession current = session;
+        session = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("关闭文档时出错", e);
+            }
+        }
+    }
+    
+    /**
+     * 在后台线程执行任务，期间显示进度条并禁用触发按钮
+     */
+    private void runTask(Task<?> task, String status, Button triggerButton) {
+        statusLabel.setText(status);
+        triggerButton.setDisable(true);
+        
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        cancelButton.setVisible(true);
+        cancelButton.setDisable(false);
+        
+        task.runningProperty().addListener((observable, wasRunning, running) -> {
+            if (!running) {
+                progressBar.progressProperty().unbind();
+                progressBar.setVisible(false);
+                cancelButton.setDisable(true);
+                cancelButton.setVisible(false);
+                triggerButton.setDisable(false);
+                currentTask = null;
+            }
+        });
+        
+        currentTask = task;
+        executor.execute(task);
+    }
+    
     @FXML
     public void handleExport() {
         if (checkResults.isEmpty()) {
@@ -271,8 +493,11 @@ public class MainController {
         
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("导出检查报告");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("HTML文件", "*.html")
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("HTML文件", "*.html"),
+            new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+            new FileChooser.ExtensionFilter("CSV文件", "*.csv"),
+            new FileChooser.ExtensionFilter("SARIF", "*.sarif")
         );
         fileChooser.setInitialFileName("论文格式检查报告.html");
         
@@ -280,7 +505,13 @@ public class MainController {
         
         if (file != null) {
             try {
-                checker.exportReportToHtml(checkResults, file);
+                ExportFormat format = ExportFormat.forFile(file);
+                if (format == null) {
+                    checker.exportReportToHtml(checkResults, file);
+                } else {
+                    String documentId = selectedFile == null ? "" : selectedFile.getName();
+                    checker.exportReport(documentId, checkResults, format, file);
+                }
                 statusLabel.setText("报告已导出至: " + file.getPath());
                 logger.info("报告已导出至: {}", file.getPath());
                 
@@ -300,4 +531,14 @@ public class MainController {
         alert.setContentText(content);
         alert.showAndWait();
     }
+    
+    /**
+     * 可汇报检查进度的后台任务
+     */
+    private abstract static class ProgressTask<T> extends Task<T> implements CheckProgressListener {
+        @Override
+        public void onProgress(int processed, int total) {
+            updateProgress(processed, total);
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.Writer;
+
+/**
+ * CSV导出格式（RFC 4180），首行为列名：document,status,issueType,location,description,suggestion,count。
+ * status 为 issue、passed 或 error；error 行的 description 列为失败原因
+ */
+class CsvExporter extends ResultExporter {
+
+    CsvExporter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendHeader(StringBuilder out) {
+        out.append("document,status,issueType,location,description,suggestion,count\r\n");
+    }
+
+    @Override
+    protected void appendResult(StringBuilder out, String documentId, CheckResult result) {
+        appendRow(out, documentId, "issue", result.getIssueType(), result.getLocation(),
+                result.getDescription(), result.getSuggestion(), String.valueOf(result.getCount()));
+    }
+
+    @Override
+    protected void appendPassed(StringBuilder out, String documentId) {
+        appendRow(out, documentId, "passed", "", "", "", "", "0");
+    }
+
+    @Override
+    protected void appendFailure(StringBuilder out, String documentId, String message) {
+        appendRow(out, documentId, "error", "", "", message, "", "0");
+    }
+
+    private static void appendRow(StringBuilder out, String... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendField(out, fields[i] == null ? "" : fields[i]);
+        }
+        out.append("\r\n");
+    }
+
+    /**
+     * 含逗号、引号或换行的字段加引号，字段内的引号写两次
+     */
+    private static void appendField(StringBuilder out, String field) {
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(field);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
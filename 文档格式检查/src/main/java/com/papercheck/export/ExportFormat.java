@@ -0,0 +1,57 @@
+package com.papercheck.export;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * 检查结果的导出格式
+ */
+public enum ExportFormat {
+    /** 制表符分隔：文件、问题类型、位置、问题描述、修改建议（批量检查的默认输出） */
+    TSV("tsv"),
+    /** 每行一个JSON对象 */
+    JSONL("jsonl"),
+    /** 逗号分隔，首行为列名 */
+    CSV("csv"),
+    /** SARIF 2.1.0，可直接导入代码扫描类工具 */
+    SARIF("sarif");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return 文件扩展名（不含点）
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param name 格式名称，不区分大小写
+     * @throws IllegalArgumentException 如果格式不存在
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("不支持的导出格式: " + name + "（可选 tsv、jsonl、csv、sarif）");
+    }
+
+    /**
+     * @return 按扩展名判断的格式；不是以上格式（如 .html）时为null
+     */
+    public static ExportFormat forFile(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        for (ExportFormat format : values()) {
+            if (name.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,255 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * HTML检查报告的流式写出器
+ * <p>
+ * 逐条写出检查结果，不在内存中保留结果，占用的内存与问题数量无关；以UTF-8编码经缓冲区写出，
+ * 所有文本均做HTML转义。问题超过一页（默认 {@value #DEFAULT_PAGE_SIZE} 条）时，第一页直接显示，
+ * 其余各页折叠在 {@code <details>} 中，浏览器打开数万条问题的报告时也不会卡顿。
+ * 问题总数和按类型的统计在写完全部结果后才知道，输出在表格之后，由样式调整到页面顶部显示。
+ * <pre>{@code
+ * try (HtmlReportWriter writer = HtmlReportWriter.open(file)) {
+ *     writer.writeAll(results.iterator());
+ * }
+ * }</pre>
+ */
+public final class HtmlReportWriter implements Closeable {
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final int pageSize;
+    private final Map<String, Integer> countsByType = new TreeMap<>(); // 问题类型只有几种
+    private long count;
+    private long issues; // 合并前的问题数
+    private boolean closed;
+
+    /**
+     * @param out      输出流，关闭写出器时一并关闭
+     * @param pageSize 每页的问题数
+     */
+    public HtmlReportWriter(OutputStream out, int pageSize) throws IOException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("每页问题数必须大于0: " + pageSize);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.pageSize = pageSize;
+        writeHead();
+    }
+
+    /**
+     * 创建写出到文件的报告写出器，每页 {@value #DEFAULT_PAGE_SIZE} 条
+     */
+    public static HtmlReportWriter open(File file) throws IOException {
+        return new HtmlReportWriter(Files.newOutputStream(file.toPath()), DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * 写出一条检查结果
+     */
+    public void write(CheckResult result) throws IOException {
+        if (count > 0 && count % pageSize == 0) {
+            // 换页：结束上一页的表格，之后的页默认折叠
+            writer.write("    </table>\n");
+            if (count > pageSize) {
+                writer.write("    </details>\n");
+            }
+            writer.write("    <details>\n");
+            writer.write("        <summary>第" + (count / pageSize + 1) + "页（第" + (count + 1) + "条起）</summary>\n");
+            writeTableHead();
+        }
+        count++;
+        issues += result.getCount();
+        countsByType.merge(String.valueOf(result.getIssueType()), result.getCount(), Integer::sum);
+
+        writer.write("        <tr>\n");
+        writeCell("            <td class=\"issue-type\">", result.getIssueType());
+        writeCell("            <td>", ResultExporter.displayLocation(result));
+        writeCell("            <td>", result.getDescription());
+        writeCell("            <td>", result.getSuggestion());
+        writer.write("        </tr>\n");
+    }
+
+    /**
+     * 依次写出迭代器中的全部检查结果
+     */
+    public void writeAll(Iterator<CheckResult> results) throws IOException {
+        while (results.hasNext()) {
+            write(results.next());
+        }
+    }
+
+    /**
+     * @return 已写出的结果条数（合并后的结果算一条）
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 写出统计信息和页尾，并关闭输出
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (Writer out = writer) {
+            out.write("    </table>\n");
+            if (count > pageSize) {
+                out.write("    </details>\n");
+            }
+
+            // 如果没有问题
+            if (count == 0) {
+                out.write("    <p style=\"text-align: center; color: green; font-weight: bold; margin-top: 30px;\">");
+                out.write("恭喜！未发现格式问题。</p>\n");
+            }
+
+            // 摘要信息，样式 order 使其显示在标题之下
+            out.write("    <div class=\"summary\">\n");
+            out.write("        <p>检查时间: " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "</p>\n");
+            out.write("        <p>发现问题数量: " + issues + (issues == count ? "" : "（合并为 " + count + " 条）") + "</p>\n");
+            if (count > 0) {
+                out.write("        <p>");
+                boolean first = true;
+                for (Map.Entry<String, Integer> entry : countsByType.entrySet()) {
+                    if (!first) {
+                        out.write("，");
+                    }
+                    first = false;
+                    out.write(escape(entry.getKey()) + " " + entry.getValue() + " 个");
+                }
+                out.write("</p>\n");
+            }
+            if (count > pageSize) {
+                out.write("        <p>每页 " + pageSize + " 条，共 " + ((count + pageSize - 1) / pageSize) + " 页，第2页起点击展开</p>\n");
+            }
+            out.write("    </div>\n");
+
+            // 页脚
+            out.write("    <div class=\"footer\">\n");
+            out.write("        <p>论文格式检查工具 - 自动生成报告</p>\n");
+            out.write("    </div>\n");
+
+            // HTML尾部
+            out.write("</body>\n");
+            out.write("</html>");
+        }
+    }
+
+    private void writeHead() throws IOException {
+        writer.write("<!DOCTYPE html>\n");
+        writer.write("<html lang=\"zh-CN\">\n");
+        writer.write("<head>\n");
+        writer.write("    <meta charset=\"UTF-8\">\n");
+        writer.write("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
+        writer.write("    <title>论文格式检查报告</title>\n");
+        writer.write("    <style>\n");
+        writer.write("        body { font-family: Arial, sans-serif; margin: 40px; display: flex; flex-direction: column; }\n");
+        writer.write("        h1 { color: #333; text-align: center; order: -2; }\n");
+        writer.write("        .summary { margin: 20px 0; padding: 10px; background-color: #f5f5f5; border-radius: 5px; order: -1; }\n");
+        writer.write("        table { width: 100%; border-collapse: collapse; margin-top: 20px; }\n");
+        writer.write("        th, td { padding: 10px; text-align: left; border-bottom: 1px solid #ddd; }\n");
+        writer.write("        th { background-color: #4CAF50; color: white; }\n");
+        writer.write("        tr:hover { background-color: #f5f5f5; }\n");
+        writer.write("        .issue-type { font-weight: bold; }\n");
+        writer.write("        details { margin-top: 10px; }\n");
+        writer.write("        summary { cursor: pointer; color: #4CAF50; font-weight: bold; }\n");
+        writer.write("        .footer { margin-top: 30px; text-align: center; color: #777; font-size: 14px; }\n");
+        writer.write("    </style>\n");
+        writer.write("</head>\n");
+        writer.write("<body>\n");
+
+        // 报告标题
+        writer.write("    <h1>论文格式检查报告</h1>\n");
+
+        // 结果表格
+        writeTableHead();
+    }
+
+    private void writeTableHead() throws IOException {
+        writer.write("    <table>\n");
+        writer.write("        <tr>\n");
+        writer.write("            <th>问题类型</th>\n");
+        writer.write("            <th>位置</th>\n");
+        writer.write("            <th>问题描述</th>\n");
+        writer.write("            <th>修改建议</th>\n");
+        writer.write("        </tr>\n");
+    }
+
+    private void writeCell(String open, String text) throws IOException {
+        writer.write(open);
+        writeEscaped(text);
+        writer.write("</td>\n");
+    }
+
+    /**
+     * 转义后写出，逐字符写入缓冲区，不创建中间字符串
+     */
+    private void writeEscaped(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement = replacement(text.charAt(i));
+            if (replacement != null) {
+                writer.write(text, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        writer.write(text, start, text.length() - start);
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = replacement(c);
+            if (replacement != null) {
+                escaped.append(replacement);
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String replacement(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            case '\'':
+                return "&#39;";
+            default:
+                return null;
+        }
+    }
+}
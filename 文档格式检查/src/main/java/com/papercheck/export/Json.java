@@ -0,0 +1,53 @@
+package com.papercheck.export;
+
+/**
+ * 最简单的JSON文本拼接工具，只用于输出检查结果和指标，不引入JSON库
+ */
+public final class Json {
+    private Json() {
+    }
+
+    /**
+     * 追加带引号的JSON字符串，null输出为 null
+     */
+    public static StringBuilder quote(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"');
+    }
+
+    /**
+     * 追加 "name": 
+     */
+    public static StringBuilder name(StringBuilder json, String name) {
+        return quote(json, name).append(':');
+    }
+}
@@ -0,0 +1,54 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.Writer;
+
+/**
+ * JSON Lines导出格式，每行一个对象：
+ * <pre>{@code
+ * {"document":"a.docx","status":"issue","issueType":"段落格式","location":"第3–9段落","description":"...","suggestion":"...","count":7}
+ * {"document":"b.docx","status":"passed"}
+ * {"document":"c.docx","status":"error","message":"..."}
+ * }</pre>
+ */
+class JsonLinesExporter extends ResultExporter {
+
+    JsonLinesExporter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendResult(StringBuilder out, String documentId, CheckResult result) {
+        begin(out, documentId, "issue").append(',');
+        Json.name(out, "issueType");
+        Json.quote(out, result.getIssueType()).append(',');
+        Json.name(out, "location");
+        Json.quote(out, result.getLocation()).append(',');
+        Json.name(out, "description");
+        Json.quote(out, result.getDescription()).append(',');
+        Json.name(out, "suggestion");
+        Json.quote(out, result.getSuggestion()).append(',');
+        Json.name(out, "count").append(result.getCount()).append("}\n");
+    }
+
+    @Override
+    protected void appendPassed(StringBuilder out, String documentId) {
+        begin(out, documentId, "passed").append("}\n");
+    }
+
+    @Override
+    protected void appendFailure(StringBuilder out, String documentId, String message) {
+        begin(out, documentId, "error").append(',');
+        Json.name(out, "message");
+        Json.quote(out, message).append("}\n");
+    }
+
+    private static StringBuilder begin(StringBuilder out, String documentId, String status) {
+        out.append('{');
+        Json.name(out, "document");
+        Json.quote(out, documentId).append(',');
+        Json.name(out, "status");
+        return Json.quote(out, status);
+    }
+}
@@ -0,0 +1,152 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 检查结果的流式导出器
+ * <p>
+ * 每检查完一个文档就调用一次 {@link #writeDocument}，结果立即写出并刷新，导出器本身不保留已写出的结果，
+ * 检查数千个文档时也可以直接通过管道交给下游工具。方法均已同步，多个工作线程可共用同一个导出器，
+ * 同一文档的结果保证连续输出。
+ */
+public abstract class ResultExporter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private boolean started;
+    private boolean closed;
+
+    protected ResultExporter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 创建导出器
+     *
+     * @param format 导出格式
+     * @param out    输出流，以UTF-8编码写出，关闭导出器时一并关闭
+     */
+    public static ResultExporter create(ExportFormat format, OutputStream out) {
+        return create(format, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * 创建导出器
+     *
+     * @param format 导出格式
+     * @param writer 输出，关闭导出器时一并关闭
+     */
+    public static ResultExporter create(ExportFormat format, Writer writer) {
+        switch (format) {
+            case JSONL:
+                return new JsonLinesExporter(writer);
+            case CSV:
+                return new CsvExporter(writer);
+            case SARIF:
+                return new SarifExporter(writer);
+            case TSV:
+            default:
+                return new TsvExporter(writer);
+        }
+    }
+
+    /**
+     * 写出一个文档的检查结果
+     *
+     * @param documentId 文档标识，通常为文件路径
+     * @param results    检查结果，为空表示文档通过检查
+     */
+    public synchronized void writeDocument(String documentId, List<CheckResult> results) throws IOException {
+        // 先在本线程拼好整块内容，再一次性写出
+        StringBuilder block = new StringBuilder(results.size() * 128 + 64);
+        begin(block);
+        if (results.isEmpty()) {
+            appendPassed(block, documentId);
+        }
+        for (CheckResult result : results) {
+            appendResult(block, documentId, result);
+        }
+        write(block);
+    }
+
+    /**
+     * 写出检查失败的文档
+     *
+     * @param documentId 文档标识
+     * @param message    失败原因
+     */
+    public synchronized void writeFailure(String documentId, String message) throws IOException {
+        StringBuilder block = new StringBuilder(128);
+        begin(block);
+        appendFailure(block, documentId, message);
+        write(block);
+    }
+
+    /**
+     * 写出结尾（如有）并关闭输出
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try (Writer out = writer) {
+            StringBuilder block = new StringBuilder();
+            begin(block);
+            appendTrailer(block);
+            out.append(block);
+        } finally {
+            closed = true;
+        }
+    }
+
+    private void begin(StringBuilder block) {
+        if (closed) {
+            throw new IllegalStateException("导出器已关闭");
+        }
+        if (!started) {
+            started = true;
+            appendHeader(block);
+        }
+    }
+
+    private void write(StringBuilder block) throws IOException {
+        writer.append(block);
+        writer.flush();
+    }
+
+    /**
+     * @return 供人阅读的位置，合并后的结果注明问题数，如"第3–9段落（7处）"
+     */
+    static String displayLocation(CheckResult result) {
+        String location = result.getLocation();
+        return result.getCount() == 1 ? location : location + "（" + result.getCount() + "处）";
+    }
+
+    /**
+     * 输出开头，在第一次写出之前调用一次
+     */
+    protected void appendHeader(StringBuilder out) {
+    }
+
+    /**
+     * 输出结尾，关闭时调用一次
+     */
+    protected void appendTrailer(StringBuilder out) {
+    }
+
+    protected abstract void appendResult(StringBuilder out, String documentId, CheckResult result);
+
+    protected abstract void appendPassed(StringBuilder out, String documentId);
+
+    protected abstract void appendFailure(StringBuilder out, String documentId, String message);
+}
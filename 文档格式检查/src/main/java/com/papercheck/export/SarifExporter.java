@@ -0,0 +1,109 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SARIF 2.1.0 导出格式
+ * <p>
+ * 整个输出是一个JSON文档，但开头（工具信息）在第一次写出时就已输出，之后每个问题作为 results 数组的一个元素
+ * 随检查进度写出，关闭时才补上结尾。问题类型作为 ruleId，文档标识转换为URI引用后作为 artifactLocation，
+ * 位置作为 logicalLocations，修改建议和合并的问题数放在 properties.suggestion、properties.count 中。
+ * 检查失败的文档记录为 invocations 中的通知，数量很少，在关闭前保存在内存中。
+ */
+class SarifExporter extends ResultExporter {
+    private static final String TOOL_NAME = "word-paper-checker";
+
+    private final List<String[]> failures = new ArrayList<>();
+    private boolean first = true;
+
+    SarifExporter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendHeader(StringBuilder out) {
+        out.append("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{");
+        Json.name(out, "tool").append("{\"driver\":{");
+        Json.name(out, "name");
+        Json.quote(out, TOOL_NAME);
+        out.append("}},\n\"results\":[");
+    }
+
+    @Override
+    protected void appendResult(StringBuilder out, String documentId, CheckResult result) {
+        out.append(first ? "\n" : ",\n");
+        first = false;
+        out.append('{');
+        Json.name(out, "ruleId");
+        Json.quote(out, result.getIssueType()).append(",\"level\":\"warning\",\"message\":{");
+        Json.name(out, "text");
+        Json.quote(out, result.getDescription()).append("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{");
+        Json.name(out, "uri");
+        Json.quote(out, toUri(documentId)).append("}},\"logicalLocations\":[{");
+        Json.name(out, "name");
+        Json.quote(out, result.getLocation()).append("}]}],\"properties\":{");
+        Json.name(out, "suggestion");
+        Json.quote(out, result.getSuggestion()).append(',');
+        Json.name(out, "count").append(result.getCount()).append("}}");
+    }
+
+    @Override
+    protected void appendPassed(StringBuilder out, String documentId) {
+        // SARIF只记录问题，通过检查的文档不输出
+    }
+
+    @Override
+    protected void appendFailure(StringBuilder out, String documentId, String message) {
+        failures.add(new String[]{documentId, message});
+    }
+
+    @Override
+    protected void appendTrailer(StringBuilder out) {
+        out.append("\n],\"invocations\":[{");
+        Json.name(out, "executionSuccessful").append(failures.isEmpty());
+        out.append(",\"toolExecutionNotifications\":[");
+        for (int i = 0; i < failures.size(); i++) {
+            String[] failure = failures.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            out.append("{\"level\":\"error\",\"message\":{");
+            Json.name(out, "text");
+            Json.quote(out, failure[1]).append("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{");
+            Json.name(out, "uri");
+            Json.quote(out, toUri(failure[0])).append("}}}]}");
+        }
+        out.append("]}]}]}\n");
+    }
+
+    /**
+     * 把文档标识（通常为文件路径）转换为SARIF要求的URI引用
+     * <p>
+     * 分隔符统一为 /，绝对路径（含 Windows 盘符路径）转换为 file URI，相对路径保持为相对引用，
+     * 非ASCII字符和空格等按UTF-8百分号编码。不按当前操作系统解析路径，在Linux上导出Windows路径也能得到正确的URI。
+     */
+    static String toUri(String documentId) {
+        String path = documentId.replace('\\', '/');
+        try {
+            if (path.startsWith("/")) {
+                return new URI("file", "", path, null).toASCIIString();
+            }
+            if (path.length() >= 3 && Character.isLetter(path.charAt(0)) && path.startsWith(":/", 1)) {
+                return new URI("file", "", "/" + path, null).toASCIIString();
+            }
+            // 第一段中的冒号会被当作协议名，加上 ./ 避免歧义
+            int colon = path.indexOf(':');
+            int slash = path.indexOf('/');
+            if (colon >= 0 && (slash < 0 || colon < slash)) {
+                path = "./" + path;
+            }
+            return new URI(null, null, path, null).toASCIIString();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("无法转换为URI: " + documentId, e);
+        }
+    }
+}
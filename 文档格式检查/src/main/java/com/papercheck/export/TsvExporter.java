@@ -0,0 +1,43 @@
+package com.papercheck.export;
+
+import com.papercheck.model.CheckResult;
+
+import java.io.Writer;
+
+/**
+ * 制表符分隔的导出格式，每行：文件、问题类型、位置、问题描述、修改建议。
+ * 合并后的结果在位置后注明问题数，如"第3–9段落（7处）"。
+ * 通过检查的文档输出一行"通过"，检查失败的文档输出一行"错误"
+ */
+class TsvExporter extends ResultExporter {
+
+    TsvExporter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendResult(StringBuilder out, String documentId, CheckResult result) {
+        appendLine(out, documentId, result.getIssueType(), displayLocation(result),
+                result.getDescription(), result.getSuggestion());
+    }
+
+    @Override
+    protected void appendPassed(StringBuilder out, String documentId) {
+        appendLine(out, documentId, "通过", "", "未发现格式问题", "");
+    }
+
+    @Override
+    protected void appendFailure(StringBuilder out, String documentId, String message) {
+        appendLine(out, documentId, "错误", "", message, "");
+    }
+
+    private static void appendLine(StringBuilder out, String... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append('\t');
+            }
+            out.append(fields[i] == null ? "" : fields[i].replace('\t', ' ').replace('\n', ' '));
+        }
+        out.append('\n');
+    }
+}
@@ -0,0 +1,294 @@
+package com.papercheck.generator;
+
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * 论文样例文档生成器
+ * <p>
+ * 按 {@link ThesisSpec} 生成结构与真实论文相似的 .docx：标题、正文段落（混有字体、字号、缩进、行距问题）、
+ * 表格（表头对齐、内容字号问题）、图片及"图X：..."标题、分节符、页边距与页码设置，
+ * 覆盖现有全部检查规则。同一参数和种子生成的文档内容完全相同，可用于性能基准、批量检查压测等，
+ * 避免使用真实的学生论文。
+ * <p>
+ * 命令行用法：
+ * {@code java -cp word-paper-checker-jar-with-dependencies.jar com.papercheck.generator.ThesisGenerator
+ * [--count N] [--paragraphs N] [--tables N] [--rows N] [--pictures N] [--image 宽x高] [--sections N]
+ * [--seed N] <输出目录>}
+ */
+public class ThesisGenerator {
+    private static final String[] FRAGMENTS = {
+        "随着信息技术的快速发展，", "本文在已有研究的基础上，", "实验结果表明，", "为了验证所提方法的有效性，",
+        "从理论和实践两个方面", "对相关问题进行了系统的分析", "提出了一种改进的处理方法", "并与传统方法进行了比较",
+        "该方法在准确率和效率上均有明显提升", "仍存在一定的局限性", "有待在后续工作中进一步研究", "具有较好的应用前景"
+    };
+    private static final long CREATED = 1717200000000L; // 2024-06-01
+    private static final String[] WRONG_FONTS = {"楷体", "仿宋", "微软雅黑", "Times New Roman"};
+
+    private final ThesisSpec spec;
+    private final Random random;
+
+    private ThesisGenerator(ThesisSpec spec) {
+        this.spec = spec;
+        this.random = new Random(spec.getSeed());
+    }
+
+    /**
+     * 生成文档
+     *
+     * @return 新文档，由调用方负责关闭
+     */
+    public static XWPFDocument generate(ThesisSpec spec) throws IOException {
+        return new ThesisGenerator(spec).build();
+    }
+
+    /**
+     * 生成文档并保存到文件
+     */
+    public static void write(ThesisSpec spec, File file) throws IOException {
+        try (XWPFDocument document = generate(spec);
+             OutputStream out = new FileOutputStream(file)) {
+            document.write(out);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        ThesisSpec spec = new ThesisSpec();
+        int count = 1;
+        File directory = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count":
+                    count = Integer.parseInt(args[++i]);
+                    break;
+                case "--paragraphs":
+                    spec.paragraphs(Integer.parseInt(args[++i]));
+                    break;
+                case "--tables":
+                    spec.tables(Integer.parseInt(args[++i]));
+                    break;
+                case "--rows":
+                    spec.tableRows(Integer.parseInt(args[++i]));
+                    break;
+                case "--pictures":
+                    spec.pictures(Integer.parseInt(args[++i]));
+                    break;
+                case "--image":
+                    String[] size = args[++i].split("x");
+                    spec.imageSize(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+                    break;
+                case "--sections":
+                    spec.sections(Integer.parseInt(args[++i]));
+                    break;
+                case "--seed":
+                    spec.seed(Long.parseLong(args[++i]));
+                    break;
+                default:
+                    directory = new File(args[i]);
+            }
+        }
+        if (directory == null) {
+            System.out.println("用法: ThesisGenerator [--count N] [--paragraphs N] [--tables N] [--rows N] "
+                    + "[--pictures N] [--image 宽x高] [--sections N] [--seed N] <输出目录>");
+            System.exit(2);
+        }
+        Files.createDirectories(directory.toPath());
+        long seed = spec.getSeed();
+        for (int i = 0; i < count; i++) {
+            // 每个文档使用不同的种子，整体仍可复现
+            File file = new File(directory, String.format("thesis-%04d.docx", i + 1));
+            write(spec.seed(seed + i), file);
+            System.out.println(file.getPath() + "  " + spec);
+        }
+    }
+
+    private XWPFDocument build() throws IOException {
+        XWPFDocument document = new XWPFDocument();
+        try {
+            // 固定创建时间，使同一参数生成的各部件内容相同
+            document.getProperties().getCoreProperties().setCreated(Optional.of(new Date(CREATED)));
+            createTitle(document);
+
+            int bodyParagraphs = Math.max(0, spec.getParagraphs() - 1);
+            int tableEvery = every(bodyParagraphs, spec.getTables());
+            int pictureEvery = every(bodyParagraphs, spec.getPictures());
+            int sectionEvery = every(bodyParagraphs, spec.getSections() - 1);
+            int tables = 0;
+            int pictures = 0;
+            int sections = 1;
+
+            for (int i = 1; i <= bodyParagraphs; i++) {
+                XWPFParagraph paragraph = createBodyParagraph(document);
+                if (i % tableEvery == 0 && tables < spec.getTables()) {
+                    tables++;
+                    createTable(document, tables);
+                }
+                if (i % pictureEvery == 0 && pictures < spec.getPictures()) {
+                    pictures++;
+                    createPicture(document, pictures);
+                }
+                if (i % sectionEvery == 0 && sections < spec.getSections()) {
+                    sections++;
+                    // 分节符：节属性写在该节最后一个段落的段落属性中，段落已有缩进、行距等属性时不能再新建一个pPr
+                    CTP ctp = paragraph.getCTP();
+                    setSectionProperties((ctp.isSetPPr() ? ctp.getPPr() : ctp.addNewPPr()).addNewSectPr(), false);
+                }
+            }
+
+            setSectionProperties(document.getDocument().getBody().addNewSectPr(), spec.isMarginViolation());
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    private static int every(int total, int count) {
+        return count <= 0 ? Integer.MAX_VALUE : Math.max(1, total / count);
+    }
+
+    private boolean chance(double rate) {
+        return random.nextDouble() < rate;
+    }
+
+    private String sentence() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0, parts = 2 + random.nextInt(4); i < parts; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.append('。').toString();
+    }
+
+    private void createTitle(XWPFDocument document) {
+        XWPFParagraph title = document.createParagraph();
+        title.setAlignment(chance(spec.getTitleViolationRate()) ? ParagraphAlignment.LEFT : ParagraphAlignment.CENTER);
+        for (int i = 0; i < spec.getTitleRuns(); i++) {
+            XWPFRun run = title.createRun();
+            run.setText(i == 0 ? "基于深度学习的论文格式自动检查方法研究" : "（第" + (i + 1) + "部分）");
+            boolean violation = chance(spec.getTitleViolationRate());
+            run.setFontSize(violation && random.nextBoolean() ? 14 : 16);
+            run.setFontFamily(violation && random.nextBoolean() ? WRONG_FONTS[random.nextInt(WRONG_FONTS.length)] : "黑体");
+            run.setBold(!violation || random.nextBoolean());
+        }
+    }
+
+    private XWPFParagraph createBodyParagraph(XWPFDocument document) {
+        XWPFParagraph paragraph = document.createParagraph();
+        if (chance(spec.getIndentViolationRate())) {
+            // 一半不设置缩进，一半缩进不足
+            if (random.nextBoolean()) {
+                paragraph.setIndentationFirstLine(100 + random.nextInt(200));
+            }
+        } else {
+            paragraph.setIndentationFirstLine(420);
+        }
+        if (chance(spec.getSpacingViolationRate())) {
+            if (random.nextBoolean()) {
+                paragraph.setSpacingBetween(1.0);
+            }
+        } else {
+            paragraph.setSpacingBetween(1.5);
+        }
+        for (int i = 0, runs = 1 + random.nextInt(Math.max(1, spec.getMaxRunsPerParagraph())); i < runs; i++) {
+            XWPFRun run = paragraph.createRun();
+            run.setText(sentence());
+            boolean violation = chance(spec.getBodyFontViolationRate());
+            run.setFontSize(violation && random.nextBoolean() ? 16 : 12);
+            run.setFontFamily(violation && random.nextBoolean() ? WRONG_FONTS[random.nextInt(WRONG_FONTS.length)] : "宋体");
+        }
+        return paragraph;
+    }
+
+    private void createTable(XWPFDocument document, int number) {
+        XWPFParagraph caption = document.createParagraph();
+        caption.setAlignment(ParagraphAlignment.CENTER);
+        caption.createRun().setText("表" + number + "：实验数据统计");
+
+        int rows = Math.max(1, spec.getTableRows());
+        int columns = Math.max(1, spec.getTableColumns());
+        XWPFTable table = document.createTable(rows, columns);
+        boolean violation = chance(spec.getTableViolationRate());
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                XWPFTableCell cell = table.getRow(r).getCell(c);
+                XWPFParagraph paragraph = cell.getParagraphs().get(0);
+                XWPFRun run = paragraph.createRun();
+                if (r == 0) {
+                    run.setText("指标" + (c + 1));
+                    paragraph.setAlignment(violation && random.nextBoolean() ? ParagraphAlignment.LEFT : ParagraphAlignment.CENTER);
+                } else {
+                    run.setText(String.format("%.2f", random.nextDouble() * 100));
+                }
+                run.setFontSize(violation && random.nextInt(4) == 0 ? 16 : 10);
+            }
+        }
+    }
+
+    private void createPicture(XWPFDocument document, int number) throws IOException {
+        XWPFParagraph holder = document.createParagraph();
+        holder.setAlignment(ParagraphAlignment.CENTER);
+        int width = Math.max(1, spec.getImageWidth());
+        int height = Math.max(1, spec.getImageHeight());
+        try {
+            holder.createRun().addPicture(new ByteArrayInputStream(createImage(width, height)), Document.PICTURE_TYPE_PNG,
+                    "figure" + number + ".png", Units.pixelToEMU(width), Units.pixelToEMU(height));
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            throw new IOException("嵌入图片失败", e);
+        }
+
+        XWPFParagraph caption = document.createParagraph();
+        caption.setAlignment(chance(spec.getCaptionViolationRate()) ? ParagraphAlignment.LEFT : ParagraphAlignment.CENTER);
+        caption.createRun().setText("图" + number + "：实验结果示意图");
+    }
+
+    /**
+     * 生成带随机噪点的PNG，使压缩后的大小接近真实图片
+     */
+    private byte[] createImage(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int base = random.nextInt(0xffffff);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, base ^ (random.nextInt(64) * 0x010101));
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    private void setSectionProperties(CTSectPr sectPr, boolean marginViolation) {
+        CTPageMar pgMar = sectPr.addNewPgMar();
+        // 1厘米约等于567 dxa
+        pgMar.setTop(BigInteger.valueOf(marginViolation ? 1000 : 1418));
+        pgMar.setBottom(BigInteger.valueOf(1418));
+        pgMar.setLeft(BigInteger.valueOf(marginViolation ? 1440 : 1701));
+        pgMar.setRight(BigInteger.valueOf(1701));
+        if (spec.isPageNumbers()) {
+            sectPr.addNewPgNumType().setStart(BigInteger.ONE);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.papercheck.generator;
+
+/**
+ * 生成文档的参数
+ * <p>
+ * 各项比例取值0~1，表示违反对应格式要求的段落（或文字块、表格、图片标题）所占比例。
+ * 设置方法返回自身，便于链式调用：
+ * <pre>
+ * new ThesisSpec().seed(1).paragraphs(500).tables(10).pictures(5)
+ * </pre>
+ */
+public class ThesisSpec {
+    private long seed = 1;
+    private int paragraphs = 500;
+    private int titleRuns = 1;
+    private double titleViolationRate = 0.5;
+    private int maxRunsPerParagraph = 3;
+    private double bodyFontViolationRate = 0.2;
+    private double indentViolationRate = 0.3;
+    private double spacingViolationRate = 0.3;
+    private int tables = 10;
+    private int tableRows = 5;
+    private int tableColumns = 4;
+    private double tableViolationRate = 0.5;
+    private int pictures = 5;
+    private int imageWidth = 400;
+    private int imageHeight = 300;
+    private double captionViolationRate = 0.5;
+    private int sections = 1;
+    private boolean marginViolation = true;
+    private boolean pageNumbers = false;
+
+    /** 随机种子，参数相同、种子相同时生成的文档完全相同 */
+    public ThesisSpec seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** 正文段落数（含标题，不含表格和图片标题） */
+    public ThesisSpec paragraphs(int paragraphs) {
+        this.paragraphs = paragraphs;
+        return this;
+    }
+
+    /** 标题的文字块数 */
+    public ThesisSpec titleRuns(int titleRuns) {
+        this.titleRuns = titleRuns;
+        return this;
+    }
+
+    /** 标题文字块字号过小、字体不对或未加粗的比例 */
+    public ThesisSpec titleViolationRate(double rate) {
+        this.titleViolationRate = rate;
+        return this;
+    }
+
+    /** 每个正文段落最多的文字块数 */
+    public ThesisSpec maxRunsPerParagraph(int runs) {
+        this.maxRunsPerParagraph = runs;
+        return this;
+    }
+
+    /** 正文文字块字号过大或字体不对的比例 */
+    public ThesisSpec bodyFontViolationRate(double rate) {
+        this.bodyFontViolationRate = rate;
+        return this;
+    }
+
+    /** 正文段落未设置或不足首行缩进的比例 */
+    public ThesisSpec indentViolationRate(double rate) {
+        this.indentViolationRate = rate;
+        return this;
+    }
+
+    /** 正文段落未设置行距或行距过小的比例 */
+    public ThesisSpec spacingViolationRate(double rate) {
+        this.spacingViolationRate = rate;
+        return this;
+    }
+
+    /** 表格数，均匀分布在正文中 */
+    public ThesisSpec tables(int tables) {
+        this.tables = tables;
+        return this;
+    }
+
+    /** 每个表格的行数（含表头） */
+    public ThesisSpec tableRows(int rows) {
+        this.tableRows = rows;
+        return this;
+    }
+
+    public ThesisSpec tableColumns(int columns) {
+        this.tableColumns = columns;
+        return this;
+    }
+
+    /** 表头未居中、表格内容字号过大的比例 */
+    public ThesisSpec tableViolationRate(double rate) {
+        this.tableViolationRate = rate;
+        return this;
+    }
+
+    /** 图片数，每张图片后跟一个"图X：..."标题段落 */
+    public ThesisSpec pictures(int pictures) {
+        this.pictures = pictures;
+        return this;
+    }
+
+    /** 图片尺寸（像素），决定嵌入图片的大小 */
+    public ThesisSpec imageSize(int width, int height) {
+        this.imageWidth = width;
+        this.imageHeight = height;
+        return this;
+    }
+
+    /** 图片标题未居中的比例 */
+    public ThesisSpec captionViolationRate(double rate) {
+        this.captionViolationRate = rate;
+        return this;
+    }
+
+    /** 节数，大于1时在正文中插入分节符 */
+    public ThesisSpec sections(int sections) {
+        this.sections = sections;
+        return this;
+    }
+
+    /** 最后一节的页边距是否小于要求 */
+    public ThesisSpec marginViolation(boolean violation) {
+        this.marginViolation = violation;
+        return this;
+    }
+
+    /** 是否设置页码 */
+    public ThesisSpec pageNumbers(boolean pageNumbers) {
+        this.pageNumbers = pageNumbers;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getParagraphs() {
+        return paragraphs;
+    }
+
+    public int getTitleRuns() {
+        return titleRuns;
+    }
+
+    public double getTitleViolationRate() {
+        return titleViolationRate;
+    }
+
+    public int getMaxRunsPerParagraph() {
+        return maxRunsPerParagraph;
+    }
+
+    public double getBodyFontViolationRate() {
+        return bodyFontViolationRate;
+    }
+
+    public double getIndentViolationRate() {
+        return indentViolationRate;
+    }
+
+    public double getSpacingViolationRate() {
+        return spacingViolationRate;
+    }
+
+    public int getTables() {
+        return tables;
+    }
+
+    public int getTableRows() {
+        return tableRows;
+    }
+
+    public int getTableColumns() {
+        return tableColumns;
+    }
+
+    public double getTableViolationRate() {
+        return tableViolationRate;
+    }
+
+    public int getPictures() {
+        return pictures;
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public double getCaptionViolationRate() {
+        return captionViolationRate;
+    }
+
+    public int getSections() {
+        return sections;
+    }
+
+    public boolean isMarginViolation() {
+        return marginViolation;
+    }
+
+    public boolean isPageNumbers() {
+        return pageNumbers;
+    }
+
+    @Override
+    public String toString() {
+        return "段落" + paragraphs + "，表格" + tables + "（" + tableRows + "行）" + "，图片" + pictures
+                + "（" + imageWidth + "x" + imageHeight + "）" + "，" + sections + "节，种子" + seed;
+    }
+}
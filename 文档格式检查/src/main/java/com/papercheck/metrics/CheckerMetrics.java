@@ -0,0 +1,195 @@
+package com.papercheck.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 检查服务的运行指标
+ * <p>
+ * 进程内唯一，首次使用时注册到平台 MBeanServer。计数器使用 {@link LongAdder}，各阶段耗时每个文档只记录一次，
+ * 元素计数在一次遍历结束后才累加，因此常开也几乎没有开销；逐条规则的计时开销较大，默认关闭。
+ */
+public final class CheckerMetrics implements CheckerMetricsMXBean {
+    private static final Logger logger = LoggerFactory.getLogger(CheckerMetrics.class);
+
+    public static final String OBJECT_NAME = "com.papercheck:type=CheckerMetrics";
+
+    private static final CheckerMetrics INSTANCE = register(new CheckerMetrics(
+            Boolean.getBoolean("papercheck.metrics.rule-timing")));
+
+    private final LongAdder paragraphs = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder tables = new LongAdder();
+    private final LongAdder cellParagraphs = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final Map<String, LongAdder> issues = new ConcurrentHashMap<>();
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final Map<String, LatencyHistogram> checkRules = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> fixRules = new ConcurrentHashMap<>();
+    private volatile boolean ruleTiming;
+
+    private CheckerMetrics(boolean ruleTiming) {
+        // 阶段固定，预先创建后只读，无需同步
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+        this.ruleTiming = ruleTiming;
+    }
+
+    /**
+     * @return 进程内唯一的指标实例
+     */
+    public static CheckerMetrics get() {
+        return INSTANCE;
+    }
+
+    private static CheckerMetrics register(CheckerMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException e) {
+            // 无法注册时指标仍可在进程内读取
+            logger.warn("注册JMX指标失败: {}", e.getMessage());
+        }
+        return metrics;
+    }
+
+    /**
+     * 记录从 startNanos（{@link System#nanoTime()} 的返回值）到现在的阶段耗时
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phases.get(phase).recordSince(startNanos);
+    }
+
+    /**
+     * 累加一次遍历访问的元素数
+     */
+    public void recordVisited(long paragraphCount, long runCount, long tableCount, long cellParagraphCount) {
+        paragraphs.add(paragraphCount);
+        runs.add(runCount);
+        tables.add(tableCount);
+        cellParagraphs.add(cellParagraphCount);
+    }
+
+    /**
+     * 累加检出的问题数
+     */
+    public void recordIssue(String issueType, long count) {
+        issues.computeIfAbsent(issueType, type -> new LongAdder()).add(count);
+    }
+
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    /**
+     * @param ruleId 规则编号
+     * @param fix    是否为修复
+     * @return 规则的耗时直方图
+     */
+    public LatencyHistogram ruleHistogram(String ruleId, boolean fix) {
+        return (fix ? fixRules : checkRules).computeIfAbsent(ruleId, id -> new LatencyHistogram());
+    }
+
+    @Override
+    public long getParagraphsVisited() {
+        return paragraphs.sum();
+    }
+
+    @Override
+    public long getRunsVisited() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getTablesVisited() {
+        return tables.sum();
+    }
+
+    @Override
+    public long getCellParagraphsVisited() {
+        return cellParagraphs.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public Map<String, Long> getIssuesByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        issues.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getPhaseLatencies() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        phases.forEach((phase, histogram) -> snapshots.put(phase.getKey(), histogram.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getRuleLatencies() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        checkRules.forEach((id, histogram) -> snapshots.put(id, histogram.snapshot()));
+        fixRules.forEach((id, histogram) -> snapshots.put(id + ".fix", histogram.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public boolean isRuleTimingEnabled() {
+        return ruleTiming;
+    }
+
+    @Override
+    public void setRuleTimingEnabled(boolean enabled) {
+        this.ruleTiming = enabled;
+        logger.info("规则计时已{}", enabled ? "开启" : "关闭");
+    }
+
+    @Override
+    public void reset() {
+        paragraphs.reset();
+        runs.reset();
+        tables.reset();
+        cellParagraphs.reset();
+        cacheHits.reset();
+        issues.clear();
+        phases.values().forEach(LatencyHistogram::reset);
+        checkRules.values().forEach(LatencyHistogram::reset);
+        fixRules.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * @return 多行文本形式的指标摘要，用于批量检查结束时输出
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("访问段落 %d 个，文本块 %d 个，表格 %d 个，单元格段落 %d 个，缓存命中 %d 次%n",
+                getParagraphsVisited(), getRunsVisited(), getTablesVisited(), getCellParagraphsVisited(), getCacheHits()));
+        getIssuesByType().forEach((type, count) -> text.append("问题 ").append(type).append(": ").append(count).append('\n'));
+        getPhaseLatencies().forEach((phase, snapshot) -> {
+            if (snapshot.getCount() > 0) {
+                text.append("阶段 ").append(phase).append(": ").append(snapshot).append('\n');
+            }
+        });
+        getRuleLatencies().forEach((rule, snapshot) -> text.append("规则 ").append(rule).append(": ").append(snapshot).append('\n'));
+        return text.toString();
+    }
+}
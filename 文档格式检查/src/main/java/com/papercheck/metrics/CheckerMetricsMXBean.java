@@ -0,0 +1,66 @@
+package com.papercheck.metrics;
+
+import java.util.Map;
+
+/**
+ * 检查服务的运行指标，通过JMX发布为 {@code com.papercheck:type=CheckerMetrics}，
+ * 可用 jconsole / VisualVM 查看，或在批量检查时抓取
+ */
+public interface CheckerMetricsMXBean {
+
+    /**
+     * @return 访问过的正文段落数（含增量检查时复用结果的段落）
+     */
+    long getParagraphsVisited();
+
+    /**
+     * @return 访问过的文本块（run）数，含表格中的文本块
+     */
+    long getRunsVisited();
+
+    /**
+     * @return 访问过的表格数
+     */
+    long getTablesVisited();
+
+    /**
+     * @return 访问过的表格单元格段落数
+     */
+    long getCellParagraphsVisited();
+
+    /**
+     * @return 检查结果缓存命中次数
+     */
+    long getCacheHits();
+
+    /**
+     * @return 各问题类型检出的问题数，键为问题类型（如"正文格式"）
+     */
+    Map<String, Long> getIssuesByType();
+
+    /**
+     * @return 各处理阶段的耗时，键为阶段名称（如"parse"、"check.body"）
+     */
+    Map<String, LatencySnapshot> getPhaseLatencies();
+
+    /**
+     * @return 各规则的耗时，键为规则编号，修复的键为"规则编号.fix"；只有开启规则计时后才有数据
+     */
+    Map<String, LatencySnapshot> getRuleLatencies();
+
+    /**
+     * @return 是否记录每条规则的耗时
+     */
+    boolean isRuleTimingEnabled();
+
+    /**
+     * 开启或关闭规则计时。规则计时需要在每个段落的每条规则前后读取时钟，默认关闭，
+     * 排查性能问题时再开启；也可通过系统属性 {@code -Dpapercheck.metrics.rule-timing=true} 在启动时开启
+     */
+    void setRuleTimingEnabled(boolean enabled);
+
+    /**
+     * 清零全部指标
+     */
+    void reset();
+}
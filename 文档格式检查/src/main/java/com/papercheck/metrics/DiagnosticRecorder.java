@@ -0,0 +1,172 @@
+package com.papercheck.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 诊断记录器
+ * <p>
+ * 逐段落、逐元素的跟踪信息不再写入日志，而是记录到每个线程各自的环形缓冲区中，只保留最近的
+ * {@code papercheck.diagnostics.capacity} 条（系统属性，默认512，为0时不记录）。记录时只保存消息模板和参数，
+ * 不格式化、不加锁、不做I/O；检查失败时由 {@link #dumpOnFailure(String)} 把当前线程的记录写入错误日志，
+ * 也可随时通过JMX（{@code com.papercheck:type=DiagnosticRecorder} 的 dump 操作）查看全部线程的记录。
+ */
+public final class DiagnosticRecorder implements DiagnosticRecorderMXBean {
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticRecorder.class);
+
+    public static final String OBJECT_NAME = "com.papercheck:type=DiagnosticRecorder";
+
+    private static final int CAPACITY = Math.max(0, Integer.getInteger("papercheck.diagnostics.capacity", 512));
+    private static final DiagnosticRecorder INSTANCE = register(new DiagnosticRecorder());
+
+    // 线程结束后其缓冲区随之回收
+    private final Map<Thread, Ring> rings = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ThreadLocal<Ring> local = ThreadLocal.withInitial(() -> {
+        Ring ring = new Ring(Thread.currentThread().getName());
+        rings.put(Thread.currentThread(), ring);
+        return ring;
+    });
+
+    private DiagnosticRecorder() {
+    }
+
+    public static DiagnosticRecorder get() {
+        return INSTANCE;
+    }
+
+    private static DiagnosticRecorder register(DiagnosticRecorder recorder) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(recorder, name);
+            }
+        } catch (JMException | SecurityException e) {
+            logger.warn("注册JMX诊断记录器失败: {}", e.getMessage());
+        }
+        return recorder;
+    }
+
+    /**
+     * 记录一条诊断信息
+     *
+     * @param template 消息模板，与SLF4J相同使用 {} 占位
+     * @param value    参数，如段落序号
+     */
+    public static void record(String template, long value) {
+        if (CAPACITY > 0) {
+            INSTANCE.local.get().add(template, null, value);
+        }
+    }
+
+    /**
+     * 记录一条诊断信息
+     *
+     * @param template 消息模板，与SLF4J相同使用 {} 占位
+     * @param value    参数，输出时才调用其 toString
+     */
+    public static void record(String template, Object value) {
+        if (CAPACITY > 0) {
+            INSTANCE.local.get().add(template, value == null ? "null" : value, 0);
+        }
+    }
+
+    /**
+     * 处理失败时把当前线程最近的诊断记录写入错误日志
+     *
+     * @param reason 失败原因，作为输出的标题
+     */
+    public static void dumpOnFailure(String reason) {
+        if (CAPACITY == 0) {
+            return;
+        }
+        Ring ring = INSTANCE.local.get();
+        StringBuilder text = new StringBuilder();
+        ring.appendTo(text);
+        logger.error("{}，最近的诊断记录:\n{}", reason, text);
+    }
+
+    @Override
+    public int getCapacity() {
+        return CAPACITY;
+    }
+
+    @Override
+    public String dump() {
+        List<Ring> snapshot;
+        synchronized (rings) {
+            snapshot = new ArrayList<>(rings.values());
+        }
+        StringBuilder text = new StringBuilder();
+        for (Ring ring : snapshot) {
+            ring.appendTo(text);
+        }
+        logger.info("诊断记录:\n{}", text);
+        return text.toString();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (rings) {
+            rings.values().forEach(Ring::clear);
+        }
+    }
+
+    /**
+     * 单个线程的环形缓冲区，只由所属线程写入。其他线程（JMX）读取时不加锁，
+     * 正在写入的条目可能读到不一致的内容，对诊断用途无妨。
+     */
+    private static final class Ring {
+        private final String threadName;
+        private final long[] times = new long[CAPACITY];
+        private final String[] templates = new String[CAPACITY];
+        private final Object[] objects = new Object[CAPACITY];
+        private final long[] numbers = new long[CAPACITY];
+        private long count;
+
+        Ring(String threadName) {
+            this.threadName = threadName;
+        }
+
+        void add(String template, Object object, long number) {
+            int slot = (int) (count % CAPACITY);
+            times[slot] = System.currentTimeMillis();
+            templates[slot] = template;
+            objects[slot] = object;
+            numbers[slot] = number;
+            count++;
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+        void appendTo(StringBuilder text) {
+            long end = count;
+            long start = Math.max(0, end - CAPACITY);
+            text.append("[").append(threadName).append("] 共 ").append(end).append(" 条，最近 ")
+                    .append(end - start).append(" 条:\n");
+            SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+            for (long i = start; i < end; i++) {
+                int slot = (int) (i % CAPACITY);
+                Object argument = objects[slot] != null ? objects[slot] : numbers[slot];
+                text.append(format.format(new Date(times[slot]))).append(' ')
+                        .append(MessageFormatter.format(templates[slot], argument).getMessage())
+                        .append('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.papercheck.metrics;
+
+/**
+ * 诊断记录器的JMX接口，发布为 {@code com.papercheck:type=DiagnosticRecorder}
+ */
+public interface DiagnosticRecorderMXBean {
+
+    /**
+     * @return 每个线程保留的最近记录条数，为0时不记录
+     */
+    int getCapacity();
+
+    /**
+     * 输出全部线程最近的诊断记录，同时写入日志
+     *
+     * @return 诊断记录文本
+     */
+    String dump();
+
+    /**
+     * 清空全部线程的诊断记录
+     */
+    void clear();
+}
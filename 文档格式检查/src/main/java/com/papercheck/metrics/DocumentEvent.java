@@ -0,0 +1,83 @@
+package com.papercheck.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.File;
+
+/**
+ * JFR事件：一次文档操作（检查、修复、创建预览、导出报告）
+ * <p>
+ * 在JMC中可按文件名、操作类型筛选，其间的 {@link PhaseEvent} 显示时间花在哪个阶段。
+ * 没有进行JFR记录时 {@link #shouldCommit()} 为false，文件大小等字段不会计算。
+ */
+@Name("com.papercheck.Document")
+@Label("文档操作")
+@Category({"Paper Checker"})
+@Description("一次文档检查、修复、预览或导出操作")
+@StackTrace(false)
+public final class DocumentEvent extends Event {
+    @Label("操作")
+    private String operation;
+
+    @Label("文件名")
+    private String fileName;
+
+    @Label("文件大小")
+    @DataAmount
+    private long fileSize;
+
+    @Label("段落数")
+    private int paragraphCount;
+
+    @Label("问题数")
+    private int issueCount;
+
+    @Label("修复数")
+    private int fixCount;
+
+    private transient File file;
+
+    private DocumentEvent() {
+    }
+
+    /**
+     * 开始一次文档操作
+     *
+     * @param operation 操作名称，如"check"、"fix"
+     * @param file      操作的文档
+     */
+    public static DocumentEvent begin(String operation, File file) {
+        DocumentEvent event = new DocumentEvent();
+        event.operation = operation;
+        event.file = file;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param paragraphCount 文档正文段落数
+     */
+    public void setParagraphCount(int paragraphCount) {
+        this.paragraphCount = paragraphCount;
+    }
+
+    /**
+     * 结束操作，正在记录时提交事件
+     */
+    public void finish(int issueCount, int fixCount) {
+        end();
+        if (shouldCommit()) {
+            this.fileName = file.getName();
+            this.fileSize = file.length();
+            this.issueCount = issueCount;
+            this.fixCount = fixCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.papercheck.metrics;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * 耗时统计快照，时间单位均为毫秒
+ * <p>
+ * 通过JMX发布时映射为 CompositeData，可在 jconsole 中直接查看。
+ */
+public final class LatencySnapshot {
+    private final long count;
+    private final double totalMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    @ConstructorParameters({"count", "totalMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis"})
+    public LatencySnapshot(long count, double totalMillis, double p50Millis, double p90Millis,
+                           double p99Millis, double maxMillis) {
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d 次，合计 %.1f ms，平均 %.3f ms，P50 %.3f ms，P90 %.3f ms，P99 %.3f ms，最大 %.3f ms",
+                count, totalMillis, getMeanMillis(), p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+}
@@ -0,0 +1,38 @@
+package com.papercheck.metrics;
+
+/**
+ * 处理阶段
+ */
+public enum Phase {
+    /** 解压并解析文档（构建 XWPFDocument） */
+    PARSE("parse"),
+    /** 计算缓存键并查询检查结果缓存 */
+    CACHE_LOOKUP("cache.lookup"),
+    /** 检查文档属性（页边距、页码等） */
+    CHECK_DOCUMENT("check.document"),
+    /** 遍历检查正文段落与表格 */
+    CHECK_BODY("check.body"),
+    /** 流式检查（解析与检查交织进行，无法分开计时） */
+    CHECK_STREAMING("check.streaming"),
+    /** 修复文档属性 */
+    FIX_DOCUMENT("fix.document"),
+    /** 遍历修复正文段落与表格 */
+    FIX_BODY("fix.body"),
+    /** 保存修复后的文档 */
+    WRITE("write"),
+    /** 导出HTML报告 */
+    EXPORT("export");
+
+    private final String key;
+
+    Phase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return 阶段名称，用作指标的键
+     */
+    public String getKey() {
+        return key;
+    }
+}
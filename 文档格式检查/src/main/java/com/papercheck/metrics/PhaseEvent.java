@@ -0,0 +1,31 @@
+package com.papercheck.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR事件：文档操作中的一个处理阶段，由 {@link PhaseTimer} 提交
+ */
+@Name("com.papercheck.Phase")
+@Label("处理阶段")
+@Category({"Paper Checker"})
+@Description("解析、检查、修复、保存、导出等处理阶段")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+    @Label("阶段")
+    String phase;
+
+    @Label("文件名")
+    String fileName;
+
+    @Label("段落数")
+    int paragraphCount;
+
+    @Label("结果数")
+    @Description("检查阶段为问题数，修复阶段为修复数")
+    int resultCount;
+}
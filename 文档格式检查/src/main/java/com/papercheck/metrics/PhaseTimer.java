@@ -0,0 +1,57 @@
+package com.papercheck.metrics;
+
+import java.io.File;
+
+/**
+ * 处理阶段计时
+ * <p>
+ * 结束时把耗时计入 {@link CheckerMetrics} 的阶段直方图，正在进行JFR记录时同时提交 {@link PhaseEvent}。
+ * <pre>{@code
+ * PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+ * ...
+ * timer.stop(file);
+ * }</pre>
+ */
+public final class PhaseTimer {
+    private final Phase phase;
+    private final PhaseEvent event = new PhaseEvent();
+    private final long startNanos;
+
+    private PhaseTimer(Phase phase) {
+        this.phase = phase;
+        event.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    public static PhaseTimer start(Phase phase) {
+        return new PhaseTimer(phase);
+    }
+
+    /**
+     * 结束计时
+     *
+     * @param file 处理的文档
+     */
+    public void stop(File file) {
+        stop(file, 0, 0);
+    }
+
+    /**
+     * 结束计时
+     *
+     * @param file           处理的文档
+     * @param paragraphCount 本阶段处理的段落数
+     * @param resultCount    本阶段产生的结果数
+     */
+    public void stop(File file, int paragraphCount, int resultCount) {
+        CheckerMetrics.get().recordPhase(phase, startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.getKey();
+            event.fileName = file == null ? null : file.getName();
+            event.paragraphCount = paragraphCount;
+            event.resultCount = resultCount;
+            event.commit();
+        }
+    }
+}
@@ -2,39 +2,99 @@ package com.papercheck.model;
 
 /**
  * 论文格式检查结果
+ * <p>
+ * 大文档可能产生数十万条结果，因此只保存共享的引用：问题类型为 {@link IssueType} 的常量名称，
+ * 描述和建议由规则预先生成、所有结果共用，位置以 {@link Location} 保存，显示文字在读取时才生成。
+ * 字符串形式的getter/setter保持不变，供 {@code PropertyValueFactory} 和导出使用。
  */
 public class CheckResult {
     private String issueType;    // 问题类型
-    private String location;     // 问题位置
+    private Location location;   // 问题位置
     private String description;  // 问题描述
     private String suggestion;   // 修改建议
+    private int count = 1;       // 合并的问题数
 
     public CheckResult() {
     }
 
-    public CheckResult(String issueType, String location, String description, String suggestion) {
-        this.issueType = issueType;
+    public CheckResult(IssueType issueType, Location location, String description, String suggestion) {
+        this.issueType = issueType.getLabel();
         this.location = location;
         this.description = description;
         this.suggestion = suggestion;
     }
 
+    public CheckResult(String issueType, String location, String description, String suggestion) {
+        setIssueType(issueType);
+        setLocation(location);
+        this.description = description;
+        this.suggestion = suggestion;
+    }
+
     public String getIssueType() {
         return issueType;
     }
 
+    /**
+     * @return 问题类型，不是内置类型时为null
+     */
+    public IssueType getType() {
+        return IssueType.fromLabel(issueType);
+    }
+
     public void setIssueType(String issueType) {
-        this.issueType = issueType;
+        // 内置类型换成常量，读缓存等场景下不保留重复的字符串
+        IssueType type = IssueType.fromLabel(issueType);
+        this.issueType = type == null ? issueType : type.getLabel();
     }
 
+    /**
+     * @return 位置的显示文字，如"第3段落"
+     */
     public String getLocation() {
-        return location;
+        return location == null ? null : location.toString();
     }
 
     public void setLocation(String location) {
+        this.location = Location.parse(location);
+    }
+
+    /**
+     * @return 结构化的位置
+     */
+    public Location getPosition() {
+        return location;
+    }
+
+    public void setPosition(Location location) {
         this.location = location;
     }
 
+    /**
+     * @return 位置不同、其余内容相同的检查结果
+     */
+    public CheckResult withPosition(Location location) {
+        CheckResult copy = new CheckResult();
+        copy.issueType = issueType;
+        copy.location = location;
+        copy.description = description;
+        copy.suggestion = suggestion;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * @return 本条结果合并的问题数，未合并时为1
+     * @see com.papercheck.service.ResultAggregator
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -58,6 +118,7 @@ public class CheckResult {
                 ", location='" + location + '\'' +
                 ", description='" + description + '\'' +
                 ", suggestion='" + suggestion + '\'' +
+                (count == 1 ? "" : ", count=" + count) +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.papercheck.model;
+
+/**
+ * 问题类型
+ * <p>
+ * 检查结果只保存对应的常量名称，不再为每条结果拼接新的字符串。
+ */
+public enum IssueType {
+    TITLE("标题格式"),
+    PARAGRAPH("段落格式"),
+    BODY("正文格式"),
+    PICTURE("图片格式"),
+    TABLE("表格格式"),
+    PAGE_MARGIN("页边距"),
+    PAGE_NUMBER("页码");
+
+    private final String label;
+
+    IssueType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return 显示名称，如"标题格式"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return 显示名称对应的问题类型，不是内置类型时为null
+     */
+    public static IssueType fromLabel(String label) {
+        for (IssueType type : values()) {
+            if (type.label.equals(label)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,191 @@
+package com.papercheck.model;
+
+import java.util.Objects;
+
+/**
+ * 问题位置
+ * <p>
+ * 以元素类型和序号保存，显示文字（如"第3段落"、"表格2，第3行"）在界面或导出需要时才生成。
+ * 段落和表格行还可以表示连续的范围（如"第12–87段落"），用于合并后的检查结果。
+ * 不可变，可在多条检查结果间共享。
+ */
+public final class Location {
+    /** 文档属性（页边距、页码等） */
+    public static final Location DOCUMENT = new Location(Kind.DOCUMENT, 0, 0, 0, null);
+
+    /**
+     * 位置的元素类型
+     */
+    public enum Kind {
+        DOCUMENT,
+        PARAGRAPH,
+        TABLE,
+        TABLE_ROW,
+        /** 无法识别的位置文字，原样保存 */
+        TEXT
+    }
+
+    private static final char RANGE_SEPARATOR = '–';
+
+    private final Kind kind;
+    private final int index; // 段落序号或表格序号，从1开始
+    private final int row;   // 表格行号，从0开始
+    private final int end;   // 范围的最后一个段落序号或行号，不是范围时与起始相同
+    private final String text;
+
+    private Location(Kind kind, int index, int row, int end, String text) {
+        this.kind = kind;
+        this.index = index;
+        this.row = row;
+        this.end = end;
+        this.text = text;
+    }
+
+    /**
+     * @param index 正文段落序号，从1开始
+     */
+    public static Location paragraph(int index) {
+        return new Location(Kind.PARAGRAPH, index, 0, index, null);
+    }
+
+    /**
+     * @param first 第一个段落序号，从1开始
+     * @param last  最后一个段落序号（含）
+     */
+    public static Location paragraphs(int first, int last) {
+        return new Location(Kind.PARAGRAPH, first, 0, last, null);
+    }
+
+    /**
+     * @param index 表格序号，从1开始
+     */
+    public static Location table(int index) {
+        return new Location(Kind.TABLE, index, 0, 0, null);
+    }
+
+    /**
+     * @param index 表格序号，从1开始
+     * @param row   行号，从0开始
+     */
+    public static Location tableRow(int index, int row) {
+        return new Location(Kind.TABLE_ROW, index, row, row, null);
+    }
+
+    /**
+     * @param index 表格序号，从1开始
+     * @param first 第一行行号，从0开始
+     * @param last  最后一行行号（含）
+     */
+    public static Location tableRows(int index, int first, int last) {
+        return new Location(Kind.TABLE_ROW, index, first, last, null);
+    }
+
+    /**
+     * 解析位置文字，是 {@link #toString()} 的逆操作；无法识别的文字原样保存
+     */
+    public static Location parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        if ("文档属性".equals(text)) {
+            return DOCUMENT;
+        }
+        try {
+            if (text.startsWith("第") && text.endsWith("段落")) {
+                int[] range = parseRange(text.substring(1, text.length() - 2));
+                return paragraphs(range[0], range[1]);
+            }
+            if (text.startsWith("表格")) {
+                int comma = text.indexOf("，第");
+                if (comma < 0) {
+                    return table(Integer.parseInt(text.substring(2)));
+                }
+                if (text.endsWith("行")) {
+                    int[] range = parseRange(text.substring(comma + 2, text.length() - 1));
+                    return tableRows(Integer.parseInt(text.substring(2, comma)), range[0] - 1, range[1] - 1);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // 不是本程序生成的位置文字
+        }
+        return new Location(Kind.TEXT, 0, 0, 0, text);
+    }
+
+    private static int[] parseRange(String text) {
+        int dash = text.indexOf(RANGE_SEPARATOR);
+        if (dash < 0) {
+            int value = Integer.parseInt(text);
+            return new int[]{value, value};
+        }
+        return new int[]{Integer.parseInt(text.substring(0, dash)), Integer.parseInt(text.substring(dash + 1))};
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return 段落序号或表格序号（从1开始）；文档属性为0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return 表格行号（从0开始），仅 {@link Kind#TABLE_ROW} 有效
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return 范围的最后一个段落序号（{@link Kind#PARAGRAPH}）或行号（{@link Kind#TABLE_ROW}），不是范围时与起始相同
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return 是否为多个段落或多行的范围
+     */
+    public boolean isRange() {
+        return (kind == Kind.PARAGRAPH && end != index) || (kind == Kind.TABLE_ROW && end != row);
+    }
+
+    /**
+     * @return 显示文字，如"第3段落"
+     */
+    @Override
+    public String toString() {
+        switch (kind) {
+            case DOCUMENT:
+                return "文档属性";
+            case PARAGRAPH:
+                return end == index ? "第" + index + "段落" : "第" + index + RANGE_SEPARATOR + end + "段落";
+            case TABLE:
+                return "表格" + index;
+            case TABLE_ROW:
+                return "表格" + index + "，第" + (row + 1) + (end == row ? "" : RANGE_SEPARATOR + String.valueOf(end + 1)) + "行";
+            default:
+                return text;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Location)) {
+            return false;
+        }
+        Location other = (Location) o;
+        return kind == other.kind && index == other.index && row == other.row && end == other.end
+                && Objects.equals(text, other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, index, row, end, text);
+    }
+}
@@ -0,0 +1,933 @@
+package com.papercheck.rule;
+
+import com.papercheck.metrics.DiagnosticRecorder;
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.IssueType;
+import com.papercheck.model.Location;
+import com.papercheck.service.ParagraphNode;
+import com.papercheck.service.ParagraphStyle;
+import com.papercheck.service.SectionInfo;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTFonts;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageNumber;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSpacing;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STLineSpacingRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * 内置格式规则
+ * <p>
+ * {@link #create(RuleProfile)} 返回的顺序即同一元素上各规则的执行顺序，也决定了检查结果的顺序。
+ */
+final class BuiltinRules {
+    private static final Logger logger = LoggerFactory.getLogger(BuiltinRules.class);
+
+    // Word中的长度单位换算
+    private static final int DXA_PER_CM = 567; // 1厘米约等于567 dxa
+    private static final int TWIPS_PER_CHAR = 210; // 一个五号字（10.5磅）宽度
+    private static final int TWIPS_PER_LINE = 240; // 单倍行距
+
+    private BuiltinRules() {
+    }
+
+    static List<Rule> create(RuleProfile profile) {
+        return List.of(
+                new TitleAlignmentRule(),
+                new TitleFontRule(profile),
+                new BodyIndentRule(profile),
+                new BodyLineSpacingRule(profile),
+                new BodyFontRule(profile),
+                new PictureCaptionRule(),
+                new TableHeaderAlignmentRule(),
+                new TableFontSizeRule(profile),
+                new PageMarginRule(profile),
+                new PageNumberRule()
+        );
+    }
+
+    /**
+     * 识别图片标题（通常以"图"开头）
+     */
+    static boolean isPictureCaption(String text) {
+        return text.startsWith("图") && text.contains("：");
+    }
+
+    /**
+     * @return 中文字号名称，如16磅为"三号字"；不是常用字号时为null
+     */
+    static String fontSizeName(int points) {
+        switch (points) {
+            case 42: return "初号字";
+            case 36: return "小初号字";
+            case 26: return "一号字";
+            case 24: return "小一号字";
+            case 22: return "二号字";
+            case 18: return "小二号字";
+            case 16: return "三号字";
+            case 15: return "小三号字";
+            case 14: return "四号字";
+            case 12: return "小四号字";
+            case 9: return "小五号字";
+            default: return null;
+        }
+    }
+
+    /**
+     * @return 如"三号字（约16磅）"，不是常用字号时为"16磅"
+     */
+    private static String describeSize(int points, boolean approximate) {
+        String name = fontSizeName(points);
+        return name == null ? points + "磅" : name + "（" + (approximate ? "约" : "") + points + "磅）";
+    }
+
+    private static String sizeShortName(int points) {
+        String name = fontSizeName(points);
+        return name == null ? points + "磅" : name;
+    }
+
+    private abstract static class BaseRule implements Rule {
+        private final String id;
+        private final String description;
+        private final RuleTarget target;
+
+        BaseRule(String id, String description, RuleTarget target) {
+            this.id = id;
+            this.description = description;
+            this.target = target;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public RuleTarget getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * 标题居中
+     */
+    private static class TitleAlignmentRule extends BaseRule {
+        TitleAlignmentRule() {
+            super("title.alignment", "标题格式: 论文标题应居中对齐", RuleTarget.TITLE);
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            DiagnosticRecorder.record("检查标题格式: 第{}段落", paragraph.getIndex());
+            if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
+                results.add(new CheckResult(
+                    IssueType.TITLE,
+                    paragraph.getPosition(),
+                    "标题未居中对齐",
+                    "将标题设置为居中对齐"
+                ));
+            }
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode node, List<CheckResult> fixedResults) {
+            DiagnosticRecorder.record("修复标题格式: 第{}段落", node.getIndex());
+            XWPFParagraph paragraph = node.getParagraph();
+            if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
+                paragraph.setAlignment(ParagraphAlignment.CENTER);
+                fixedResults.add(new CheckResult(
+                    IssueType.TITLE,
+                    node.getPosition(),
+                    "已修复标题对齐方式",
+                    "已设置为居中对齐"
+                ));
+            }
+        }
+    }
+
+    /**
+     * 标题字号、字体、加粗（逐个文字块检查）
+     */
+    private static class TitleFontRule extends BaseRule {
+        private final int fontSize;
+        private final String fontFamily;
+        private final boolean bold;
+        // 检查结果的描述和建议只依赖配置，预先生成后所有结果共用
+        private final String sizeIssue;
+        private final String sizeSuggestion;
+        private final String familyIssue;
+        private final String familySuggestion;
+        private final String sizeFixed;
+        private final String familyFixed;
+
+        TitleFontRule(RuleProfile profile) {
+            super("title.font", "标题格式: 论文标题应使用" + profile.getTitleFontFamily() + "、"
+                    + sizeShortName(profile.getTitleFontSize()) + (profile.isTitleBold() ? "、加粗" : ""),
+                    RuleTarget.TITLE);
+            this.fontSize = profile.getTitleFontSize();
+            this.fontFamily = profile.getTitleFontFamily();
+            this.bold = profile.isTitleBold();
+            this.sizeIssue = "标题字号不符合要求，应为" + describeSize(fontSize, true);
+            this.sizeSuggestion = "将标题字号设置为" + sizeShortName(fontSize);
+            this.familyIssue = "标题字体不符合要求，应为" + fontFamily;
+            this.familySuggestion = "将标题字体设置为" + fontFamily;
+            this.sizeFixed = "已设置为" + describeSize(fontSize, false);
+            this.familyFixed = "已设置为" + fontFamily;
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            for (int run = 0, runs = paragraph.getRunCount(); run < runs; run++) {
+                // 检查字体大小
+                int size = paragraph.getRunFontSize(run);
+                if (size != -1 && size < fontSize) {
+                    results.add(new CheckResult(
+                        IssueType.TITLE,
+                        paragraph.getPosition(),
+                        sizeIssue,
+                        sizeSuggestion
+                    ));
+                }
+
+                // 检查字体类型
+                String family = paragraph.getRunFontFamily(run);
+                if (family != null && !family.contains(fontFamily)) {
+                    results.add(new CheckResult(
+                        IssueType.TITLE,
+                        paragraph.getPosition(),
+                        familyIssue,
+                        familySuggestion
+                    ));
+                }
+
+                // 检查是否加粗
+                if (bold && !paragraph.isRunBold(run)) {
+                    results.add(new CheckResult(
+                        IssueType.TITLE,
+                        paragraph.getPosition(),
+                        "标题未加粗",
+                        "将标题设置为加粗"
+                    ));
+                }
+            }
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode node, List<CheckResult> fixedResults) {
+            Location location = node.getPosition();
+            // 按生效的格式判断，格式已从样式继承时不再重复设置
+            for (ParagraphNode.RunInfo info : node.getRuns()) {
+                // 修复字体大小
+                if (info.getFontSize() != -1 && info.getFontSize() < fontSize) {
+                    fixFontSize(info, fontSize, info.getInheritedFontSize() >= fontSize);
+                    fixedResults.add(new CheckResult(
+                        IssueType.TITLE,
+                        location,
+                        "已修复标题字号",
+                        sizeFixed
+                    ));
+                }
+
+                // 修复字体类型
+                String family = info.getFontFamily();
+                if (family == null || !family.contains(fontFamily)) {
+                    fixFontFamily(info, fontFamily);
+                    fixedResults.add(new CheckResult(
+                        IssueType.TITLE,
+                        location,
+                        "已修复标题字体",
+                        familyFixed
+                    ));
+                }
+
+                // 修复是否加粗
+                if (bold && !info.isBold()) {
+                    info.getRun().setBold(true);
+                    fixedResults.add(new CheckResult(
+                        IssueType.TITLE,
+                        location,
+                        "已修复标题加粗",
+                        "已设置为加粗"
+                    ));
+                }
+            }
+        }
+    }
+
+    /**
+     * 正文首行缩进
+     */
+    private static class BodyIndentRule extends BaseRule {
+        private final int chars;
+        private final int requiredIndent; // twips
+        private final String tooSmall;
+        private final String suggestion;
+        private final String fixed;
+
+        BodyIndentRule(RuleProfile profile) {
+            super("body.indent", "段落格式: 段落首行缩进" + profile.getFirstLineIndentChars() + "字符", RuleTarget.BODY);
+            this.chars = profile.getFirstLineIndentChars();
+            this.requiredIndent = chars * TWIPS_PER_CHAR;
+            this.tooSmall = "段落首行缩进不足" + chars + "字符";
+            this.suggestion = "设置段落首行缩进为" + chars + "字符";
+            this.fixed = "已设置为" + chars + "字符缩进";
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            DiagnosticRecorder.record("检查正文格式: 第{}段落", paragraph.getIndex());
+            // 首行缩进，单位是twip（二十分之一磅）
+            int firstLineIndent = paragraph.hasIndent() ? paragraph.getFirstLineIndentValue() : ParagraphNode.NOT_SET;
+            if (firstLineIndent == ParagraphNode.NOT_SET) {
+                results.add(notSet(paragraph.getPosition()));
+            } else if (firstLineIndent == ParagraphNode.UNPARSABLE) {
+                logger.warn("解析段落缩进时出错: 第{}段落，{}", paragraph.getIndex(), paragraph.getFirstLineIndent());
+                results.add(new CheckResult(
+                    IssueType.PARAGRAPH,
+                    paragraph.getPosition(),
+                    "无法解析段落缩进值",
+                    "请手动检查段落缩进设置"
+                ));
+            } else if (firstLineIndent < requiredIndent * 0.8) {
+                results.add(new CheckResult(
+                    IssueType.PARAGRAPH,
+                    paragraph.getPosition(),
+                    tooSmall,
+                    suggestion
+                ));
+            }
+        }
+
+        private CheckResult notSet(Location location) {
+            return new CheckResult(
+                IssueType.PARAGRAPH,
+                location,
+                "段落未设置首行缩进",
+                suggestion
+            );
+        }
+
+        /**
+         * @return 首行缩进是否会被检查报告（未设置、无法解析或不足）
+         */
+        private boolean insufficient(String firstLine) {
+            if (firstLine == null) {
+                return true;
+            }
+            try {
+                return Double.parseDouble(firstLine) < requiredIndent * 0.8;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+
+        @Override
+        public void fixParagraphStyle(ParagraphStyle style, List<CheckResult> fixedResults) {
+            if (style.hasIndent() && !insufficient(style.getFirstLineIndent())) {
+                return;
+            }
+            CTPPrGeneral pPr = style.getPPr();
+            CTInd ind = pPr.isSetInd() ? pPr.getInd() : pPr.addNewInd();
+            ind.setFirstLine(BigInteger.valueOf(requiredIndent));
+            fixedResults.add(new CheckResult(
+                IssueType.PARAGRAPH,
+                Location.DOCUMENT,
+                "已修复样式“" + style.getName() + "”的首行缩进",
+                fixed + "，" + style.getParagraphCount() + "个段落使用该样式"
+            ));
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode node, List<CheckResult> fixedResults) {
+            if (node.hasIndent() && !insufficient(node.getFirstLineIndent())) {
+                return;
+            }
+            DiagnosticRecorder.record("修复正文格式: 第{}段落", node.getIndex());
+            CTPPr pPr = pPr(node);
+            if (pPr.isSetInd() && !insufficient(node.getInheritedFirstLineIndent())) {
+                // 样式中的缩进已符合要求，删除与之冲突的直接格式
+                CTInd ind = pPr.getInd();
+                ind.unsetFirstLine();
+                if (ind.getDomNode().getAttributes().getLength() == 0) {
+                    pPr.unsetInd();
+                }
+            } else {
+                CTInd ind = pPr.isSetInd() ? pPr.getInd() : pPr.addNewInd();
+                ind.setFirstLine(BigInteger.valueOf(requiredIndent));
+            }
+            fixedResults.add(new CheckResult(
+                IssueType.PARAGRAPH,
+                node.getPosition(),
+                "已修复段落首行缩进",
+                fixed
+            ));
+        }
+    }
+
+    /**
+     * 正文行距
+     */
+    private static class BodyLineSpacingRule extends BaseRule {
+        private final double lineSpacing;
+        private final long requiredLine; // twips
+        private final String tooSmall;
+        private final String suggestion;
+        private final String fixed;
+
+        BodyLineSpacingRule(RuleProfile profile) {
+            super("body.line-spacing", "行间距: " + profile.getLineSpacing() + "倍行距", RuleTarget.BODY);
+            this.lineSpacing = profile.getLineSpacing();
+            this.requiredLine = Math.round(lineSpacing * TWIPS_PER_LINE);
+            this.tooSmall = "段落行距小于" + lineSpacing + "倍";
+            this.suggestion = "设置段落行距为" + lineSpacing + "倍";
+            this.fixed = "已设置为" + lineSpacing + "倍行距";
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            // Word中行距单位是twip的二百四十分之一行，单倍行距为240
+            int spacing = paragraph.hasSpacing() ? paragraph.getSpacingLineValue() : ParagraphNode.NOT_SET;
+            if (spacing == ParagraphNode.NOT_SET) {
+                results.add(notSet(paragraph.getPosition()));
+            } else if (spacing == ParagraphNode.UNPARSABLE) {
+                logger.warn("解析行距时出错: 第{}段落，{}", paragraph.getIndex(), paragraph.getSpacingLine());
+                results.add(new CheckResult(
+                    IssueType.PARAGRAPH,
+                    paragraph.getPosition(),
+                    "无法解析行距值",
+                    "请手动检查行距设置"
+                ));
+            } else if (spacing < requiredLine) {
+                results.add(new CheckResult(
+                    IssueType.PARAGRAPH,
+                    paragraph.getPosition(),
+                    tooSmall,
+                    suggestion
+                ));
+            }
+        }
+
+        private CheckResult notSet(Location location) {
+            return new CheckResult(
+                IssueType.PARAGRAPH,
+                location,
+                "段落未设置行距",
+                suggestion
+            );
+        }
+
+        /**
+         * @return 行距是否会被检查报告（未设置、无法解析或过小）
+         */
+        private boolean insufficient(String line) {
+            if (line == null) {
+                return true;
+            }
+            try {
+                return Double.parseDouble(line) < requiredLine;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+
+        @Override
+        public void fixParagraphStyle(ParagraphStyle style, List<CheckResult> fixedResults) {
+            if (style.hasSpacing() && !insufficient(style.getSpacingLine())) {
+                return;
+            }
+            CTPPrGeneral pPr = style.getPPr();
+            CTSpacing spacing = pPr.isSetSpacing() ? pPr.getSpacing() : pPr.addNewSpacing();
+            spacing.setLine(BigInteger.valueOf(requiredLine));
+            spacing.setLineRule(STLineSpacingRule.AUTO);
+            fixedResults.add(new CheckResult(
+                IssueType.PARAGRAPH,
+                Location.DOCUMENT,
+                "已修复样式“" + style.getName() + "”的行距",
+                fixed + "，" + style.getParagraphCount() + "个段落使用该样式"
+            ));
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode node, List<CheckResult> fixedResults) {
+            if (node.hasSpacing() && !insufficient(node.getSpacingLine())) {
+                return;
+            }
+            CTPPr pPr = pPr(node);
+            if (pPr.isSetSpacing() && !insufficient(node.getInheritedSpacingLine())) {
+                // 样式中的行距已符合要求，删除与之冲突的直接格式
+                CTSpacing spacing = pPr.getSpacing();
+                spacing.unsetLine();
+                if (spacing.isSetLineRule()) {
+                    spacing.unsetLineRule();
+                }
+                if (spacing.getDomNode().getAttributes().getLength() == 0) {
+                    pPr.unsetSpacing();
+                }
+            } else {
+                CTSpacing spacing = pPr.isSetSpacing() ? pPr.getSpacing() : pPr.addNewSpacing();
+                spacing.setLine(BigInteger.valueOf(requiredLine));
+                spacing.setLineRule(STLineSpacingRule.AUTO);
+            }
+            fixedResults.add(new CheckResult(
+                IssueType.PARAGRAPH,
+                node.getPosition(),
+                "已修复段落行距",
+                fixed
+            ));
+        }
+    }
+
+    private static CTPPr pPr(ParagraphNode node) {
+        CTP ctp = node.getParagraph().getCTP();
+        return ctp.isSetPPr() ? ctp.getPPr() : ctp.addNewPPr();
+    }
+
+    /**
+     * 修复文字块的字号：继承的字号已符合要求时删除直接设置的字号，否则直接设置
+     */
+    private static void fixFontSize(ParagraphNode.RunInfo info, int fontSize, boolean inheritedOk) {
+        XWPFRun run = info.getRun();
+        CTRPr rPr = run.getCTR().getRPr();
+        if (inheritedOk && rPr != null) {
+            while (rPr.sizeOfSzArray() > 0) {
+                rPr.removeSz(0);
+            }
+            while (rPr.sizeOfSzCsArray() > 0) {
+                rPr.removeSzCs(0);
+            }
+        } else {
+            run.setFontSize(fontSize);
+        }
+    }
+
+    /**
+     * 修复文字块的字体：继承的字体已符合要求时删除直接设置的字体，否则直接设置
+     */
+    private static void fixFontFamily(ParagraphNode.RunInfo info, String fontFamily) {
+        XWPFRun run = info.getRun();
+        CTRPr rPr = run.getCTR().getRPr();
+        String inherited = info.getInheritedFontFamily();
+        if (inherited != null && inherited.contains(fontFamily) && rPr != null) {
+            while (rPr.sizeOfRFontsArray() > 0) {
+                rPr.removeRFonts(0);
+            }
+        } else {
+            run.setFontFamily(fontFamily);
+        }
+    }
+
+    private static void setStyleFontSize(CTRPr rPr, int fontSize) {
+        BigInteger halfPoints = BigInteger.valueOf(fontSize * 2L);
+        (rPr.sizeOfSzArray() > 0 ? rPr.getSzArray(0) : rPr.addNewSz()).setVal(halfPoints);
+        (rPr.sizeOfSzCsArray() > 0 ? rPr.getSzCsArray(0) : rPr.addNewSzCs()).setVal(halfPoints);
+    }
+
+    private static void setStyleFontFamily(CTRPr rPr, String fontFamily) {
+        CTFonts fonts = rPr.sizeOfRFontsArray() > 0 ? rPr.getRFontsArray(0) : rPr.addNewRFonts();
+        fonts.setAscii(fontFamily);
+        fonts.setHAnsi(fontFamily);
+        fonts.setEastAsia(fontFamily);
+        fonts.setCs(fontFamily);
+        // 主题字体优先于具体字体
+        if (fonts.isSetAsciiTheme()) {
+            fonts.unsetAsciiTheme();
+        }
+        if (fonts.isSetHAnsiTheme()) {
+            fonts.unsetHAnsiTheme();
+        }
+        if (fonts.isSetEastAsiaTheme()) {
+            fonts.unsetEastAsiaTheme();
+        }
+        if (fonts.isSetCstheme()) {
+            fonts.unsetCstheme();
+        }
+    }
+
+    /**
+     * 正文字号、字体（逐个文字块检查）
+     */
+    private static class BodyFontRule extends BaseRule {
+        private final int fontSize;
+        private final int maxFontSize;
+        private final String fontFamily;
+        private final String sizeIssue;
+        private final String sizeSuggestion;
+        private final String familyIssue;
+        private final String familySuggestion;
+        private final String sizeFixed;
+        private final String familyFixed;
+
+        BodyFontRule(RuleProfile profile) {
+            super("body.font", "正文格式: 正文应使用" + profile.getBodyFontFamily() + "、"
+                    + sizeShortName(profile.getBodyFontSize()), RuleTarget.BODY);
+            this.fontSize = profile.getBodyFontSize();
+            this.maxFontSize = fontSize + profile.getBodyFontSizeTolerance();
+            this.fontFamily = profile.getBodyFontFamily();
+            this.sizeIssue = "正文字号过大，应为" + describeSize(fontSize, true);
+            this.sizeSuggestion = "将正文字号设置为" + sizeShortName(fontSize);
+            this.familyIssue = "正文字体不符合要求，应为" + fontFamily;
+            this.familySuggestion = "将正文字体设置为" + fontFamily;
+            this.sizeFixed = "已设置为" + describeSize(fontSize, false);
+            this.familyFixed = "已设置为" + fontFamily;
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            for (int run = 0, runs = paragraph.getRunCount(); run < runs; run++) {
+                // 检查字体大小
+                int size = paragraph.getRunFontSize(run);
+                if (size != -1 && size > maxFontSize) {
+                    results.add(new CheckResult(
+                        IssueType.BODY,
+                        paragraph.getPosition(),
+                        sizeIssue,
+                        sizeSuggestion
+                    ));
+                }
+
+                // 检查字体类型
+                String family = paragraph.getRunFontFamily(run);
+                if (family != null && !family.contains(fontFamily)) {
+                    results.add(new CheckResult(
+                        IssueType.BODY,
+                        paragraph.getPosition(),
+                        familyIssue,
+                        familySuggestion
+                    ));
+                }
+            }
+        }
+
+        @Override
+        public void fixParagraphStyle(ParagraphStyle style, List<CheckResult> fixedResults) {
+            String suffix = "，" + style.getParagraphCount() + "个段落使用该样式";
+            if (style.getFontSize() != -1 && style.getFontSize() > maxFontSize) {
+                setStyleFontSize(style.getRPr(), fontSize);
+                fixedResults.add(new CheckResult(
+                    IssueType.BODY,
+                    Location.DOCUMENT,
+                    "已修复样式“" + style.getName() + "”的字号",
+                    sizeFixed + suffix
+                ));
+            }
+            String family = style.getFontFamily();
+            if (family == null || !family.contains(fontFamily)) {
+                setStyleFontFamily(style.getRPr(), fontFamily);
+                fixedResults.add(new CheckResult(
+                    IssueType.BODY,
+                    Location.DOCUMENT,
+                    "已修复样式“" + style.getName() + "”的字体",
+                    familyFixed + suffix
+                ));
+            }
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode node, List<CheckResult> fixedResults) {
+            Location location = node.getPosition();
+            for (ParagraphNode.RunInfo info : node.getRuns()) {
+                // 修复字体大小
+                if (info.getFontSize() != -1 && info.getFontSize() > maxFontSize) {
+                    int inherited = info.getInheritedFontSize();
+                    fixFontSize(info, fontSize, inherited != -1 && inherited <= maxFontSize);
+                    fixedResults.add(new CheckResult(
+                        IssueType.BODY,
+                        location,
+                        "已修复正文字号",
+                        sizeFixed
+                    ));
+                }
+
+                // 修复字体类型
+                String family = info.getFontFamily();
+                if (family == null || !family.contains(fontFamily)) {
+                    fixFontFamily(info, fontFamily);
+                    fixedResults.add(new CheckResult(
+                        IssueType.BODY,
+                        location,
+                        "已修复正文字体",
+                        familyFixed
+                    ));
+                }
+            }
+        }
+    }
+
+    /**
+     * 图片标题居中
+     */
+    private static class PictureCaptionRule extends BaseRule {
+        PictureCaptionRule() {
+            super("picture.caption", "图片标题: 图片标题应居中显示", RuleTarget.PARAGRAPH);
+        }
+
+        @Override
+        public boolean appliesTo(ParagraphNode paragraph) {
+            return isPictureCaption(paragraph.getText());
+        }
+
+        @Override
+        public void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
+                results.add(new CheckResult(
+                    IssueType.PICTURE,
+                    paragraph.getPosition(),
+                    "图片标题未居中对齐",
+                    "将图片标题设置为居中对齐"
+                ));
+            }
+        }
+
+        @Override
+        public void fixParagraph(ParagraphNode paragraph, List<CheckResult> fixedResults) {
+            if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
+                paragraph.getParagraph().setAlignment(ParagraphAlignment.CENTER);
+                fixedResults.add(new CheckResult(
+                    IssueType.PICTURE,
+                    paragraph.getPosition(),
+                    "已修复图片标题对齐方式",
+                    "已设置为居中对齐"
+                ));
+            }
+        }
+    }
+
+    /**
+     * 表格首行（表头）居中，每个单元格最多报告一次
+     */
+    private static class TableHeaderAlignmentRule extends BaseRule {
+        TableHeaderAlignmentRule() {
+            super("table.header-alignment", "表格标题: 表格首行应居中显示", RuleTarget.TABLE_CELL);
+        }
+
+        @Override
+        public void checkCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> results) {
+            if (cell.getRowIndex() == 0 && paragraph.getAlignment() != ParagraphAlignment.CENTER
+                    && cell.markReported(this)) {
+                results.add(new CheckResult(
+                    IssueType.TABLE,
+                    cell.getTable().getPosition(),
+                    "表格标题未居中对齐",
+                    "将表格标题设置为居中对齐"
+                ));
+            }
+        }
+
+        @Override
+        public void fixCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> fixedResults) {
+            if (cell.getRowIndex() == 0 && paragraph.getAlignment() != ParagraphAlignment.CENTER) {
+                paragraph.getParagraph().setAlignment(ParagraphAlignment.CENTER);
+                fixedResults.add(new CheckResult(
+                    IssueType.TABLE,
+                    cell.getTable().getPosition(),
+                    "已修复表格标题对齐方式",
+                    "已设置为居中对齐"
+                ));
+            }
+        }
+    }
+
+    /**
+     * 表格内容字号
+     */
+    private static class TableFontSizeRule extends BaseRule {
+        private final int fontSize;
+        private final int maxFontSize;
+        private final String sizeSuggestion;
+        private final String sizeFixed;
+
+        TableFontSizeRule(RuleProfile profile) {
+            super("table.font-size", "表格内容: 字号不大于" + sizeShortName(profile.getBodyFontSize()),
+                    RuleTarget.TABLE_CELL);
+            this.fontSize = profile.getBodyFontSize();
+            this.maxFontSize = fontSize + profile.getBodyFontSizeTolerance();
+            this.sizeSuggestion = "将表格内容字号设置为" + sizeShortName(fontSize) + "或更小";
+            this.sizeFixed = "已设置为" + describeSize(fontSize, false);
+        }
+
+        @Override
+        public void checkCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> results) {
+            for (int run = 0, runs = paragraph.getRunCount(); run < runs; run++) {
+                int size = paragraph.getRunFontSize(run);
+                if (size != -1 && size > maxFontSize) {
+                    results.add(new CheckResult(
+                        IssueType.TABLE,
+                        cell.getTable().getRowPosition(cell.getRowIndex()),
+                        "表格内容字号过大",
+                        sizeSuggestion
+                    ));
+                }
+            }
+        }
+
+        @Override
+        public void fixCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> fixedResults) {
+            for (ParagraphNode.RunInfo info : paragraph.getRuns()) {
+                if (info.getFontSize() != -1 && info.getFontSize() > maxFontSize) {
+                    int inherited = info.getInheritedFontSize();
+                    fixFontSize(info, fontSize, inherited != -1 && inherited <= maxFontSize);
+                    fixedResults.add(new CheckResult(
+                        IssueType.TABLE,
+                        cell.getTable().getRowPosition(cell.getRowIndex()),
+                        "已修复表格内容字号",
+                        sizeFixed
+                    ));
+                }
+            }
+        }
+    }
+
+    /**
+     * 页边距
+     */
+    private static class PageMarginRule extends BaseRule {
+        private final double top;
+        private final double bottom;
+        private final double left;
+        private final double right;
+
+        PageMarginRule(RuleProfile profile) {
+            super("page.margins", "页边距: 上" + profile.getMarginTop() + "cm，下" + profile.getMarginBottom()
+                    + "cm，左" + profile.getMarginLeft() + "cm，右" + profile.getMarginRight() + "cm",
+                    RuleTarget.DOCUMENT);
+            this.top = profile.getMarginTop();
+            this.bottom = profile.getMarginBottom();
+            this.left = profile.getMarginLeft();
+            this.right = profile.getMarginRight();
+        }
+
+        @Override
+        public void checkDocument(SectionInfo section, List<CheckResult> results) {
+            if (section == null) {
+                return;
+            }
+            if (!section.isPageMarginsSet()) {
+                results.add(new CheckResult(
+                    IssueType.PAGE_MARGIN,
+                    Location.DOCUMENT,
+                    "未设置页边距",
+                    "设置页边距：上下" + top + "厘米，左右" + left + "厘米"
+                ));
+                return;
+            }
+            try {
+                checkMargin(section.getMarginTop(), top, "上", results);
+                checkMargin(section.getMarginBottom(), bottom, "下", results);
+                checkMargin(section.getMarginLeft(), left, "左", results);
+                checkMargin(section.getMarginRight(), right, "右", results);
+            } catch (NumberFormatException e) {
+                logger.warn("解析页边距时出错", e);
+                results.add(new CheckResult(
+                    IssueType.PAGE_MARGIN,
+                    Location.DOCUMENT,
+                    "无法解析页边距值",
+                    "请手动检查页边距设置"
+                ));
+            }
+        }
+
+        private void checkMargin(String value, double required, String side, List<CheckResult> results) {
+            // 安全地获取数值，未设置时按0处理
+            double margin = value == null ? 0 : Double.parseDouble(value);
+            if (margin < required * DXA_PER_CM * 0.9) {
+                results.add(new CheckResult(
+                    IssueType.PAGE_MARGIN,
+                    Location.DOCUMENT,
+                    side + "边距不符合要求，当前值小于" + required + "厘米",
+                    "将" + side + "边距设置为" + required + "厘米"
+                ));
+            }
+        }
+
+        @Override
+        public void fixDocument(XWPFDocument document, List<CheckResult> fixedResults) {
+            CTSectPr sectPr = sectPr(document);
+            CTPageMar pgMar = sectPr.isSetPgMar() ? sectPr.getPgMar() : sectPr.addNewPgMar();
+            pgMar.setTop(toDxa(top));
+            fixedResults.add(fixed("上", top));
+            pgMar.setBottom(toDxa(bottom));
+            fixedResults.add(fixed("下", bottom));
+            pgMar.setLeft(toDxa(left));
+            fixedResults.add(fixed("左", left));
+            pgMar.setRight(toDxa(right));
+            fixedResults.add(fixed("右", right));
+        }
+
+        private static BigInteger toDxa(double centimeters) {
+            return BigInteger.valueOf((int) (centimeters * DXA_PER_CM));
+        }
+
+        private static CheckResult fixed(String side, double value) {
+            return new CheckResult(
+                IssueType.PAGE_MARGIN,
+                Location.DOCUMENT,
+                "已修复" + side + "边距",
+                "已设置为" + value + "厘米"
+            );
+        }
+    }
+
+    /**
+     * 页码
+     */
+    private static class PageNumberRule extends BaseRule {
+        PageNumberRule() {
+            super("page.number", "页码: 页码应位于页面底部居中", RuleTarget.DOCUMENT);
+        }
+
+        @Override
+        public void checkDocument(SectionInfo section, List<CheckResult> results) {
+            if (section != null && !section.isPageNumberTypeSet()) {
+                results.add(new CheckResult(
+                    IssueType.PAGE_NUMBER,
+                    Location.DOCUMENT,
+                    "未设置页码",
+                    "在页面底部居中添加页码"
+                ));
+            }
+        }
+
+        @Override
+        public void fixDocument(XWPFDocument document, List<CheckResult> fixedResults) {
+            CTSectPr sectPr = sectPr(document);
+            if (!sectPr.isSetPgNumType()) {
+                CTPageNumber pgNum = sectPr.addNewPgNumType();
+                pgNum.setStart(BigInteger.valueOf(1));
+                fixedResults.add(new CheckResult(
+                    IssueType.PAGE_NUMBER,
+                    Location.DOCUMENT,
+                    "已添加页码",
+                    "已设置页码从1开始"
+                ));
+            }
+        }
+    }
+
+    private static CTSectPr sectPr(XWPFDocument document) {
+        CTSectPr sectPr = document.getDocument().getBody().getSectPr();
+        return sectPr != null ? sectPr : document.getDocument().getBody().addNewSectPr();
+    }
+}
@@ -0,0 +1,59 @@
+package com.papercheck.rule;
+
+import com.papercheck.service.TableNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表格单元格上下文，同一单元格中的所有段落共用一个实例
+ */
+public class CellContext {
+    private final TableNode table;
+    private final int rowIndex;
+    private final int cellIndex;
+    private List<Rule> reported; // 本单元格中已报告过问题的规则，通常为空
+
+    CellContext(TableNode table, int rowIndex, int cellIndex) {
+        this.table = table;
+        this.rowIndex = rowIndex;
+        this.cellIndex = cellIndex;
+    }
+
+    public TableNode getTable() {
+        return table;
+    }
+
+    /**
+     * @return 行号，从0开始
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * @return 单元格序号，从0开始
+     */
+    public int getCellIndex() {
+        return cellIndex;
+    }
+
+    /**
+     * 用于每个单元格最多报告一次的规则
+     *
+     * @return 该规则在本单元格中是否是第一次报告
+     */
+    public boolean markReported(Rule rule) {
+        if (reported == null) {
+            reported = new ArrayList<>(2);
+        } else if (reported.contains(rule)) {
+            return false;
+        }
+        reported.add(rule);
+        return true;
+    }
+
+    boolean isSameCell(TableNode table, int rowIndex, int cellIndex) {
+        return this.table == table && this.rowIndex == rowIndex && this.cellIndex == cellIndex;
+    }
+}
@@ -0,0 +1,81 @@
+package com.papercheck.rule;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.service.ParagraphNode;
+import com.papercheck.service.ParagraphStyle;
+import com.papercheck.service.SectionInfo;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.util.List;
+
+/**
+ * 格式规则，由检查和修复两部分组成
+ * <p>
+ * 规则在编译执行计划时根据规则配置创建，之后只读，可在多个线程间共享；遍历状态由执行计划保存。
+ * 执行计划只会调用与 {@link #getTarget()} 对应的方法，且在调用检查/修复前先用 {@link #appliesTo} 过滤。
+ */
+public interface Rule {
+
+    /**
+     * @return 规则编号，如 "body.indent"，用于在规则配置中启用/停用
+     */
+    String getId();
+
+    /**
+     * @return 规则说明，显示在规则列表中
+     */
+    String getDescription();
+
+    RuleTarget getTarget();
+
+    /**
+     * 廉价的前置判断（如段落文本是否像图片标题），为false时跳过该段落的检查和修复
+     */
+    default boolean appliesTo(ParagraphNode paragraph) {
+        return true;
+    }
+
+    /**
+     * 检查文档属性（{@link RuleTarget#DOCUMENT}）
+     *
+     * @param section 节属性，文档没有节属性时为null
+     */
+    default void checkDocument(SectionInfo section, List<CheckResult> results) {
+    }
+
+    /**
+     * 修复文档属性（{@link RuleTarget#DOCUMENT}）
+     */
+    default void fixDocument(XWPFDocument document, List<CheckResult> fixedResults) {
+    }
+
+    /**
+     * 检查正文段落（{@link RuleTarget#TITLE}、{@link RuleTarget#BODY}、{@link RuleTarget#PARAGRAPH}）
+     */
+    default void checkParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+    }
+
+    /**
+     * 修复正文段落，段落一定基于已加载的POI文档
+     */
+    default void fixParagraph(ParagraphNode paragraph, List<CheckResult> fixedResults) {
+    }
+
+    /**
+     * 修复正文段落共用的段落样式（{@link RuleTarget#BODY}），在逐段修复之前调用；样式已符合要求时不做修改
+     */
+    default void fixParagraphStyle(ParagraphStyle style, List<CheckResult> fixedResults) {
+    }
+
+    /**
+     * 检查表格单元格中的段落（{@link RuleTarget#TABLE_CELL}）
+     */
+    default void checkCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> results) {
+    }
+
+    /**
+     * 修复表格单元格中的段落
+     */
+    default void fixCellParagraph(CellContext cell, ParagraphNode paragraph, List<CheckResult> fixedResults) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.papercheck.rule;
+
+import com.papercheck.metrics.CheckerMetrics;
+import com.papercheck.model.CheckResult;
+import com.papercheck.service.ElementVisitor;
+import com.papercheck.service.ParagraphNode;
+import com.papercheck.service.ParagraphStyle;
+import com.papercheck.service.SectionInfo;
+import com.papercheck.service.TableNode;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 规则执行计划
+ * <p>
+ * 由规则配置编译一次得到，之后只读，可在多个线程间共享。编译时丢弃停用的规则，并把启用的规则按作用的元素类型
+ * 分组为数组；遍历时每个元素只查看对应分组，先执行规则的廉价前置判断再执行检查/修复，
+ * 没有规则的分组连段落文本都不会读取。
+ * <p>
+ * 开启规则计时（{@link CheckerMetrics#setRuleTimingEnabled}）后，每条规则的耗时（含前置判断）计入对应的直方图。
+ */
+public final class RulePlan {
+    private static final Logger logger = LoggerFactory.getLogger(RulePlan.class);
+
+    // 规则的实现有变化时递增，使已缓存的检查结果失效
+    private static final int RULE_REVISION = 4;
+
+    private static final Rule[] NONE = new Rule[0];
+
+    private final RuleProfile profile;
+    private final List<Rule> rules;
+    private final Rule[] documentRules;
+    private final Rule[] titleRules;
+    private final Rule[] bodyRules;
+    private final Rule[] paragraphRules;
+    private final Rule[] cellRules;
+    private final boolean tracksTitle;
+    private final String version;
+
+    private RulePlan(RuleProfile profile, List<Rule> rules) {
+        this.profile = profile;
+        this.rules = Collections.unmodifiableList(rules);
+        Map<RuleTarget, List<Rule>> byTarget = new EnumMap<>(RuleTarget.class);
+        for (Rule rule : rules) {
+            byTarget.computeIfAbsent(rule.getTarget(), target -> new ArrayList<>()).add(rule);
+        }
+        this.documentRules = toArray(byTarget.get(RuleTarget.DOCUMENT));
+        this.titleRules = toArray(byTarget.get(RuleTarget.TITLE));
+        this.bodyRules = toArray(byTarget.get(RuleTarget.BODY));
+        this.paragraphRules = toArray(byTarget.get(RuleTarget.PARAGRAPH));
+        this.cellRules = toArray(byTarget.get(RuleTarget.TABLE_CELL));
+        this.tracksTitle = titleRules.length > 0 || bodyRules.length > 0;
+        this.version = RULE_REVISION + ";" + profile.getFingerprint();
+    }
+
+    /**
+     * 编译规则配置
+     *
+     * @throws IllegalArgumentException 如果配置启用了不存在的规则
+     */
+    public static RulePlan compile(RuleProfile profile) {
+        List<Rule> all = BuiltinRules.create(profile);
+        Set<String> known = new HashSet<>();
+        List<Rule> enabled = new ArrayList<>(all.size());
+        for (Rule rule : all) {
+            known.add(rule.getId());
+            if (profile.isEnabled(rule.getId())) {
+                enabled.add(rule);
+            }
+        }
+        for (String id : profile.getEnabledRules()) {
+            if (!known.contains(id)) {
+                throw new IllegalArgumentException("规则配置 " + profile.getName() + " 中的规则不存在: " + id);
+            }
+        }
+        logger.info("编译规则配置: {}，启用 {} 条规则", profile.getName(), enabled.size());
+        return new RulePlan(profile, enabled);
+    }
+
+    public RuleProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return 启用的规则，按执行顺序排列
+     */
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * @return 执行计划的版本，规则实现或配置内容变化时随之变化，用作检查结果缓存键的一部分
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return 规则说明列表，如"1. 标题格式: ..."
+     */
+    public List<String> describeRules() {
+        List<String> descriptions = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            descriptions.add((i + 1) + ". " + rules.get(i).getDescription());
+        }
+        return descriptions;
+    }
+
+    /**
+     * 检查文档属性
+     *
+     * @param section 节属性，文档没有节属性时为null
+     */
+    public void checkDocument(SectionInfo section, List<CheckResult> results) {
+        logger.debug("检查文档属性");
+        boolean timing = CheckerMetrics.get().isRuleTimingEnabled();
+        for (Rule rule : documentRules) {
+            long start = timing ? System.nanoTime() : 0L;
+            rule.checkDocument(section, results);
+            if (timing) {
+                CheckerMetrics.get().ruleHistogram(rule.getId(), false).recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * 修复文档属性
+     */
+    public void fixDocument(XWPFDocument document, List<CheckResult> fixedResults) {
+        logger.debug("修复文档属性");
+        boolean timing = CheckerMetrics.get().isRuleTimingEnabled();
+        for (Rule rule : documentRules) {
+            long start = timing ? System.nanoTime() : 0L;
+            rule.fixDocument(document, fixedResults);
+            if (timing) {
+                CheckerMetrics.get().ruleHistogram(rule.getId(), true).recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * @return 是否启用了正文规则
+     */
+    public boolean hasBodyRules() {
+        return bodyRules.length > 0;
+    }
+
+    /**
+     * 修复正文段落共用的段落样式，在逐段修复之前调用
+     */
+    public void fixParagraphStyle(ParagraphStyle style, List<CheckResult> fixedResults) {
+        logger.debug("修复样式: {}", style.getStyleId());
+        boolean timing = CheckerMetrics.get().isRuleTimingEnabled();
+        for (Rule rule : bodyRules) {
+            long start = timing ? System.nanoTime() : 0L;
+            rule.fixParagraphStyle(style, fixedResults);
+            if (timing) {
+                CheckerMetrics.get().ruleHistogram(rule.getId(), true).recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * @return 新的检查访问器，保存遍历状态，每次检查都要新建
+     */
+    public ElementVisitor newCheckVisitor() {
+        return new PlanVisitor(false);
+    }
+
+    /**
+     * @return 新的修复访问器，保存遍历状态，每次修复都要新建
+     */
+    public ElementVisitor newFixVisitor() {
+        return new PlanVisitor(true);
+    }
+
+    private static Rule[] toArray(List<Rule> rules) {
+        return rules == null ? NONE : rules.toArray(NONE);
+    }
+
+    /**
+     * 按元素类型分派规则的访问器
+     */
+    private class PlanVisitor implements ElementVisitor {
+        private final boolean fix;
+        private final boolean timing; // 创建时确定，遍历过程中不再读取开关
+        private boolean foundTitle = false;
+        private CellContext cell;
+
+        PlanVisitor(boolean fix) {
+            this.fix = fix;
+            this.timing = CheckerMetrics.get().isRuleTimingEnabled();
+        }
+
+        @Override
+        public void visitParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+            // 跳过空段落；第一个非空段落视为标题
+            if (tracksTitle && !paragraph.getText().isEmpty()) {
+                if (!foundTitle) {
+                    foundTitle = true;
+                    apply(titleRules, paragraph, results);
+                } else {
+                    apply(bodyRules, paragraph, results);
+                }
+            }
+            apply(paragraphRules, paragraph, results);
+        }
+
+        @Override
+        public void skipParagraph(ParagraphNode paragraph) {
+            if (!paragraph.getText().isEmpty()) {
+                foundTitle = true;
+            }
+        }
+
+        private void apply(Rule[] group, ParagraphNode paragraph, List<CheckResult> results) {
+            for (Rule rule : group) {
+                long start = timing ? System.nanoTime() : 0L;
+                if (rule.appliesTo(paragraph)) {
+                    if (fix) {
+                        rule.fixParagraph(paragraph, results);
+                    } else {
+                        rule.checkParagraph(paragraph, results);
+                    }
+                }
+                if (timing) {
+                    CheckerMetrics.get().ruleHistogram(rule.getId(), fix).recordSince(start);
+                }
+            }
+        }
+
+        @Override
+        public void visitCellParagraph(TableNode table, int rowIndex, int cellIndex,
+                                       ParagraphNode paragraph, List<CheckResult> results) {
+            if (cellRules.length == 0) {
+                return;
+            }
+            if (cell == null || !cell.isSameCell(table, rowIndex, cellIndex)) {
+                cell = new CellContext(table, rowIndex, cellIndex);
+            }
+            for (Rule rule : cellRules) {
+                long start = timing ? System.nanoTime() : 0L;
+                if (rule.appliesTo(paragraph)) {
+                    if (fix) {
+                        rule.fixCellParagraph(cell, paragraph, results);
+                    } else {
+                        rule.checkCellParagraph(cell, paragraph, results);
+                    }
+                }
+                if (timing) {
+                    CheckerMetrics.get().ruleHistogram(rule.getId(), fix).recordSince(start);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.papercheck.rule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 规则配置
+ * <p>
+ * 不同学校对论文格式的要求不同，规则配置以UTF-8编码的 .properties 文件描述一套格式要求，
+ * 内置配置位于类路径的 /profiles 目录下，也可以从任意文件加载。未写出的键使用默认值（本科毕业论文的要求）。
+ * 加载时校验全部取值，之后只读。
+ */
+public final class RuleProfile {
+    private static final String[] BUNDLED = {"default", "graduate"};
+
+    private final String name;
+    private final Set<String> enabledRules; // 为null表示全部启用
+    private final int titleFontSize;
+    private final String titleFontFamily;
+    private final boolean titleBold;
+    private final int bodyFontSize;
+    private final int bodyFontSizeTolerance;
+    private final String bodyFontFamily;
+    private final int firstLineIndentChars;
+    private final double lineSpacing;
+    private final double marginTop;
+    private final double marginBottom;
+    private final double marginLeft;
+    private final double marginRight;
+    private final String fingerprint;
+
+    private RuleProfile(Properties properties, String source) {
+        this.name = properties.getProperty("name", source);
+        String rules = properties.getProperty("rules");
+        this.enabledRules = rules == null || rules.isBlank() ? null : parseList(rules);
+        this.titleFontSize = intValue(properties, "title.font-size", 16, source);
+        this.titleFontFamily = properties.getProperty("title.font-family", "黑体");
+        this.titleBold = Boolean.parseBoolean(properties.getProperty("title.bold", "true"));
+        this.bodyFontSize = intValue(properties, "body.font-size", 12, source);
+        this.bodyFontSizeTolerance = intValue(properties, "body.font-size-tolerance", 2, source);
+        this.bodyFontFamily = properties.getProperty("body.font-family", "宋体");
+        this.firstLineIndentChars = intValue(properties, "body.first-line-indent", 2, source);
+        this.lineSpacing = doubleValue(properties, "body.line-spacing", 1.5, source);
+        this.marginTop = doubleValue(properties, "page.margin-top", 2.5, source);
+        this.marginBottom = doubleValue(properties, "page.margin-bottom", 2.5, source);
+        this.marginLeft = doubleValue(properties, "page.margin-left", 3.0, source);
+        this.marginRight = doubleValue(properties, "page.margin-right", 3.0, source);
+
+        // 按键排序后拼接，作为配置内容的指纹
+        this.fingerprint = new TreeMap<>(properties).toString();
+    }
+
+    /**
+     * @return 默认规则配置（本科毕业论文）
+     */
+    public static RuleProfile defaults() {
+        return bundled().get(0);
+    }
+
+    /**
+     * @return 全部内置规则配置，第一个为默认配置
+     */
+    public static List<RuleProfile> bundled() {
+        List<RuleProfile> profiles = new ArrayList<>(BUNDLED.length);
+        for (String id : BUNDLED) {
+            String resource = "/profiles/" + id + ".properties";
+            try (InputStream in = RuleProfile.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("找不到内置规则配置: " + resource);
+                }
+                profiles.add(read(new InputStreamReader(in, StandardCharsets.UTF_8), id));
+            } catch (IOException e) {
+                throw new IllegalStateException("读取内置规则配置失败: " + resource, e);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * 从文件加载规则配置
+     *
+     * @param file UTF-8编码的 .properties 文件
+     * @throws IOException 如果文件读取失败
+     * @throws IllegalArgumentException 如果配置中的取值无效
+     */
+    public static RuleProfile load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader, file.getFileName().toString());
+        }
+    }
+
+    private static RuleProfile read(Reader reader, String source) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        return new RuleProfile(properties, source);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 规则是否启用；配置中未列出 rules 时全部启用
+     */
+    public boolean isEnabled(String ruleId) {
+        return enabledRules == null || enabledRules.contains(ruleId);
+    }
+
+    /**
+     * @return 配置中列出的规则编号；未列出时为空集合，表示全部启用
+     */
+    public Set<String> getEnabledRules() {
+        return enabledRules == null ? Collections.emptySet() : enabledRules;
+    }
+
+    public int getTitleFontSize() {
+        return titleFontSize;
+    }
+
+    public String getTitleFontFamily() {
+        return titleFontFamily;
+    }
+
+    public boolean isTitleBold() {
+        return titleBold;
+    }
+
+    public int getBodyFontSize() {
+        return bodyFontSize;
+    }
+
+    /**
+     * @return 正文字号允许超出的磅数，超出后才报告字号过大
+     */
+    public int getBodyFontSizeTolerance() {
+        return bodyFontSizeTolerance;
+    }
+
+    public String getBodyFontFamily() {
+        return bodyFontFamily;
+    }
+
+    /**
+     * @return 首行缩进字符数
+     */
+    public int getFirstLineIndentChars() {
+        return firstLineIndentChars;
+    }
+
+    /**
+     * @return 行距倍数
+     */
+    public double getLineSpacing() {
+        return lineSpacing;
+    }
+
+    /**
+     * @return 上边距（厘米）
+     */
+    public double getMarginTop() {
+        return marginTop;
+    }
+
+    public double getMarginBottom() {
+        return marginBottom;
+    }
+
+    public double getMarginLeft() {
+        return marginLeft;
+    }
+
+    public double getMarginRight() {
+        return marginRight;
+    }
+
+    /**
+     * @return 配置内容的指纹，内容相同的配置指纹相同
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static Set<String> parseList(String value) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : Arrays.asList(value.split(","))) {
+            if (!id.isBlank()) {
+                ids.add(id.trim());
+            }
+        }
+        return Collections.unmodifiableSet(ids);
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue, String source) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("规则配置 " + source + " 中 " + key + " 的值无效: " + value);
+        }
+    }
+
+    private static double doubleValue(Properties properties, String key, double defaultValue, String source) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("规则配置 " + source + " 中 " + key + " 的值无效: " + value);
+        }
+    }
+}
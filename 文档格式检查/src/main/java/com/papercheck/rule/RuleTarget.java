@@ -0,0 +1,17 @@
+package com.papercheck.rule;
+
+/**
+ * 规则作用的元素类型，执行计划按类型分派规则
+ */
+public enum RuleTarget {
+    /** 文档属性（页边距、页码等），每个文档一次 */
+    DOCUMENT,
+    /** 标题：第一个非空正文段落 */
+    TITLE,
+    /** 正文：标题之后的非空正文段落 */
+    BODY,
+    /** 所有正文段落（含空段落），在标题/正文规则之后执行 */
+    PARAGRAPH,
+    /** 表格单元格中的段落 */
+    TABLE_CELL
+}
@@ -0,0 +1,474 @@
+package com.papercheck.server;
+
+import com.papercheck.export.Json;
+import com.papercheck.metrics.CheckerMetrics;
+import com.papercheck.metrics.LatencySnapshot;
+import com.papercheck.model.CheckResult;
+import com.papercheck.rule.RuleProfile;
+import com.papercheck.service.CheckResultCache;
+import com.papercheck.service.PaperFormatChecker;
+import com.papercheck.service.ResultAggregator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地HTTP检查服务
+ * <p>
+ * 基于JDK自带的 {@link HttpServer}，不引入额外依赖。请求体直接为 .docx 文件内容：
+ * <ul>
+ *     <li>{@code POST /check[?name=文件名][&streaming=true][&aggregate=true]}：返回检查结果JSON；
+ *     aggregate 时合并重复和连续段落上的相同问题，每条结果带 count</li>
+ *     <li>{@code POST /fix[?name=文件名]}：返回修复后的文档，修复数量见响应头 {@code X-Fixed-Count}</li>
+ *     <li>{@code GET /health}：服务状态</li>
+ *     <li>{@code GET /metrics}：服务计数与 {@link CheckerMetrics} 中的检查指标</li>
+ * </ul>
+ * 每个请求在独立的虚拟线程中处理（JDK 21以下退回普通线程）。同时解析的文档数不超过 maxConcurrent，
+ * 其余请求排队等待；排队数超过 queueSize 时立即返回429，由调用方稍后重试，避免请求堆积耗尽内存。
+ * <p>
+ * 命令行用法：
+ * {@code java -cp word-paper-checker-jar-with-dependencies.jar com.papercheck.server.CheckServer
+ * [--host 地址] [--port 端口] [--max-concurrent N] [--queue N] [--max-upload MB] [--cache 缓存目录] [--profile 规则配置]}
+ */
+public class CheckServer {
+    private static final Logger logger = LoggerFactory.getLogger(CheckServer.class);
+
+    private static final String DOCX_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    private static final String JSON_TYPE = "application/json; charset=UTF-8";
+
+    private final PaperFormatChecker checker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+    private final int queueSize;
+    private final long maxUploadBytes;
+    private final Semaphore permits;
+    private final AtomicInteger pending = new AtomicInteger(); // 已接受、尚未完成的请求（处理中与排队中）
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * @param checker        检查器，所有请求共享
+     * @param address        监听地址
+     * @param maxConcurrent  同时解析的文档数上限
+     * @param queueSize      排队请求数上限，超过后返回429
+     * @param maxUploadBytes 上传文档的大小上限，超过后返回413
+     * @throws IOException 如果无法监听端口
+     */
+    public CheckServer(PaperFormatChecker checker, InetSocketAddress address, int maxConcurrent, int queueSize,
+                       long maxUploadBytes) throws IOException {
+        if (maxConcurrent < 1 || queueSize < 0) {
+            throw new IllegalArgumentException("并发数必须大于0，队列长度不能为负数");
+        }
+        this.checker = checker;
+        this.maxConcurrent = maxConcurrent;
+        this.queueSize = queueSize;
+        this.maxUploadBytes = maxUploadBytes;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.executor = newRequestExecutor();
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/check", exchange -> handle(exchange, "POST", this::check));
+        server.createContext("/fix", exchange -> handle(exchange, "POST", this::fix));
+        server.createContext("/health", exchange -> handle(exchange, "GET", this::health));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", this::metrics));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = 8080;
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        int queueSize = -1;
+        long maxUploadMb = 50;
+        Path cacheDirectory = null;
+        Path profileFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-concurrent":
+                    maxConcurrent = Integer.parseInt(args[++i]);
+                    break;
+                case "--queue":
+                    queueSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-upload":
+                    maxUploadMb = Long.parseLong(args[++i]);
+                    break;
+                case "--cache":
+                    cacheDirectory = Path.of(args[++i]);
+                    break;
+                case "--profile":
+                    profileFile = Path.of(args[++i]);
+                    break;
+                default:
+                    System.out.println("未知参数: " + args[i]);
+                    System.out.println("用法: CheckServer [--host 地址] [--port 端口] [--max-concurrent N] [--queue N] "
+                            + "[--max-upload MB] [--cache 缓存目录] [--profile 规则配置]");
+                    System.exit(2);
+            }
+        }
+        RuleProfile profile = profileFile == null ? RuleProfile.defaults() : RuleProfile.load(profileFile);
+        CheckResultCache cache = cacheDirectory == null ? null : new CheckResultCache(cacheDirectory);
+        CheckServer server = new CheckServer(new PaperFormatChecker(profile, cache), new InetSocketAddress(host, port),
+                maxConcurrent, queueSize < 0 ? maxConcurrent * 2 : queueSize, maxUploadMb * 1024 * 1024);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1), "check-server-shutdown"));
+        server.start();
+    }
+
+    public void start() {
+        server.start();
+        logger.info("检查服务已启动: http://{}:{}，并发上限 {}，排队上限 {}",
+                server.getAddress().getHostString(), server.getAddress().getPort(), maxConcurrent, queueSize);
+    }
+
+    /**
+     * 停止服务
+     *
+     * @param delaySeconds 等待进行中的请求完成的最长秒数
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        logger.info("检查服务已停止");
+    }
+
+    /**
+     * @return 实际监听的地址（端口为0时由系统分配）
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * 每个请求一个虚拟线程；运行在JDK 21以下时退回按需创建的普通守护线程
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.info("当前JDK不支持虚拟线程，使用普通线程处理请求");
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "check-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    // ---------------------------------------------------------------- 请求处理
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    /**
+     * 上传的文档无法处理（不是有效的 .docx 等），返回422
+     */
+    private static class UnprocessableException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        UnprocessableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) {
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendError(exchange, 405, "只支持 " + method + " 请求");
+                return;
+            }
+            handler.handle(exchange);
+        } catch (UnprocessableException e) {
+            failed.increment();
+            sendErrorQuietly(exchange, 422, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendErrorQuietly(exchange, 503, "服务正在停止");
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            logger.error("处理请求失败: {}", exchange.getRequestURI(), e);
+            sendErrorQuietly(exchange, 500, "处理请求失败: " + e.getMessage());
+        } finally {
+            // 在发送错误响应之后再关闭
+            exchange.close();
+        }
+    }
+
+    private void check(HttpExchange exchange) throws IOException, InterruptedException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        boolean streaming = Boolean.parseBoolean(query.get("streaming"));
+        boolean aggregate = Boolean.parseBoolean(query.get("aggregate"));
+        processUpload(exchange, query, upload -> {
+            List<CheckResult> results;
+            try {
+                results = streaming ? checker.checkDocumentStreaming(upload) : checker.checkDocument(upload);
+            } catch (IOException e) {
+                throw new UnprocessableException(e.getMessage(), e);
+            }
+            StringBuilder json = new StringBuilder(128 + results.size() * 160);
+            json.append('{');
+            Json.name(json, "file");
+            Json.quote(json, query.getOrDefault("name", "upload.docx")).append(',');
+            Json.name(json, "issueCount").append(results.size()).append(',');
+            if (aggregate) {
+                results = ResultAggregator.aggregate(results);
+            }
+            Json.name(json, "results").append('[');
+            for (int i = 0; i < results.size(); i++) {
+                CheckResult result = results.get(i);
+                json.append(i == 0 ? "{" : ",{");
+                Json.name(json, "issueType");
+                Json.quote(json, result.getIssueType()).append(',');
+                Json.name(json, "location");
+                Json.quote(json, result.getLocation()).append(',');
+                Json.name(json, "description");
+                Json.quote(json, result.getDescription()).append(',');
+                Json.name(json, "suggestion");
+                Json.quote(json, result.getSuggestion()).append(',');
+                Json.name(json, "count").append(result.getCount()).append('}');
+            }
+            json.append("]}");
+            sendJson(exchange, 200, json);
+        });
+    }
+
+    private void fix(HttpExchange exchange) throws IOException, InterruptedException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        processUpload(exchange, query, upload -> {
+            Path fixed = Files.createTempFile("paper-fixed-", ".docx");
+            try {
+                List<CheckResult> fixedResults;
+                try {
+                    fixedResults = checker.fixDocument(upload, fixed.toFile());
+                } catch (IOException e) {
+                    throw new UnprocessableException(e.getMessage(), e);
+                }
+                exchange.getResponseHeaders().set("Content-Type", DOCX_TYPE);
+                exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"fixed.docx\"");
+                exchange.getResponseHeaders().set("X-Fixed-Count", String.valueOf(fixedResults.size()));
+                exchange.sendResponseHeaders(200, Files.size(fixed));
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(fixed, out);
+                }
+            } finally {
+                Files.deleteIfExists(fixed);
+            }
+        });
+    }
+
+    private interface UploadHandler {
+        void handle(File upload) throws IOException;
+    }
+
+    /**
+     * 准入控制并保存上传的文档，取得解析许可后交给处理器
+     */
+    private void processUpload(HttpExchange exchange, Map<String, String> query, UploadHandler handler)
+            throws IOException, InterruptedException {
+        if (pending.incrementAndGet() > maxConcurrent + queueSize) {
+            pending.decrementAndGet();
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 429, "服务繁忙，请稍后重试");
+            return;
+        }
+        Path upload = null;
+        try {
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (length != null && Long.parseLong(length) > maxUploadBytes) {
+                sendError(exchange, 413, "文档超过大小上限 " + maxUploadBytes + " 字节");
+                return;
+            }
+            upload = Files.createTempFile("paper-upload-", ".docx");
+            if (!saveUpload(exchange.getRequestBody(), upload)) {
+                sendError(exchange, 413, "文档超过大小上限 " + maxUploadBytes + " 字节");
+                return;
+            }
+            if (Files.size(upload) == 0) {
+                sendError(exchange, 400, "请求体为空，应为 .docx 文件内容");
+                return;
+            }
+
+            // 上传在取得许可之前完成，慢速上传不会占用解析名额
+            permits.acquire();
+            active.incrementAndGet();
+            try {
+                logger.info("处理请求: {} {}", exchange.getRequestURI().getPath(), query.getOrDefault("name", "(未命名)"));
+                handler.handle(upload.toFile());
+                completed.increment();
+            } finally {
+                active.decrementAndGet();
+                permits.release();
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Content-Length 无效");
+        } finally {
+            pending.decrementAndGet();
+            if (upload != null) {
+                Files.deleteIfExists(upload);
+            }
+        }
+    }
+
+    /**
+     * @return 文档大小未超过上限时为true
+     */
+    private boolean saveUpload(InputStream body, Path target) throws IOException {
+        try (InputStream in = body; OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    return false;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        Json.name(json, "status");
+        Json.quote(json, "UP").append(',');
+        appendServerStats(json);
+        json.append('}');
+        sendJson(exchange, 200, json);
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        CheckerMetrics metrics = CheckerMetrics.get();
+        StringBuilder json = new StringBuilder("{");
+        appendServerStats(json);
+        json.append(',');
+        Json.name(json, "paragraphsVisited").append(metrics.getParagraphsVisited()).append(',');
+        Json.name(json, "runsVisited").append(metrics.getRunsVisited()).append(',');
+        Json.name(json, "tablesVisited").append(metrics.getTablesVisited()).append(',');
+        Json.name(json, "cacheHits").append(metrics.getCacheHits()).append(',');
+        Json.name(json, "issuesByType").append('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : metrics.getIssuesByType().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            Json.name(json, entry.getKey()).append(entry.getValue());
+        }
+        json.append("},");
+        Json.name(json, "phases");
+        appendLatencies(json, metrics.getPhaseLatencies());
+        json.append(',');
+        Json.name(json, "rules");
+        appendLatencies(json, metrics.getRuleLatencies());
+        json.append('}');
+        sendJson(exchange, 200, json);
+    }
+
+    private void appendServerStats(StringBuilder json) {
+        Json.name(json, "active").append(active.get()).append(',');
+        Json.name(json, "queued").append(Math.max(0, pending.get() - active.get())).append(',');
+        Json.name(json, "maxConcurrent").append(maxConcurrent).append(',');
+        Json.name(json, "queueSize").append(queueSize).append(',');
+        Json.name(json, "completed").append(completed.sum()).append(',');
+        Json.name(json, "rejected").append(rejected.sum()).append(',');
+        Json.name(json, "failed").append(failed.sum());
+    }
+
+    private static void appendLatencies(StringBuilder json, Map<String, LatencySnapshot> latencies) {
+        json.append('{');
+        boolean first = true;
+        for (Map.Entry<String, LatencySnapshot> entry : latencies.entrySet()) {
+            LatencySnapshot snapshot = entry.getValue();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            Json.name(json, entry.getKey()).append('{');
+            Json.name(json, "count").append(snapshot.getCount()).append(',');
+            Json.name(json, "totalMillis").append(snapshot.getTotalMillis()).append(',');
+            Json.name(json, "p50Millis").append(snapshot.getP50Millis()).append(',');
+            Json.name(json, "p99Millis").append(snapshot.getP99Millis()).append(',');
+            Json.name(json, "maxMillis").append(snapshot.getMaxMillis()).append('}');
+        }
+        json.append('}');
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> query = new HashMap<>();
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        Json.name(json, "error");
+        Json.quote(json, message).append('}');
+        sendJson(exchange, status, json);
+    }
+
+    private static void sendErrorQuietly(HttpExchange exchange, int status, String message) {
+        try {
+            sendError(exchange, status, message);
+        } catch (IOException | RuntimeException e) {
+            // 响应头可能已经发出，或连接已断开
+            logger.debug("无法发送错误响应: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+
+import java.util.List;
+
+/**
+ * 检查/修复进度监听器
+ * <p>
+ * 由后台任务实现，用于接收已处理的元素数量、分批推送的检查结果，并支持取消。
+ * 回调在执行检查的线程上调用，实现方需自行切换到界面线程。
+ */
+public interface CheckProgressListener {
+
+    /**
+     * 不关心进度时使用的空监听器
+     */
+    CheckProgressListener NONE = new CheckProgressListener() {
+    };
+
+    /**
+     * 进度更新
+     *
+     * @param processed 已处理的元素数量
+     * @param total     元素总数，事先无法得知时（如流式检查）为-1
+     */
+    default void onProgress(int processed, int total) {
+    }
+
+    /**
+     * 一批新产生的检查结果
+     *
+     * @param batch 本批结果（调用方持有副本，可直接保存）
+     */
+    default void onResults(List<CheckResult> batch) {
+    }
+
+    /**
+     * 大文档并行检查时也会在检查线程池的线程上调用，实现需线程安全
+     *
+     * @return 是否已请求取消
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
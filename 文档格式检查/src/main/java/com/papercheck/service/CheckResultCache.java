@@ -0,0 +1,355 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 检查结果的磁盘缓存
+ * <p>
+ * 以文档内容的SHA-256加上检查规则版本作为键，每个条目保存为缓存目录下的一个二进制文件。
+ * 同一文档再次检查时直接读取缓存结果，无需解析文档。条目数和总大小超出上限时按最近最少使用的顺序淘汰，
+ * 最近使用时间记录在文件的修改时间上，重启后仍然有效。
+ * <p>
+ * 本类线程安全；多个进程共用同一缓存目录时只保证不会读到写了一半的条目。
+ */
+public class CheckResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(CheckResultCache.class);
+
+    private static final int MAGIC = 0x50434333; // "PCC3"，旧格式的条目读取时当作未命中
+    private static final String SUFFIX = ".bin";
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024; // 64MB
+
+    private final Path directory;
+    private final int maxEntries;
+    private final long maxBytes;
+    // 键 -> 条目文件大小，按访问顺序排列，最前面的最久未使用
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 使用默认上限（1000个条目、64MB）打开缓存目录
+     */
+    public CheckResultCache(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param directory  缓存目录，不存在时自动创建
+     * @param maxEntries 最多保留的条目数
+     * @param maxBytes   条目文件的总大小上限
+     */
+    public CheckResultCache(Path directory, int maxEntries, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        loadIndex();
+    }
+
+    /**
+     * @return 用户目录下的默认缓存目录 ~/.paper-checker/cache
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".paper-checker", "cache");
+    }
+
+    /**
+     * 计算缓存键：文档内容的SHA-256 + 规则版本
+     *
+     * @param file        Word文档文件
+     * @param ruleVersion 检查规则版本，规则变化后旧条目自然失效
+     */
+    public String keyFor(File file, String ruleVersion) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update(ruleVersion.getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 读取缓存的检查结果
+     *
+     * @return 检查结果，未命中时为null
+     */
+    public List<CheckResult> get(String key) {
+        synchronized (this) {
+            // get 同时刷新访问顺序
+            if (index.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        Path entry = entryPath(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            List<CheckResult> results = readEntry(in);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return results;
+        } catch (IOException e) {
+            // 条目损坏或已被其他进程删除，当作未命中
+            logger.warn("读取缓存条目失败: {}", entry, e);
+            remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * 保存检查结果，必要时淘汰最久未使用的条目
+     */
+    public void put(String key, List<CheckResult> results) {
+        Path entry = entryPath(key);
+        try {
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeEntry(out, results);
+            }
+            // 先写临时文件再原子替换，避免其他读者读到不完整的条目
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(entry);
+            synchronized (this) {
+                Long old = index.put(key, size);
+                totalBytes += size - (old == null ? 0 : old);
+                evict();
+            }
+        } catch (IOException e) {
+            // 缓存只是加速手段，写入失败不影响检查结果
+            logger.warn("写入缓存条目失败: {}", entry, e);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        for (String key : new ArrayList<>(index.keySet())) {
+            remove(key);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return 命中率（0~1），尚未查询过时为0
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("缓存命中 %d 次，未命中 %d 次，命中率 %.1f%%，条目 %d 个，共 %.1f KB",
+                getHits(), getMisses(), getHitRate() * 100, index.size(), totalBytes / 1024.0);
+    }
+
+    /**
+     * 扫描缓存目录，按文件修改时间重建访问顺序
+     */
+    private void loadIndex() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> paths = Files.list(directory)) {
+            entries = paths.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .collect(Collectors.toList());
+        }
+        Map<Path, Long> modified = new LinkedHashMap<>();
+        for (Path path : entries) {
+            modified.put(path, Files.getLastModifiedTime(path).toMillis());
+        }
+        entries.sort(Comparator.comparing(modified::get));
+        synchronized (this) {
+            for (Path path : entries) {
+                String name = path.getFileName().toString();
+                long size = Files.size(path);
+                index.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                totalBytes += size;
+            }
+            evict();
+        }
+        logger.info("检查结果缓存: {}，已有 {} 个条目", directory, index.size());
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while ((index.size() > maxEntries || totalBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(entryPath(eldest.getKey()));
+            logger.debug("淘汰缓存条目: {}", eldest.getKey());
+        }
+    }
+
+    private synchronized void remove(String key) {
+        Long size = index.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteQuietly(entryPath(key));
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除缓存条目失败: {}", path, e);
+        }
+    }
+
+    /**
+     * 条目格式：魔数、结果数，随后每条结果依次为问题类型、位置、描述、建议（可为null的字符串）、合并的问题数；
+     * 位置为元素类型序号、序号、行号、范围的最后一个序号或行号，无法识别的位置（{@link Location.Kind#TEXT}）再跟一个字符串
+     */
+    private static void writeEntry(DataOutputStream out, List<CheckResult> results) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(results.size());
+        for (CheckResult result : results) {
+            writeString(out, result.getIssueType());
+            writeLocation(out, result.getPosition());
+            writeString(out, result.getDescription());
+            writeString(out, result.getSuggestion());
+            out.writeInt(result.getCount());
+        }
+    }
+
+    private static List<CheckResult> readEntry(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("缓存条目格式不正确");
+        }
+        int count = in.readInt();
+        List<CheckResult> results = new ArrayList<>(count);
+        // 同一条目中的描述和建议大量重复，读出后合并为同一个字符串
+        Map<String, String> strings = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            CheckResult result = new CheckResult();
+            result.setIssueType(readString(in));
+            result.setPosition(readLocation(in));
+            result.setDescription(dedupe(strings, readString(in)));
+            result.setSuggestion(dedupe(strings, readString(in)));
+            result.setCount(in.readInt());
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void writeLocation(DataOutputStream out, Location location) throws IOException {
+        out.writeBoolean(location != null);
+        if (location != null) {
+            out.writeByte(location.getKind().ordinal());
+            out.writeInt(location.getIndex());
+            out.writeInt(location.getRow());
+            out.writeInt(location.getEnd());
+            if (location.getKind() == Location.Kind.TEXT) {
+                out.writeUTF(location.toString());
+            }
+        }
+    }
+
+    private static Location readLocation(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int kind = in.readUnsignedByte();
+        int index = in.readInt();
+        int row = in.readInt();
+        int end = in.readInt();
+        switch (kind < Location.Kind.values().length ? Location.Kind.values()[kind] : Location.Kind.TEXT) {
+            case DOCUMENT:
+                return Location.DOCUMENT;
+            case PARAGRAPH:
+                return Location.paragraphs(index, end);
+            case TABLE:
+                return Location.table(index);
+            case TABLE_ROW:
+                return Location.tableRows(index, row, end);
+            default:
+                return Location.parse(in.readUTF());
+        }
+    }
+
+    private static String dedupe(Map<String, String> strings, String value) {
+        return value == null ? null : strings.computeIfAbsent(value, v -> v);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JRE不支持SHA-256", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * 基于列式存储的检查
+ * <p>
+ * 先在调用线程上按文档顺序把正文读入 {@link DocumentColumns}，之后的规则检查只读列数据，由游标逐行交给访问器，
+ * 检查过程中不再访问POI对象，也不为段落和文本块创建对象。
+ * <p>
+ * POI对象不能多个线程同时读取，列数据则可以共享：正文元素达到 {@link #PARALLEL_THRESHOLD} 个且有多个处理器时，
+ * 按连续的元素分块交给公共 {@link ForkJoinPool} 并行检查，各块的结果按块的顺序拼接，与逐个检查的结果及顺序相同。
+ * 调用线程按顺序等待各块完成，每完成一块就追加其结果并汇报进度，界面上的结果和进度仍随检查逐步更新；
+ * 各块在每个元素之前检查是否已取消。
+ * 访问器保存遍历状态，每块使用新的访问器：块之前已出现标题时先对标题调用 {@link ElementVisitor#skipParagraph}，
+ * 表格不会被拆到两个块中。
+ * <p>
+ * 给出指纹索引时，读取列数据的同时计算正文段落的指纹，检查完成后按文档顺序把每个段落的指纹和结果记录到索引中，
+ * 因此没有上次结果的首次检查也走这里，之后的增量检查再由 {@link DocumentWalker} 复用。
+ */
+final class ColumnarDocumentChecker {
+    /**
+     * 并行检查的最少正文元素数，元素更少时分块的开销得不偿失
+     */
+    static final int PARALLEL_THRESHOLD = 2000;
+
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private ColumnarDocumentChecker() {
+    }
+
+    /**
+     * 检查文档正文
+     *
+     * @param document 文档，只在调用线程上读取
+     * @param visitors 创建检查访问器，每块调用一次，创建的访问器只在一个线程上使用
+     * @param counter  统计访问的元素数，在读取列数据时调用
+     * @param results  结果列表，按文档顺序追加
+     * @param progress 进度汇报器，检查每个正文元素时汇报进度，只在调用线程上汇报
+     * @param current  用于记录本次检查的段落指纹，为null时不记录
+     */
+    static void check(XWPFDocument document, Supplier<ElementVisitor> visitors, CountingVisitor counter,
+                      List<CheckResult> results, ProgressReporter progress, ParagraphFingerprintIndex current) {
+        DocumentColumns columns = DocumentColumns.build(document, counter, progress, current != null);
+        int elements = columns.getElementCount();
+        int title = findTitle(columns);
+        int bodyStart = results.size();
+        // 每个正文元素产生的结果数，记录指纹时用于划分结果
+        int[] produced = current == null ? null : new int[elements];
+
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (elements < PARALLEL_THRESHOLD || parallelism <= 1) {
+            checkChunk(columns, visitors.get(), 0, elements, title, results, produced, progress::step);
+        } else {
+            checkParallel(columns, visitors, elements, title, parallelism, results, produced, progress);
+        }
+        if (current != null) {
+            record(columns, results, bodyStart, produced, current);
+        }
+    }
+
+    /**
+     * 分块并行检查，各块完成后按块的顺序追加到结果列表并汇报进度
+     */
+    private static void checkParallel(DocumentColumns columns, Supplier<ElementVisitor> visitors, int elements,
+                                      int title, int parallelism, List<CheckResult> results, int[] produced,
+                                      ProgressReporter progress) {
+        // 每个线程分到几块，块的耗时不均时也能保持各线程忙碌
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (elements + parallelism * 4 - 1) / (parallelism * 4));
+        int chunks = (elements + chunkSize - 1) / chunkSize;
+        List<ForkJoinTask<List<CheckResult>>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int start = chunk * chunkSize;
+            int end = Math.min(start + chunkSize, elements);
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                List<CheckResult> chunkResult = new ArrayList<>();
+                checkChunk(columns, visitors.get(), start, end, title, chunkResult, produced,
+                        progress::checkCancelled);
+                return chunkResult;
+            }));
+        }
+        try {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                results.addAll(tasks.get(chunk).join());
+                progress.advance(Math.min(chunkSize, elements - chunk * chunkSize));
+            }
+        } finally {
+            // 取消或出错时不再启动尚未开始的块
+            for (ForkJoinTask<List<CheckResult>> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 检查 [start, end) 范围内的正文元素
+     *
+     * @param title    标题段落所在的行，没有时为-1
+     * @param produced 为null时不统计；否则写入本块各元素产生的结果数，各块写入的范围互不重叠
+     * @param before   检查每个元素之前调用，汇报进度或检查是否已取消
+     */
+    private static void checkChunk(DocumentColumns columns, ElementVisitor visitor, int start, int end, int title,
+                                   List<CheckResult> results, int[] produced, Runnable before) {
+        DocumentColumns.Cursor cursor = columns.newCursor();
+        if (title >= 0 && title < columns.getElementStart(start)) {
+            visitor.skipParagraph(cursor.moveTo(title));
+        }
+        for (int element = start; element < end; element++) {
+            before.run();
+            int count = results.size();
+            int first = columns.getElementStart(element);
+            TableNode table = columns.getTable(element);
+            if (table == null) {
+                visitor.visitParagraph(cursor.moveTo(first), results);
+            } else {
+                visitor.visitTable(table, results);
+                for (int row = first, last = columns.getElementEnd(element); row < last; row++) {
+                    visitor.visitCellParagraph(table, columns.getCellRow(row), columns.getCellColumn(row),
+                            cursor.moveTo(row), results);
+                }
+            }
+            if (produced != null) {
+                produced[element] = results.size() - count;
+            }
+        }
+    }
+
+    /**
+     * 按文档顺序把正文段落的指纹及其结果记录到索引中，与 {@link DocumentWalker} 的增量遍历记录的内容相同
+     *
+     * @param bodyStart 正文的第一条结果在结果列表中的位置
+     */
+    private static void record(DocumentColumns columns, List<CheckResult> results, int bodyStart, int[] produced,
+                               ParagraphFingerprintIndex current) {
+        DocumentColumns.Cursor cursor = columns.newCursor();
+        int offset = bodyStart;
+        for (int element = 0; element < columns.getElementCount(); element++) {
+            int end = offset + produced[element];
+            if (!columns.isTable(element)) {
+                int row = columns.getElementStart(element);
+                current.record(columns.getFingerprint(row), cursor.moveTo(row), results.subList(offset, end), false);
+            }
+            offset = end;
+        }
+    }
+
+    /**
+     * @return 第一个非空正文段落所在的行，没有时为-1
+     */
+    private static int findTitle(DocumentColumns columns) {
+        DocumentColumns.Cursor cursor = columns.newCursor();
+        for (int element = 0; element < columns.getElementCount(); element++) {
+            if (!columns.isTable(element)
+                    && !cursor.moveTo(columns.getElementStart(element)).getText().isEmpty()) {
+                return columns.getElementStart(element);
+            }
+        }
+        return -1;
+    }
+}
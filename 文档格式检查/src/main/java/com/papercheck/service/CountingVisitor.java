@@ -0,0 +1,58 @@
+package com.papercheck.service;
+
+import com.papercheck.metrics.CheckerMetrics;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+
+import java.util.List;
+
+/**
+ * 统计一次遍历访问的元素数，遍历结束后调用 {@link #publish()} 一次性累加到 {@link CheckerMetrics}
+ */
+class CountingVisitor implements ElementVisitor {
+    private long paragraphs;
+    private long runs;
+    private long tables;
+    private long cellParagraphs;
+
+    @Override
+    public void visitParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+        paragraphs++;
+        runs += countRuns(paragraph);
+    }
+
+    @Override
+    public void skipParagraph(ParagraphNode paragraph) {
+        paragraphs++;
+        runs += countRuns(paragraph);
+    }
+
+    @Override
+    public void visitTable(TableNode table, List<CheckResult> results) {
+        tables++;
+    }
+
+    @Override
+    public void visitCellParagraph(TableNode table, int rowIndex, int cellIndex,
+                                   ParagraphNode paragraph, List<CheckResult> results) {
+        cellParagraphs++;
+        runs += countRuns(paragraph);
+    }
+
+    /**
+     * @return 访问的正文段落数
+     */
+    int getParagraphs() {
+        return (int) paragraphs;
+    }
+
+    void publish() {
+        CheckerMetrics.get().recordVisited(paragraphs, runs, tables, cellParagraphs);
+    }
+
+    private static int countRuns(ParagraphNode paragraph) {
+        // 直接取POI的文本块列表，避免为规则未用到的段落构建 RunInfo
+        XWPFParagraph xwpf = paragraph.getParagraph();
+        return xwpf != null ? xwpf.getRuns().size() : paragraph.getRunCount();
+    }
+}
@@ -0,0 +1,369 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.Location;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式存储的文档正文，只用于检查
+ * <p>
+ * 从已加载的文档按顺序读取一次，之后不再访问POI对象。正文段落和单元格段落按文档顺序排成行，每个属性一列：
+ * 对齐方式、缩进/间距标志为字节数组，首行缩进、行距为已解析的整数（{@link ParagraphNode#NOT_SET} 等表示未设置），
+ * 文本块的字号、加粗同样按列存放，字体在整篇文档内去重为编号。检查时由 {@link Cursor} 逐行移动读取，
+ * 不为段落和文本块创建对象，读取的数据在内存中连续。
+ * <p>
+ * 需要时读取的同时计算正文段落的指纹（{@link ParagraphFingerprintIndex}），检查完成后记录到指纹索引中，供下一次增量检查使用。
+ * <p>
+ * 列数据复制自已加载的XWPF文档，不直接从文档包流式读取：走到这里的调用方（文档会话、界面、批量检查）本来就持有完整文档，
+ * 预览、修复以及指纹中的段落格式XML都需要它；不加载文档的检查另有 {@link StreamingDocumentReader}（批量检查的 --streaming）。
+ * 复制只按文档顺序读一遍POI对象，换来规则检查期间只读紧凑的列数据，并可以分块并行。
+ * <p>
+ * 建成后只读，可以在多个线程间共享；每个线程使用自己的 {@link Cursor}。
+ */
+final class DocumentColumns {
+    private static final ParagraphAlignment[] ALIGNMENTS = ParagraphAlignment.values();
+    private static final byte HAS_INDENT = 1;
+    private static final byte HAS_SPACING = 2;
+
+    // 段落列：正文段落与单元格段落按文档顺序
+    private int paragraphs;
+    private int[] paragraphIndex = new int[64]; // 正文段落序号，单元格段落为0
+    private String[] text = new String[64];
+    private byte[] alignment = new byte[64];
+    private byte[] flags = new byte[64];
+    private int[] firstLineIndent = new int[64];
+    private int[] spacingLine = new int[64];
+    private int[] cellRow = new int[64];
+    private int[] cellColumn = new int[64];
+    private int[] runStart = new int[65]; // 第i行的文本块为 [runStart[i], runStart[i + 1])
+    // 无法解析的首行缩进、行距的原始值，按行号存放，通常为空
+    private final Map<Integer, String> unparsableIndent = new HashMap<>();
+    private final Map<Integer, String> unparsableSpacing = new HashMap<>();
+    private String[] fingerprint; // 正文段落的指纹，单元格段落为null；不计算指纹时整列为null
+
+    // 文本块列
+    private int runs;
+    private int[] runFontSize = new int[256];
+    private int[] runFontId = new int[256]; // 未设置字体时为-1
+    private boolean[] runBold = new boolean[256];
+    private final List<String> fonts = new ArrayList<>();
+
+    // 正文元素：段落占一行；表格占其全部单元格段落，可能为0行
+    private int elements;
+    private int[] elementStart = new int[64];
+    private TableNode[] elementTable = new TableNode[64]; // 段落为null
+
+    private DocumentColumns() {
+    }
+
+    /**
+     * 按文档顺序读取正文，段落、表格序号与 {@link DocumentWalker} 相同
+     *
+     * @param counter      统计读取的元素数
+     * @param progress     进度汇报器，读取每个正文元素前检查是否已取消；进度在检查规则时汇报
+     * @param fingerprints 是否计算正文段落的指纹
+     */
+    static DocumentColumns build(XWPFDocument document, CountingVisitor counter, ProgressReporter progress,
+                                 boolean fingerprints) {
+        DocumentColumns columns = new DocumentColumns();
+        StyleResolver styles = StyleResolver.of(document);
+        String styleFingerprint = fingerprints ? styles.getFingerprint() : null;
+        if (fingerprints) {
+            columns.fingerprint = new String[columns.text.length];
+        }
+        Map<String, Integer> fontIds = new HashMap<>();
+        List<CheckResult> none = Collections.emptyList();
+        int paragraphIndex = 0;
+        int tableIndex = 0;
+        boolean leading = true; // 尚未遇到非空段落
+        for (IBodyElement element : document.getBodyElements()) {
+            progress.checkCancelled();
+            if (element instanceof XWPFParagraph) {
+                paragraphIndex++;
+                ParagraphNode node = new XWPFParagraphNode((XWPFParagraph) element, paragraphIndex, styles);
+                counter.visitParagraph(node, none);
+                columns.addElement(null);
+                columns.addParagraph(node, paragraphIndex, 0, 0, fontIds);
+                if (fingerprints) {
+                    columns.fingerprint[columns.paragraphs - 1] =
+                            ParagraphFingerprintIndex.fingerprint(node, leading, styleFingerprint);
+                    leading = leading && node.getText().isEmpty();
+                }
+            } else if (element instanceof XWPFTable) {
+                tableIndex++;
+                TableNode table = new TableNode(null, tableIndex);
+                counter.visitTable(table, none);
+                columns.addElement(table);
+                List<XWPFTableRow> rows = ((XWPFTable) element).getRows();
+                for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+                    List<XWPFTableCell> cells = rows.get(rowIndex).getTableCells();
+                    for (int cellIndex = 0; cellIndex < cells.size(); cellIndex++) {
+                        for (XWPFParagraph paragraph : cells.get(cellIndex).getParagraphs()) {
+                            ParagraphNode node = new XWPFParagraphNode(paragraph, 0, styles);
+                            counter.visitCellParagraph(table, rowIndex, cellIndex, node, none);
+                            columns.addParagraph(node, 0, rowIndex, cellIndex, fontIds);
+                        }
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+
+    private void addElement(TableNode table) {
+        if (elements == elementStart.length) {
+            elementStart = Arrays.copyOf(elementStart, elements * 2);
+            elementTable = Arrays.copyOf(elementTable, elements * 2);
+        }
+        elementStart[elements] = paragraphs;
+        elementTable[elements] = table;
+        elements++;
+    }
+
+    private void addParagraph(ParagraphNode node, int index, int row, int column, Map<String, Integer> fontIds) {
+        if (paragraphs == text.length) {
+            int capacity = paragraphs * 2;
+            paragraphIndex = Arrays.copyOf(paragraphIndex, capacity);
+            text = Arrays.copyOf(text, capacity);
+            alignment = Arrays.copyOf(alignment, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            firstLineIndent = Arrays.copyOf(firstLineIndent, capacity);
+            spacingLine = Arrays.copyOf(spacingLine, capacity);
+            cellRow = Arrays.copyOf(cellRow, capacity);
+            cellColumn = Arrays.copyOf(cellColumn, capacity);
+            runStart = Arrays.copyOf(runStart, capacity + 1);
+            if (fingerprint != null) {
+                fingerprint = Arrays.copyOf(fingerprint, capacity);
+            }
+        }
+        int i = paragraphs;
+        paragraphIndex[i] = index;
+        text[i] = node.getText();
+        alignment[i] = (byte) node.getAlignment().ordinal();
+        flags[i] = (byte) ((node.hasIndent() ? HAS_INDENT : 0) | (node.hasSpacing() ? HAS_SPACING : 0));
+        firstLineIndent[i] = node.getFirstLineIndentValue();
+        spacingLine[i] = node.getSpacingLineValue();
+        if (firstLineIndent[i] == ParagraphNode.UNPARSABLE) {
+            unparsableIndent.put(i, node.getFirstLineIndent());
+        }
+        if (spacingLine[i] == ParagraphNode.UNPARSABLE) {
+            unparsableSpacing.put(i, node.getSpacingLine());
+        }
+        cellRow[i] = row;
+        cellColumn[i] = column;
+
+        for (ParagraphNode.RunInfo run : node.getRuns()) {
+            if (runs == runFontSize.length) {
+                runFontSize = Arrays.copyOf(runFontSize, runs * 2);
+                runFontId = Arrays.copyOf(runFontId, runs * 2);
+                runBold = Arrays.copyOf(runBold, runs * 2);
+            }
+            runFontSize[runs] = run.getFontSize();
+            runFontId[runs] = fontId(run.getFontFamily(), fontIds);
+            runBold[runs] = run.isBold();
+            runs++;
+        }
+        paragraphs++;
+        runStart[paragraphs] = runs;
+    }
+
+    private int fontId(String family, Map<String, Integer> fontIds) {
+        if (family == null) {
+            return -1;
+        }
+        Integer id = fontIds.get(family);
+        if (id == null) {
+            id = fonts.size();
+            fonts.add(family);
+            fontIds.put(family, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return 正文元素数
+     */
+    int getElementCount() {
+        return elements;
+    }
+
+    /**
+     * @return 正文元素是否为表格
+     */
+    boolean isTable(int element) {
+        return elementTable[element] != null;
+    }
+
+    /**
+     * @return 表格元素的表格节点，段落元素为null
+     */
+    TableNode getTable(int element) {
+        return elementTable[element];
+    }
+
+    /**
+     * @return 正文元素的第一行；段落元素即其所在行
+     */
+    int getElementStart(int element) {
+        return elementStart[element];
+    }
+
+    /**
+     * @return 正文元素之后的第一行
+     */
+    int getElementEnd(int element) {
+        return element + 1 < elements ? elementStart[element + 1] : paragraphs;
+    }
+
+    /**
+     * @return 正文段落的指纹，未计算指纹或为单元格段落时为null
+     */
+    String getFingerprint(int row) {
+        return fingerprint == null ? null : fingerprint[row];
+    }
+
+    int getCellRow(int row) {
+        return cellRow[row];
+    }
+
+    int getCellColumn(int row) {
+        return cellColumn[row];
+    }
+
+    /**
+     * @return 新的游标，只能在一个线程中使用
+     */
+    Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * 读取某一行的段落节点，移动到其他行后即改为读取那一行
+     * <p>
+     * 访问器在回调返回后不应再持有该节点。{@link #getRuns()} 需要创建对象，检查规则应使用按序号读取的方法。
+     */
+    final class Cursor extends ParagraphNode {
+        private int row;
+        private int locationRow = -1;
+        private Location location;
+
+        private Cursor() {
+            super(0);
+        }
+
+        /**
+         * @return 本游标，便于直接传给访问器
+         */
+        Cursor moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public int getIndex() {
+            return paragraphIndex[row];
+        }
+
+        @Override
+        public Location getPosition() {
+            if (locationRow != row) {
+                location = Location.paragraph(paragraphIndex[row]);
+                locationRow = row;
+            }
+            return location;
+        }
+
+        @Override
+        public XWPFParagraph getParagraph() {
+            return null;
+        }
+
+        @Override
+        public String getText() {
+            return text[row];
+        }
+
+        @Override
+        public ParagraphAlignment getAlignment() {
+            return ALIGNMENTS[alignment[row]];
+        }
+
+        @Override
+        public boolean hasIndent() {
+            return (flags[row] & HAS_INDENT) != 0;
+        }
+
+        @Override
+        public String getFirstLineIndent() {
+            return toText(firstLineIndent[row], unparsableIndent);
+        }
+
+        @Override
+        public int getFirstLineIndentValue() {
+            return firstLineIndent[row];
+        }
+
+        @Override
+        public boolean hasSpacing() {
+            return (flags[row] & HAS_SPACING) != 0;
+        }
+
+        @Override
+        public String getSpacingLine() {
+            return toText(spacingLine[row], unparsableSpacing);
+        }
+
+        @Override
+        public int getSpacingLineValue() {
+            return spacingLine[row];
+        }
+
+        @Override
+        public int getRunCount() {
+            return runStart[row + 1] - runStart[row];
+        }
+
+        @Override
+        public int getRunFontSize(int run) {
+            return runFontSize[runStart[row] + run];
+        }
+
+        @Override
+        public String getRunFontFamily(int run) {
+            int id = runFontId[runStart[row] + run];
+            return id < 0 ? null : fonts.get(id);
+        }
+
+        @Override
+        public boolean isRunBold(int run) {
+            return runBold[runStart[row] + run];
+        }
+
+        @Override
+        public List<RunInfo> getRuns() {
+            int count = getRunCount();
+            List<RunInfo> list = new ArrayList<>(count);
+            for (int run = 0; run < count; run++) {
+                list.add(new RunInfo(getRunFontSize(run), getRunFontFamily(run), isRunBold(run)));
+            }
+            return list;
+        }
+
+        private String toText(int value, Map<Integer, String> unparsable) {
+            return value == NOT_SET ? null : value == UNPARSABLE ? unparsable.get(row) : Integer.toString(value);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.papercheck.service;
+
+import com.papercheck.metrics.DiagnosticRecorder;
+import com.papercheck.metrics.DocumentEvent;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 文档会话
+ * <p>
+ * 检查→预览→修复的典型流程中，文档最多只解析一次（检查结果命中缓存时，检查阶段不解析）：检查不修改文档；第一次预览或修复时在同一份文档上应用全部修复，
+ * 之后的预览、修复直接把已修复的文档写出，不再重新读取和修复。修复被取消时丢弃已部分修改的文档，
+ * 下次需要时重新加载。
+ * <p>
+ * 会话持有完整的文档对象，使用完毕后必须调用 {@link #close()} 释放。方法均已同步，可在后台线程中使用。
+ */
+public class DocumentSession implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentSession.class);
+
+    private final PaperFormatChecker checker;
+    private final File file;
+    private XWPFDocument document;
+    private FixedPackageWriter.Source source; // 加载文档时原始文件的状态
+    private List<CheckResult> checkResults;
+    private List<CheckResult> fixedResults; // 非null表示文档已修复
+    private final ParagraphFingerprintIndex previousIndex; // 上次检查的段落指纹，用于增量检查
+    private ParagraphFingerprintIndex fingerprintIndex;
+    private boolean closed;
+
+    DocumentSession(PaperFormatChecker checker, File file, ParagraphFingerprintIndex previousIndex) {
+        this.checker = checker;
+        this.file = file;
+        this.previousIndex = previousIndex;
+        logger.info("打开文档会话: {}", file.getName());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 检查文档，结果会被缓存，重复调用不会重新检查
+     *
+     * @param listener 进度监听器
+     * @return 检查结果列表
+     * @throws IOException 如果文档需要重新加载且读取失败
+     */
+    public synchronized List<CheckResult> check(CheckProgressListener listener) throws IOException {
+        ensureOpen();
+        if (checkResults == null) {
+            DocumentEvent event = DocumentEvent.begin("session.check", file);
+            if (fixedResults != null) {
+                // 文档已被修复，检查结果需基于原始文档
+                reload();
+            }
+            // 命中检查结果缓存时不需要解析文档，文档推迟到预览、修复时再加载
+            checkResults = Collections.unmodifiableList(checker.checkWithCache(file, listener, () -> {
+                ParagraphFingerprintIndex index = new ParagraphFingerprintIndex();
+                XWPFDocument loaded = document();
+                event.setParagraphCount(loaded.getParagraphs().size());
+                List<CheckResult> results;
+                try {
+                    results = checker.checkLoaded(file, loaded, listener, previousIndex, index);
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    DiagnosticRecorder.dumpOnFailure("检查文档失败: " + file.getName());
+                    throw e;
+                }
+                fingerprintIndex = index;
+                return results;
+            }));
+            logger.info("文档检查完成，发现 {} 个问题", checkResults.size());
+            event.finish(checkResults.size(), 0);
+        } else {
+            listener.onResults(checkResults);
+        }
+        return checkResults;
+    }
+
+    /**
+     * @return 本次检查记录的段落指纹，可传给下一次的 {@link PaperFormatChecker#openSession(File, ParagraphFingerprintIndex)}
+     * 做增量检查；尚未检查或检查结果来自缓存时为null
+     */
+    public synchronized ParagraphFingerprintIndex getFingerprintIndex() {
+        return fingerprintIndex;
+    }
+
+    /**
+     * @return 已缓存的检查结果，尚未检查时为null
+     */
+    public synchronized List<CheckResult> getCheckResults() {
+        return checkResults;
+    }
+
+    /**
+     * 把修复后的文档写出到指定文件（预览和修复都使用本方法）
+     *
+     * @param output   输出文件
+     * @param listener 进度监听器
+     * @return 修复的问题列表
+     * @throws IOException 如果读写失败
+     * @throws CancellationException 如果修复被取消，此时不会写出文件
+     */
+    public synchronized List<CheckResult> writeFixed(File output, CheckProgressListener listener) throws IOException {
+        ensureOpen();
+        DocumentEvent event = DocumentEvent.begin("session.fix", file);
+        if (fixedResults == null) {
+            XWPFDocument target = document();
+            event.setParagraphCount(target.getParagraphs().size());
+            try {
+                fixedResults = Collections.unmodifiableList(checker.fixLoaded(file, target, source, listener));
+            } catch (CancellationException e) {
+                // 文档可能已被部分修改，丢弃后下次重新加载
+                discardDocument();
+                throw e;
+            } catch (RuntimeException e) {
+                DiagnosticRecorder.dumpOnFailure("修复文档失败: " + file.getName());
+                throw e;
+            }
+            logger.info("文档修复完成，修复了 {} 个问题", fixedResults.size());
+        }
+        checker.writeDocument(document, source, output);
+        logger.info("修复后的文档已写出: {}", output.getPath());
+        event.finish(0, fixedResults.size());
+        return fixedResults;
+    }
+
+    /**
+     * 释放文档对象，之后不能再使用本会话
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            discardDocument();
+            checkResults = null;
+            fixedResults = null;
+            logger.info("关闭文档会话: {}", file.getName());
+        }
+    }
+
+    private XWPFDocument document() throws IOException {
+        if (document == null) {
+            source = FixedPackageWriter.Source.of(file);
+            document = checker.loadDocument(file);
+        }
+        return document;
+    }
+
+    private void reload() throws IOException {
+        discardDocument();
+        fixedResults = null;
+    }
+
+    private void discardDocument() throws IOException {
+        if (document != null) {
+            XWPFDocument old = document;
+            document = null;
+            old.close();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("文档会话已关闭: " + file.getName());
+        }
+    }
+}
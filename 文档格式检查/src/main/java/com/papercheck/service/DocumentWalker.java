@@ -0,0 +1,126 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.util.List;
+
+/**
+ * 单次遍历引擎
+ * <p>
+ * 按文档顺序访问正文中的每个段落、表格及单元格段落，且每个元素只访问一次，
+ * 并把同一个节点依次交给所有已注册的访问器。新增检查项只需新增访问器，无需再遍历一遍文档。
+ * 段落、表格序号与 {@code document.getParagraphs()}、{@code document.getTables()} 一致。
+ * 每次遍历解析一次文档样式（{@link StyleResolver}），所有节点共用。
+ */
+public class DocumentWalker {
+    private final List<ElementVisitor> visitors;
+
+    public DocumentWalker(List<ElementVisitor> visitors) {
+        this.visitors = visitors;
+    }
+
+    /**
+     * @return 遍历的元素总数（正文段落与表格），用于计算进度
+     */
+    public static int countElements(XWPFDocument document) {
+        return document.getBodyElements().size();
+    }
+
+    /**
+     * 遍历文档
+     *
+     * @param document 文档
+     * @param results  结果列表，由访问器写入
+     * @param progress 进度汇报器，每处理一个正文元素前调用一次
+     */
+    void walk(XWPFDocument document, List<CheckResult> results, ProgressReporter progress) {
+        walk(document, results, progress, null, null);
+    }
+
+    /**
+     * 增量遍历文档：指纹与上次相同的正文段落直接复用上次的结果，不再交给访问器检查
+     *
+     * @param previous 上次检查记录的指纹索引，为null时全部重新检查
+     * @param current  记录本次检查的指纹索引，为null时不记录
+     */
+    void walk(XWPFDocument document, List<CheckResult> results, ProgressReporter progress,
+              ParagraphFingerprintIndex previous, ParagraphFingerprintIndex current) {
+        walk(document, StyleResolver.of(document), results, progress, previous, current);
+    }
+
+    /**
+     * 使用给定的样式解析器遍历文档，修复时样式可能已被 {@link StyleFixer} 改写
+     */
+    void walk(XWPFDocument document, StyleResolver styles, List<CheckResult> results, ProgressReporter progress) {
+        walk(document, styles, results, progress, null, null);
+    }
+
+    private void walk(XWPFDocument document, StyleResolver styles, List<CheckResult> results,
+                      ProgressReporter progress, ParagraphFingerprintIndex previous, ParagraphFingerprintIndex current) {
+        int paragraphIndex = 0;
+        int tableIndex = 0;
+        boolean leading = true; // 尚未遇到非空段落
+        
+        for (IBodyElement element : document.getBodyElements()) {
+            progress.step();
+            
+            if (element instanceof XWPFParagraph) {
+                paragraphIndex++;
+                ParagraphNode node = new XWPFParagraphNode((XWPFParagraph) element, paragraphIndex, styles);
+                if (current == null && previous == null) {
+                    visitParagraph(node, results);
+                    continue;
+                }
+                
+                String fingerprint = ParagraphFingerprintIndex.fingerprint(node, leading, styles.getFingerprint());
+                leading = leading && node.getText().isEmpty();
+                int start = results.size();
+                boolean reused = previous != null && previous.reuse(fingerprint, node, results);
+                if (reused) {
+                    for (ElementVisitor visitor : visitors) {
+                        visitor.skipParagraph(node);
+                    }
+                } else {
+                    visitParagraph(node, results);
+                }
+                if (current != null) {
+                    current.record(fingerprint, node, results.subList(start, results.size()), reused);
+                }
+            } else if (element instanceof XWPFTable) {
+                tableIndex++;
+                walkTable(new TableNode((XWPFTable) element, tableIndex), results, styles);
+            }
+        }
+    }
+
+    private void visitParagraph(ParagraphNode node, List<CheckResult> results) {
+        for (ElementVisitor visitor : visitors) {
+            visitor.visitParagraph(node, results);
+        }
+    }
+
+    private void walkTable(TableNode node, List<CheckResult> results, StyleResolver styles) {
+        for (ElementVisitor visitor : visitors) {
+            visitor.visitTable(node, results);
+        }
+        
+        List<XWPFTableRow> rows = node.getTable().getRows();
+        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+            List<XWPFTableCell> cells = rows.get(rowIndex).getTableCells();
+            for (int cellIndex = 0; cellIndex < cells.size(); cellIndex++) {
+                for (XWPFParagraph paragraph : cells.get(cellIndex).getParagraphs()) {
+                    ParagraphNode cellParagraph = new XWPFParagraphNode(paragraph, 0, styles);
+                    for (ElementVisitor visitor : visitors) {
+                        visitor.visitCellParagraph(node, rowIndex, cellIndex, cellParagraph, results);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+
+import java.util.List;
+
+/**
+ * 文档元素访问器
+ * <p>
+ * 由 {@link DocumentWalker} 在一次遍历中依次回调，每个元素只访问一次。
+ * 实现类可以保存遍历状态（如是否已遇到标题），因此每次检查都应创建新实例。
+ */
+public interface ElementVisitor {
+
+    /**
+     * 访问正文中的段落
+     */
+    default void visitParagraph(ParagraphNode paragraph, List<CheckResult> results) {
+    }
+
+    /**
+     * 正文段落的结果直接复用了上次检查的结果（增量检查），不会再调用 {@link #visitParagraph}。
+     * 保存遍历状态的访问器应在此更新状态，使后续段落的检查不受影响。
+     */
+    default void skipParagraph(ParagraphNode paragraph) {
+    }
+
+    /**
+     * 访问正文中的表格，在访问其单元格段落之前调用
+     */
+    default void visitTable(TableNode table, List<CheckResult> results) {
+    }
+
+    /**
+     * 访问表格单元格中的段落
+     *
+     * @param table     所在表格
+     * @param rowIndex  行号，从0开始
+     * @param cellIndex 单元格序号，从0开始
+     * @param paragraph 段落
+     */
+    default void visitCellParagraph(TableNode table, int rowIndex, int cellIndex,
+                                    ParagraphNode paragraph, List<CheckResult> results) {
+    }
+}
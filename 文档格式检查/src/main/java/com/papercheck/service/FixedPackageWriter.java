@@ -0,0 +1,201 @@
+package com.papercheck.service;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.internal.PackagePropertiesPart;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.xmlbeans.XmlOptions;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+/**
+ * 修复后文档的写出
+ * <p>
+ * {@link XWPFDocument#write} 会重新序列化整个包，图片等未修改的部件也要解压再压缩一遍，图片多的论文写出很慢。
+ * 修复规则只修改正文XML和样式，因此本类从原始文件逐个复制压缩条目，未修改的条目连同压缩数据原样复制，
+ * 只重新生成修改过的部件（正文 word/document.xml，修复过样式时还有 word/styles.xml）。
+ * 写出耗时只与正文大小有关，与图片多少无关。
+ * <p>
+ * 以下情况无法复制：原始文件在加载之后被修改过，或文档中有原始文件里没有的部件。此时可写的包退回完整写出，
+ * 只读打开的包（{@link PaperFormatChecker#loadDocument}）不能整体写回，报告错误，需重新加载文档后再修复。
+ * 先写到同目录下的临时文件再替换，输出文件可以就是原始文件。
+ */
+final class FixedPackageWriter {
+    private static final Logger logger = LoggerFactory.getLogger(FixedPackageWriter.class);
+
+    private FixedPackageWriter() {
+    }
+
+    /**
+     * 写出修复后的文档
+     *
+     * @param document 已修复的文档
+     * @param source   加载文档之前记录的原始文件状态
+     * @param output   输出文件
+     */
+    static void write(XWPFDocument document, Source source, File output) throws IOException {
+        Path target = output.toPath().toAbsolutePath();
+        // 不用 createTempFile：它创建的文件只有所有者可读写，替换后会改变输出文件的权限
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+        try {
+            boolean copied = source != null && source.isUnchanged() && copy(document, source, temp);
+            if (!copied) {
+                if (document.getPackage().getPackageAccess() == PackageAccess.READ) {
+                    throw new IOException("原始文件在打开后已被修改，请重新检查后再修复");
+                }
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    document.write(out);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 按原始文件的条目顺序写出，修改过的部件重新序列化，其余条目原样复制
+     *
+     * @return 是否成功；文档结构与原始文件不一致时返回false，由调用方完整写出
+     */
+    private static boolean copy(XWPFDocument document, Source source, Path temp) throws IOException {
+        Map<String, PartWriter> modified = modifiedParts(document, source);
+        try (ZipFile zip = new ZipFile(source.file)) {
+            // 部件名不区分大小写
+            Set<String> entries = new HashSet<>();
+            for (Enumeration<ZipArchiveEntry> e = zip.getEntries(); e.hasMoreElements(); ) {
+                entries.add(e.nextElement().getName().toLowerCase(Locale.ROOT));
+            }
+            for (PackagePart part : parts(document)) {
+                // 原始文件没有文档属性时POI会自动创建，不影响正文
+                if (!entries.contains(entryName(part)) && !(part instanceof PackagePropertiesPart)) {
+                    logger.info("文档中有原始文件里没有的部件 {}，完整写出", part.getPartName());
+                    return false;
+                }
+            }
+            if (!entries.containsAll(modified.keySet())) {
+                return false;
+            }
+
+            try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(temp.toFile())) {
+                for (Enumeration<ZipArchiveEntry> e = zip.getEntriesInPhysicalOrder(); e.hasMoreElements(); ) {
+                    ZipArchiveEntry entry = e.nextElement();
+                    PartWriter writer = modified.get(entry.getName().toLowerCase(Locale.ROOT));
+                    if (writer == null) {
+                        try (InputStream raw = zip.getRawInputStream(entry)) {
+                            out.addRawArchiveEntry(entry, raw);
+                        }
+                    } else {
+                        ZipArchiveEntry replaced = new ZipArchiveEntry(entry.getName());
+                        replaced.setMethod(ZipEntry.DEFLATED);
+                        replaced.setTime(entry.getTime());
+                        out.putArchiveEntry(replaced);
+                        writer.write(out);
+                        out.closeArchiveEntry();
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 需要重新生成的条目名及其写出方式
+     */
+    private static Map<String, PartWriter> modifiedParts(XWPFDocument document, Source source) {
+        Map<String, PartWriter> parts = new LinkedHashMap<>();
+        // 与 XWPFDocument.commit() 的序列化方式相同
+        XmlOptions options = new XmlOptions(DEFAULT_XML_OPTIONS);
+        options.setSaveSyntheticDocumentElement(new QName(CTDocument1.type.getName().getNamespaceURI(), "document"));
+        parts.put(entryName(document.getPackagePart()), out -> document.getDocument().save(out, options));
+        CTStyles styles = source.modifiedStyles;
+        if (styles != null && document.getStyles() != null) {
+            // 与 XWPFStyles.commit() 相同
+            XmlOptions styleOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
+            styleOptions.setSaveSyntheticDocumentElement(new QName(CTStyles.type.getName().getNamespaceURI(), "styles"));
+            parts.put(entryName(document.getStyles().getPackagePart()), out -> styles.save(out, styleOptions));
+        }
+        return parts;
+    }
+
+    private static List<PackagePart> parts(XWPFDocument document) throws IOException {
+        try {
+            return document.getPackage().getParts();
+        } catch (InvalidFormatException e) {
+            throw new IOException("读取文档部件失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static String entryName(PackagePart part) {
+        // 部件名以 / 开头，压缩条目名没有
+        return part.getPartName().getName().substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private interface PartWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 加载文档时原始文件的状态，用于确认写出时原始文件没有变化；另外记录修复时改写过的样式
+     */
+    static final class Source {
+        private final File file;
+        private final long length;
+        private final long lastModified;
+        private CTStyles modifiedStyles;
+
+        private Source(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        /**
+         * 在加载文档之前调用
+         */
+        static Source of(File file) {
+            return new Source(file);
+        }
+
+        boolean isUnchanged() {
+            return file.length() == length && file.lastModified() == lastModified;
+        }
+
+        /**
+         * @param styles 修复时改写过的样式，写出时重新生成样式部件
+         */
+        void setModifiedStyles(CTStyles styles) {
+            this.modifiedStyles = styles;
+        }
+    }
+}
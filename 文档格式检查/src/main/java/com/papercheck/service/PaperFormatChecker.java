@@ -1,37 +1,87 @@
 package com.papercheck.service;
 
+import com.papercheck.export.ExportFormat;
+import com.papercheck.export.HtmlReportWriter;
+import com.papercheck.export.ResultExporter;
+import com.papercheck.metrics.CheckerMetrics;
+import com.papercheck.metrics.DiagnosticRecorder;
+import com.papercheck.metrics.DocumentEvent;
+import com.papercheck.metrics.Phase;
+import com.papercheck.metrics.PhaseTimer;
 import com.papercheck.model.CheckResult;
+import com.papercheck.rule.RulePlan;
+import com.papercheck.rule.RuleProfile;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xwpf.usermodel.*;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 /**
  * 论文格式检查服务
+ * <p>
+ * 本类不保存检查过程中的状态（遍历状态保存在每次调用新建的访问器中），可在多个线程间共享同一实例。
+ * 各阶段耗时、访问的元素数和检出的问题数记录在 {@link CheckerMetrics} 中，可通过JMX查看；
+ * 进行JFR记录时，每次操作及其各阶段分别提交 {@link DocumentEvent} 和处理阶段事件。
  */
 public class PaperFormatChecker {
     private static final Logger logger = LoggerFactory.getLogger(PaperFormatChecker.class);
     
-    // 定义论文格式规范
-    private static final int TITLE_FONT_SIZE = 16; // 三号字约16pt
-    private static final String TITLE_FONT_FAMILY = "黑体";
-    private static final int BODY_FONT_SIZE = 12; // 小四号字约12pt
-    private static final String BODY_FONT_FAMILY = "宋体";
-    private static final double LINE_SPACING = 1.5;
-    private static final int FIRST_LINE_INDENT = 2; // 首行缩进2字符
-    private static final double MARGIN_TOP = 2.5; // 上边距2.5厘米
-    private static final double MARGIN_BOTTOM = 2.5; // 下边距2.5厘米
-    private static final double MARGIN_LEFT = 3.0; // 左边距3.0厘米
-    private static final double MARGIN_RIGHT = 3.0; // 右边距3.0厘米
+    private final RulePlan plan; // 格式规则，由规则配置编译而来
+    private final CheckResultCache resultCache; // 为null时不使用缓存
+
+    /**
+     * 使用默认规则配置，不使用缓存
+     */
+    public PaperFormatChecker() {
+        this(null);
+    }
+
+    /**
+     * 使用默认规则配置
+     *
+     * @param resultCache 检查结果缓存，同一文档（内容相同）再次检查时直接返回缓存结果；为null时不使用缓存
+     */
+    public PaperFormatChecker(CheckResultCache resultCache) {
+        this(RuleProfile.defaults(), resultCache);
+    }
+
+    /**
+     * @param profile     规则配置，构造时编译为执行计划
+     * @param resultCache 检查结果缓存；为null时不使用缓存
+     * @throws IllegalArgumentException 如果规则配置无效
+     */
+    public PaperFormatChecker(RuleProfile profile, CheckResultCache resultCache) {
+        this.plan = RulePlan.compile(profile);
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return 当前使用的规则执行计划
+     */
+    public RulePlan getRulePlan() {
+        return plan;
+    }
+
+    /**
+     * @return 检查规则版本，用作检查结果缓存键的一部分
+     */
+    public String getRuleVersion() {
+        return plan.getVersion();
+    }
 
     /**
      * 检查Word文档格式
@@ -41,28 +91,108 @@ public class PaperFormatChecker {
      * @throws IOException 如果文件读取失败
      */
     public List<CheckResult> checkDocument(File file) throws IOException {
+        return checkDocument(file, CheckProgressListener.NONE);
+    }
+
+    /**
+     * 检查Word文档格式，并向监听器汇报进度
+     *
+     * @param file     Word文档文件
+     * @param listener 进度监听器，结果会分批推送
+     * @return 检查结果列表
+     * @throws IOException 如果文件读取失败
+     * @throws java.util.concurrent.CancellationException 如果检查被取消
+     */
+    public List<CheckResult> checkDocument(File file, CheckProgressListener listener) throws IOException {
         logger.info("开始检查文档: {}", file.getName());
-        List<CheckResult> results = new ArrayList<>();
-        
-        try (FileInputStream fis = new FileInputStream(file)) {
-            XWPFDocument document = new XWPFDocument(fis);
-            
-            // 检查文档属性
-            checkDocumentProperties(document, results);
-            
-            // 检查段落格式
-            checkParagraphs(document, results);
-            
-            // 检查表格格式
-            checkTables(document, results);
-            
-            // 检查图片格式
-            checkPictures(document, results);
+        DiagnosticRecorder.record("开始检查文档: {}", file.getName());
+        DocumentEvent event = DocumentEvent.begin("check", file);
+        
+        try {
+            List<CheckResult> results = checkWithCache(file, listener, () -> {
+                try (XWPFDocument document = loadDocument(file)) {
+                    event.setParagraphCount(document.getParagraphs().size());
+                    return checkLoaded(file, document, listener);
+                }
+            });
+            logger.info("文档检查完成，发现 {} 个问题", results.size());
+            event.finish(results.size(), 0);
+            return results;
+        } catch (CancellationException e) {
+            logger.info("文档检查已取消: {}", file.getName());
+            throw e;
+        } catch (Exception e) {
+            logger.error("检查文档时发生错误", e);
+            DiagnosticRecorder.dumpOnFailure("检查文档失败: " + file.getName());
+            throw new IOException("检查文档时发生错误: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * 以只读流式方式检查Word文档
+     * <p>
+     * 不构建 {@code XWPFDocument}，直接从压缩包中流式解析主文档XML，内存占用远小于 {@link #checkDocument(File)}，
+     * 适合超大文档和批量检查。检查规则与 {@link #checkDocument(File)} 相同，返回的结果（含顺序）也相同。
+     *
+     * @param file Word文档文件（仅支持.docx）
+     * @return 检查结果列表
+     * @throws IOException 如果文件读取失败
+     */
+    public List<CheckResult> checkDocumentStreaming(File file) throws IOException {
+        return checkDocumentStreaming(file, CheckProgressListener.NONE);
+    }
+
+    /**
+     * 以只读流式方式检查Word文档，并向监听器汇报进度
+     * <p>
+     * 元素总数事先未知，进度回调中的总数为-1；文档属性的检查结果在正文之后推送，但在返回列表中排在最前。
+     *
+     * @param file     Word文档文件（仅支持.docx）
+     * @param listener 进度监听器
+     * @return 检查结果列表
+     * @throws IOException 如果文件读取失败
+     * @throws java.util.concurrent.CancellationException 如果检查被取消
+     */
+    public List<CheckResult> checkDocumentStreaming(File file, CheckProgressListener listener) throws IOException {
+        logger.info("开始流式检查文档: {}", file.getName());
+        DiagnosticRecorder.record("开始流式检查文档: {}", file.getName());
+        DocumentEvent event = DocumentEvent.begin("check.streaming", file);
+        
+        try {
+            // 与 checkDocument 的结果相同，共用缓存条目
+            List<CheckResult> results = checkWithCache(file, listener, () -> {
+                List<CheckResult> elementResults = new ArrayList<>();
+                ProgressReporter progress = new ProgressReporter(listener, elementResults, -1);
+                CountingVisitor counter = new CountingVisitor();
+                
+                // 节属性位于正文末尾，读完正文后再检查文档属性
+                PhaseTimer timer = PhaseTimer.start(Phase.CHECK_STREAMING);
+                SectionInfo section = new StreamingDocumentReader().read(file, createCheckVisitors(counter), elementResults, progress);
+                timer.stop(file, counter.getParagraphs(), elementResults.size());
+                counter.publish();
+                event.setParagraphCount(counter.getParagraphs());
+                progress.flush();
+                
+                List<CheckResult> all = new ArrayList<>(elementResults.size() + 8);
+                timer = PhaseTimer.start(Phase.CHECK_DOCUMENT);
+                plan.checkDocument(section, all);
+                timer.stop(file, 0, all.size());
+                if (!all.isEmpty()) {
+                    listener.onResults(new ArrayList<>(all));
+                }
+                all.addAll(elementResults);
+                return all;
+            });
             
             logger.info("文档检查完成，发现 {} 个问题", results.size());
+            event.finish(results.size(), 0);
             return results;
+        } catch (CancellationException e) {
+            logger.info("文档检查已取消: {}", file.getName());
+            throw e;
         } catch (Exception e) {
             logger.error("检查文档时发生错误", e);
+            DiagnosticRecorder.dumpOnFailure("检查文档失败: " + file.getName());
             throw new IOException("检查文档时发生错误: " + e.getMessage(), e);
         }
     }
@@ -76,33 +206,42 @@ public class PaperFormatChecker {
      * @throws IOException 如果文件操作失败
      */
     public List<CheckResult> createFixedDocumentPreview(File originalFile, File previewFile) throws IOException {
+        return createFixedDocumentPreview(originalFile, previewFile, CheckProgressListener.NONE);
+    }
+
+    /**
+     * 创建修复后的文档预览，并向监听器汇报进度
+     *
+     * @param originalFile 原始文档
+     * @param previewFile  预览文档保存路径
+     * @param listener     进度监听器
+     * @return 修复的问题列表
+     * @throws IOException 如果文件操作失败
+     * @throws java.util.concurrent.CancellationException 如果操作被取消，此时不会写出预览文档
+     */
+    public List<CheckResult> createFixedDocumentPreview(File originalFile, File previewFile,
+                                                        CheckProgressListener listener) throws IOException {
         logger.info("创建修复后的文档预览: {}", originalFile.getName());
-        List<CheckResult> fixedResults = new ArrayList<>();
+        DiagnosticRecorder.record("创建修复预览: {}", originalFile.getName());
+        DocumentEvent event = DocumentEvent.begin("preview", originalFile);
         
-        try (FileInputStream fis = new FileInputStream(originalFile)) {
-            XWPFDocument document = new XWPFDocument(fis);
-            
-            // 修复文档属性
-            fixDocumentProperties(document, fixedResults);
-            
-            // 修复段落格式
-            fixParagraphs(document, fixedResults);
-            
-            // 修复表格格式
-            fixTables(document, fixedResults);
-            
-            // 修复图片格式
-            fixPictures(document, fixedResults);
+        FixedPackageWriter.Source source = FixedPackageWriter.Source.of(originalFile);
+        try (XWPFDocument document = loadDocument(originalFile)) {
+            event.setParagraphCount(document.getParagraphs().size());
+            List<CheckResult> fixedResults = fixLoaded(originalFile, document, source, listener);
             
             // 保存预览文档
-            try (FileOutputStream fos = new FileOutputStream(previewFile)) {
-                document.write(fos);
-            }
+            writeDocument(document, source, previewFile);
             
             logger.info("文档修复预览完成，修复了 {} 个问题", fixedResults.size());
+            event.finish(0, fixedResults.size());
             return fixedResults;
+        } catch (CancellationException e) {
+            logger.info("创建修复预览已取消: {}", originalFile.getName());
+            throw e;
         } catch (Exception e) {
             logger.error("创建修复预览时发生错误", e);
+            DiagnosticRecorder.dumpOnFailure("创建修复预览失败: " + originalFile.getName());
             throw new IOException("创建修复预览时发生错误: " + e.getMessage(), e);
         }
     }
@@ -116,720 +255,246 @@ public class PaperFormatChecker {
      * @throws IOException 如果文件操作失败
      */
     public List<CheckResult> fixDocument(File originalFile, File fixedFile) throws IOException {
+        return fixDocument(originalFile, fixedFile, CheckProgressListener.NONE);
+    }
+
+    /**
+     * 应用修复到原始文档，并向监听器汇报进度
+     *
+     * @param originalFile 原始文档
+     * @param fixedFile    修复后的文档保存路径
+     * @param listener     进度监听器
+     * @return 修复的问题列表
+     * @throws IOException 如果文件操作失败
+     * @throws java.util.concurrent.CancellationException 如果操作被取消，此时不会写出修复后的文档
+     */
+    public List<CheckResult> fixDocument(File originalFile, File fixedFile,
+                                         CheckProgressListener listener) throws IOException {
         logger.info("修复文档: {}", originalFile.getName());
-        List<CheckResult> fixedResults = new ArrayList<>();
+        DiagnosticRecorder.record("修复文档: {}", originalFile.getName());
+        DocumentEvent event = DocumentEvent.begin("fix", originalFile);
         
-        try (FileInputStream fis = new FileInputStream(originalFile)) {
-            XWPFDocument document = new XWPFDocument(fis);
-            
-            // 修复文档属性
-            fixDocumentProperties(document, fixedResults);
-            
-            // 修复段落格式
-            fixParagraphs(document, fixedResults);
-            
-            // 修复表格格式
-            fixTables(document, fixedResults);
-            
-            // 修复图片格式
-            fixPictures(document, fixedResults);
+        FixedPackageWriter.Source source = FixedPackageWriter.Source.of(originalFile);
+        try (XWPFDocument document = loadDocument(originalFile)) {
+            event.setParagraphCount(document.getParagraphs().size());
+            List<CheckResult> fixedResults = fixLoaded(originalFile, document, source, listener);
             
             // 保存修复后的文档
-            try (FileOutputStream fos = new FileOutputStream(fixedFile)) {
-                document.write(fos);
-            }
+            writeDocument(document, source, fixedFile);
             
             logger.info("文档修复完成，修复了 {} 个问题", fixedResults.size());
+            event.finish(0, fixedResults.size());
             return fixedResults;
+        } catch (CancellationException e) {
+            logger.info("修复文档已取消: {}", originalFile.getName());
+            throw e;
         } catch (Exception e) {
             logger.error("修复文档时发生错误", e);
+            DiagnosticRecorder.dumpOnFailure("修复文档失败: " + originalFile.getName());
             throw new IOException("修复文档时发生错误: " + e.getMessage(), e);
         }
     }
 
     /**
-     * 修复文档属性（页边距、页码等）
+     * 打开文档会话：文档只解析一次，之后的检查、预览、修复都在同一份已加载的文档上进行
+     *
+     * @param file Word文档文件
+     * @return 文档会话，使用完毕后必须关闭
      */
-    private void fixDocumentProperties(XWPFDocument document, List<CheckResult> fixedResults) {
-        logger.debug("修复文档属性");
-        
-        // 修复页边距
-        CTSectPr sectPr = document.getDocument().getBody().getSectPr();
-        if (sectPr == null) {
-            sectPr = document.getDocument().getBody().addNewSectPr();
-        }
-        
-        // 设置页边距（Word中的单位是dxa，1厘米约等于567 dxa）
-        int dxaPerCm = 567;
-        CTPageMar pgMar = sectPr.isSetPgMar() ? sectPr.getPgMar() : sectPr.addNewPgMar();
-        
-        // 设置上边距
-        BigInteger topMargin = BigInteger.valueOf((int)(MARGIN_TOP * dxaPerCm));
-        pgMar.setTop(topMargin);
-        fixedResults.add(new CheckResult(
-            "页边距",
-            "文档属性",
-            "已修复上边距",
-            "已设置为" + MARGIN_TOP + "厘米"
-        ));
-        
-        // 设置下边距
-        BigInteger bottomMargin = BigInteger.valueOf((int)(MARGIN_BOTTOM * dxaPerCm));
-        pgMar.setBottom(bottomMargin);
-        fixedResults.add(new CheckResult(
-            "页边距",
-            "文档属性",
-            "已修复下边距",
-            "已设置为" + MARGIN_BOTTOM + "厘米"
-        ));
-        
-        // 设置左边距
-        BigInteger leftMargin = BigInteger.valueOf((int)(MARGIN_LEFT * dxaPerCm));
-        pgMar.setLeft(leftMargin);
-        fixedResults.add(new CheckResult(
-            "页边距",
-            "文档属性",
-            "已修复左边距",
-            "已设置为" + MARGIN_LEFT + "厘米"
-        ));
-        
-        // 设置右边距
-        BigInteger rightMargin = BigInteger.valueOf((int)(MARGIN_RIGHT * dxaPerCm));
-        pgMar.setRight(rightMargin);
-        fixedResults.add(new CheckResult(
-            "页边距",
-            "文档属性",
-            "已修复右边距",
-            "已设置为" + MARGIN_RIGHT + "厘米"
-        ));
-        
-        // 设置页码
-        if (!sectPr.isSetPgNumType()) {
-            CTPageNumber pgNum = sectPr.addNewPgNumType();
-            pgNum.setStart(BigInteger.valueOf(1));
-            fixedResults.add(new CheckResult(
-                "页码",
-                "文档属性",
-                "已添加页码",
-                "已设置页码从1开始"
-            ));
-        }
+    public DocumentSession openSession(File file) {
+        return openSession(file, null);
     }
 
     /**
-     * 修复段落格式（字体、行距、缩进等）
+     * 打开文档会话，并基于上次检查记录的段落指纹进行增量检查
+     *
+     * @param file     Word文档文件（通常是同一文档修改后的版本）
+     * @param previous 上次检查的段落指纹，见 {@link DocumentSession#getFingerprintIndex()}；为null时全部重新检查
+     * @return 文档会话，使用完毕后必须关闭
      */
-    private void fixParagraphs(XWPFDocument document, List<CheckResult> fixedResults) {
-        logger.debug("修复段落格式");
-        
-        List<XWPFParagraph> paragraphs = document.getParagraphs();
-        boolean foundTitle = false;
-        int paragraphIndex = 0;
-        
-        for (XWPFParagraph paragraph : paragraphs) {
-            paragraphIndex++;
-            String paragraphText = paragraph.getText().trim();
-            
-            // 跳过空段落
-            if (paragraphText.isEmpty()) {
-                continue;
-            }
-            
-            // 假设第一个非空段落是标题
-            if (!foundTitle) {
-                foundTitle = true;
-                fixTitleFormat(paragraph, paragraphIndex, fixedResults);
-            } else {
-                // 修复正文段落格式
-                fixBodyParagraphFormat(paragraph, paragraphIndex, fixedResults);
-            }
-        }
+    public DocumentSession openSession(File file, ParagraphFingerprintIndex previous) {
+        return new DocumentSession(this, file, previous);
     }
 
     /**
-     * 修复标题格式
+     * 先查检查结果缓存，未命中时执行检查并写入缓存
      */
-    private void fixTitleFormat(XWPFParagraph paragraph, int paragraphIndex, List<CheckResult> fixedResults) {
-        logger.debug("修复标题格式: 第{}段落", paragraphIndex);
-        
-        // 修复标题对齐方式
-        if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-            paragraph.setAlignment(ParagraphAlignment.CENTER);
-            fixedResults.add(new CheckResult(
-                "标题格式",
-                "第" + paragraphIndex + "段落",
-                "已修复标题对齐方式",
-                "已设置为居中对齐"
-            ));
+    List<CheckResult> checkWithCache(File file, CheckProgressListener listener, CheckAction action) throws IOException {
+        if (resultCache == null) {
+            return recordIssues(action.run());
         }
-        
-        // 修复标题字体
-        for (XWPFRun run : paragraph.getRuns()) {
-            // 修复字体大小
-            if (run.getFontSize() != -1 && run.getFontSize() < TITLE_FONT_SIZE) {
-                run.setFontSize(TITLE_FONT_SIZE);
-                fixedResults.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "已修复标题字号",
-                    "已设置为三号字（" + TITLE_FONT_SIZE + "磅）"
-                ));
-            }
-            
-            // 修复字体类型
-            String fontFamily = run.getFontFamily();
-            if (fontFamily == null || !fontFamily.contains(TITLE_FONT_FAMILY)) {
-                run.setFontFamily(TITLE_FONT_FAMILY);
-                fixedResults.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "已修复标题字体",
-                    "已设置为" + TITLE_FONT_FAMILY
-                ));
-            }
-            
-            // 修复是否加粗
-            if (!run.isBold()) {
-                run.setBold(true);
-                fixedResults.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "已修复标题加粗",
-                    "已设置为加粗"
-                ));
-            }
+        PhaseTimer timer = PhaseTimer.start(Phase.CACHE_LOOKUP);
+        String key = resultCache.keyFor(file, plan.getVersion());
+        List<CheckResult> cached = resultCache.get(key);
+        timer.stop(file, 0, cached == null ? 0 : cached.size());
+        if (cached != null) {
+            logger.info("使用缓存的检查结果: {}", file.getName());
+            metrics().recordCacheHit();
+            listener.onResults(new ArrayList<>(cached));
+            listener.onProgress(1, 1);
+            return cached;
         }
+        List<CheckResult> results = recordIssues(action.run());
+        resultCache.put(key, results);
+        return results;
     }
 
     /**
-     * 修复正文段落格式
+     * 按问题类型累加检出的问题数
      */
-    private void fixBodyParagraphFormat(XWPFParagraph paragraph, int paragraphIndex, List<CheckResult> fixedResults) {
-        logger.debug("修复正文格式: 第{}段落", paragraphIndex);
-        
-        // 修复段落缩进
-        CTP ctp = paragraph.getCTP();
-        CTPPr pPr = ctp.isSetPPr() ? ctp.getPPr() : ctp.addNewPPr();
-        CTInd ind = pPr.isSetInd() ? pPr.getInd() : pPr.addNewInd();
-        
-        // 设置首行缩进为2字符
-        int requiredIndent = 420; // 约等于2个字符的缩进
-        ind.setFirstLine(BigInteger.valueOf(requiredIndent));
-        fixedResults.add(new CheckResult(
-            "段落格式",
-            "第" + paragraphIndex + "段落",
-            "已修复段落首行缩进",
-            "已设置为2字符缩进"
-        ));
-        
-        // 修复行距
-        CTSpacing spacing = pPr.isSetSpacing() ? pPr.getSpacing() : pPr.addNewSpacing();
-        // 设置1.5倍行距
-        spacing.setLine(BigInteger.valueOf(360));
-        spacing.setLineRule(STLineSpacingRule.AUTO);
-        fixedResults.add(new CheckResult(
-            "段落格式",
-            "第" + paragraphIndex + "段落",
-            "已修复段落行距",
-            "已设置为1.5倍行距"
-        ));
-        
-        // 修复字体
-        for (XWPFRun run : paragraph.getRuns()) {
-            // 修复字体大小
-            if (run.getFontSize() != -1 && run.getFontSize() > BODY_FONT_SIZE + 2) {
-                run.setFontSize(BODY_FONT_SIZE);
-                fixedResults.add(new CheckResult(
-                    "正文格式",
-                    "第" + paragraphIndex + "段落",
-                    "已修复正文字号",
-                    "已设置为小四号字（" + BODY_FONT_SIZE + "磅）"
-                ));
-            }
-            
-            // 修复字体类型
-            String fontFamily = run.getFontFamily();
-            if (fontFamily == null || !fontFamily.contains(BODY_FONT_FAMILY)) {
-                run.setFontFamily(BODY_FONT_FAMILY);
-                fixedResults.add(new CheckResult(
-                    "正文格式",
-                    "第" + paragraphIndex + "段落",
-                    "已修复正文字体",
-                    "已设置为" + BODY_FONT_FAMILY
-                ));
-            }
+    private static List<CheckResult> recordIssues(List<CheckResult> results) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (CheckResult result : results) {
+            counts.merge(result.getIssueType(), 1, Integer::sum);
         }
+        counts.forEach(metrics()::recordIssue);
+        return results;
+    }
+
+    private static CheckerMetrics metrics() {
+        return CheckerMetrics.get();
     }
 
     /**
-     * 修复表格格式
+     * 实际执行检查的操作
      */
-    private void fixTables(XWPFDocument document, List<CheckResult> fixedResults) {
-        logger.debug("修复表格格式");
-        
-        List<XWPFTable> tables = document.getTables();
-        int tableIndex = 0;
-        
-        for (XWPFTable table : tables) {
-            tableIndex++;
-            
-            // 修复表格标题
-            XWPFTableRow firstRow = table.getRow(0);
-            if (firstRow != null) {
-                for (XWPFTableCell cell : firstRow.getTableCells()) {
-                    for (XWPFParagraph paragraph : cell.getParagraphs()) {
-                        if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-                            paragraph.setAlignment(ParagraphAlignment.CENTER);
-                            fixedResults.add(new CheckResult(
-                                "表格格式",
-                                "表格" + tableIndex,
-                                "已修复表格标题对齐方式",
-                                "已设置为居中对齐"
-                            ));
-                        }
-                    }
-                }
-            }
-            
-            // 修复表格内容字体
-            for (int i = 0; i < table.getNumberOfRows(); i++) {
-                XWPFTableRow row = table.getRow(i);
-                for (XWPFTableCell cell : row.getTableCells()) {
-                    for (XWPFParagraph paragraph : cell.getParagraphs()) {
-                        for (XWPFRun run : paragraph.getRuns()) {
-                            // 修复表格内容字体大小
-                            if (run.getFontSize() != -1 && run.getFontSize() > BODY_FONT_SIZE + 2) {
-                                run.setFontSize(BODY_FONT_SIZE);
-                                fixedResults.add(new CheckResult(
-                                    "表格格式",
-                                    "表格" + tableIndex + "，第" + (i + 1) + "行",
-                                    "已修复表格内容字号",
-                                    "已设置为小四号字（" + BODY_FONT_SIZE + "磅）"
-                                ));
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    interface CheckAction {
+        List<CheckResult> run() throws IOException;
     }
 
     /**
-     * 修复图片格式
+     * 以只读方式从文件加载文档
+     * <p>
+     * 从输入流加载时POI会把整个压缩包读进内存；直接打开文件则按需随机读取各个部件，
+     * 图片等二进制部件只有被读取时才会解压，堆内存占用只与XML部件的大小有关。
+     * 只读打开的包不能整体写回，修复后的文档由 {@link FixedPackageWriter} 写出；关闭时不会修改原文件。
+     *
+     * @throws IOException 如果文件读取失败或不是Word文档
      */
-    private void fixPictures(XWPFDocument document, List<CheckResult> fixedResults) {
-        logger.debug("修复图片格式");
-        
-        // 修复图片标题段落
-        List<XWPFParagraph> paragraphs = document.getParagraphs();
-        int paragraphIndex = 0;
-        
-        for (XWPFParagraph paragraph : paragraphs) {
-            paragraphIndex++;
-            String text = paragraph.getText().trim();
-            
-            // 识别图片标题（通常以"图"开头）
-            if (text.startsWith("图") && text.contains("：")) {
-                if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-                    paragraph.setAlignment(ParagraphAlignment.CENTER);
-                    fixedResults.add(new CheckResult(
-                        "图片格式",
-                        "第" + paragraphIndex + "段落",
-                        "已修复图片标题对齐方式",
-                        "已设置为居中对齐"
-                    ));
-                }
-            }
+    XWPFDocument loadDocument(File file) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            return new XWPFDocument(pkg);
+        } catch (InvalidFormatException | InvalidOperationException | UnsupportedFileFormatException e) {
+            revertQuietly(pkg);
+            throw new IOException("无法打开文档 " + file.getName() + ": " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            revertQuietly(pkg);
+            throw e;
+        } finally {
+            timer.stop(file);
         }
     }
 
-    /**
-     * 检查文档属性（页边距、页码等）
-     */
-    private void checkDocumentProperties(XWPFDocument document, List<CheckResult> results) {
-        logger.debug("检查文档属性");
-        
-        // 检查页边距
-        CTSectPr sectPr = document.getDocument().getBody().getSectPr();
-        if (sectPr != null) {
-            // 检查页边距（Word中的单位是dxa，1厘米约等于567 dxa）
-            int dxaPerCm = 567;
-            double marginTopRequired = MARGIN_TOP * dxaPerCm;
-            double marginBottomRequired = MARGIN_BOTTOM * dxaPerCm;
-            double marginLeftRequired = MARGIN_LEFT * dxaPerCm;
-            double marginRightRequired = MARGIN_RIGHT * dxaPerCm;
-            
-            if (sectPr.getPgMar() != null) {
-                CTPageMar pgMar = sectPr.getPgMar();
-                
-                try {
-                    // 上边距 - 安全地获取数值
-                    double topMargin = 0;
-                    if (pgMar.getTop() != null) {
-                        topMargin = Double.parseDouble(pgMar.getTop().toString());
-                    }
-                    
-                    if (topMargin < marginTopRequired * 0.9) {
-                        results.add(new CheckResult(
-                            "页边距",
-                            "文档属性",
-                            "上边距不符合要求，当前值小于" + MARGIN_TOP + "厘米",
-                            "将上边距设置为" + MARGIN_TOP + "厘米"
-                        ));
-                    }
-                    
-                    // 下边距
-                    double bottomMargin = 0;
-                    if (pgMar.getBottom() != null) {
-                        bottomMargin = Double.parseDouble(pgMar.getBottom().toString());
-                    }
-                    
-                    if (bottomMargin < marginBottomRequired * 0.9) {
-                        results.add(new CheckResult(
-                            "页边距",
-                            "文档属性",
-                            "下边距不符合要求，当前值小于" + MARGIN_BOTTOM + "厘米",
-                            "将下边距设置为" + MARGIN_BOTTOM + "厘米"
-                        ));
-                    }
-                    
-                    // 左边距
-                    double leftMargin = 0;
-                    if (pgMar.getLeft() != null) {
-                        leftMargin = Double.parseDouble(pgMar.getLeft().toString());
-                    }
-                    
-                    if (leftMargin < marginLeftRequired * 0.9) {
-                        results.add(new CheckResult(
-                            "页边距",
-                            "文档属性",
-                            "左边距不符合要求，当前值小于" + MARGIN_LEFT + "厘米",
-                            "将左边距设置为" + MARGIN_LEFT + "厘米"
-                        ));
-                    }
-                    
-                    // 右边距
-                    double rightMargin = 0;
-                    if (pgMar.getRight() != null) {
-                        rightMargin = Double.parseDouble(pgMar.getRight().toString());
-                    }
-                    
-                    if (rightMargin < marginRightRequired * 0.9) {
-                        results.add(new CheckResult(
-                            "页边距",
-                            "文档属性",
-                            "右边距不符合要求，当前值小于" + MARGIN_RIGHT + "厘米",
-                            "将右边距设置为" + MARGIN_RIGHT + "厘米"
-                        ));
-                    }
-                } catch (NumberFormatException e) {
-                    logger.warn("解析页边距时出错", e);
-                    results.add(new CheckResult(
-                        "页边距",
-                        "文档属性",
-                        "无法解析页边距值",
-                        "请手动检查页边距设置"
-                    ));
-                }
-            } else {
-                results.add(new CheckResult(
-                    "页边距",
-                    "文档属性",
-                    "未设置页边距",
-                    "设置页边距：上下" + MARGIN_TOP + "厘米，左右" + MARGIN_LEFT + "厘米"
-                ));
-            }
-            
-            // 检查页码位置
-            if (sectPr.isSetPgNumType()) {
-                // 页码检查逻辑
-            } else {
-                results.add(new CheckResult(
-                    "页码",
-                    "文档属性",
-                    "未设置页码",
-                    "在页面底部居中添加页码"
-                ));
-            }
+    private static void revertQuietly(OPCPackage pkg) {
+        if (pkg != null) {
+            pkg.revert();
         }
     }
 
     /**
-     * 检查段落格式（字体、行距、缩进等）
+     * 保存修复后的文档，未修改的部件从原始文件原样复制
+     *
+     * @param source 加载文档之前记录的原始文件状态
+     * @see FixedPackageWriter
      */
-    private void checkParagraphs(XWPFDocument document, List<CheckResult> results) {
-        logger.debug("检查段落格式");
-        
-        List<XWPFParagraph> paragraphs = document.getParagraphs();
-        boolean foundTitle = false;
-        int paragraphIndex = 0;
-        
-        for (XWPFParagraph paragraph : paragraphs) {
-            paragraphIndex++;
-            String paragraphText = paragraph.getText().trim();
-            
-            // 跳过空段落
-            if (paragraphText.isEmpty()) {
-                continue;
-            }
-            
-            // 假设第一个非空段落是标题
-            if (!foundTitle) {
-                foundTitle = true;
-                checkTitleFormat(paragraph, paragraphIndex, results);
-            } else {
-                // 检查正文段落格式
-                checkBodyParagraphFormat(paragraph, paragraphIndex, results);
-            }
+    void writeDocument(XWPFDocument document, FixedPackageWriter.Source source, File file) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.WRITE);
+        try {
+            FixedPackageWriter.write(document, source, file);
+        } finally {
+            timer.stop(file);
         }
     }
 
     /**
-     * 检查标题格式
+     * 检查已加载的文档（不修改文档）
      */
-    private void checkTitleFormat(XWPFParagraph paragraph, int paragraphIndex, List<CheckResult> results) {
-        logger.debug("检查标题格式: 第{}段落", paragraphIndex);
-        
-        // 检查标题对齐方式
-        if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-            results.add(new CheckResult(
-                "标题格式",
-                "第" + paragraphIndex + "段落",
-                "标题未居中对齐",
-                "将标题设置为居中对齐"
-            ));
-        }
-        
-        // 检查标题字体
-        for (XWPFRun run : paragraph.getRuns()) {
-            // 检查字体大小
-            if (run.getFontSize() != -1 && run.getFontSize() < TITLE_FONT_SIZE) {
-                results.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "标题字号不符合要求，应为三号字（约" + TITLE_FONT_SIZE + "磅）",
-                    "将标题字号设置为三号字"
-                ));
-            }
-            
-            // 检查字体类型
-            String fontFamily = run.getFontFamily();
-            if (fontFamily != null && !fontFamily.contains(TITLE_FONT_FAMILY)) {
-                results.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "标题字体不符合要求，应为" + TITLE_FONT_FAMILY,
-                    "将标题字体设置为" + TITLE_FONT_FAMILY
-                ));
-            }
-            
-            // 检查是否加粗
-            if (!run.isBold()) {
-                results.add(new CheckResult(
-                    "标题格式",
-                    "第" + paragraphIndex + "段落",
-                    "标题未加粗",
-                    "将标题设置为加粗"
-                ));
-            }
-        }
+    List<CheckResult> checkLoaded(File file, XWPFDocument document, CheckProgressListener listener) {
+        return checkLoaded(file, document, listener, null, null);
     }
 
     /**
-     * 检查正文段落格式
+     * 增量检查已加载的文档：与上次检查相比未改动的段落直接复用上次的结果
+     *
+     * @param file     文档对应的文件，仅用于记录指标
+     * @param previous 上次检查记录的段落指纹，为null时全部重新检查
+     * @param current  用于记录本次检查的段落指纹，为null时不记录
      */
-    private void checkBodyParagraphFormat(XWPFParagraph paragraph, int paragraphIndex, List<CheckResult> results) {
-        logger.debug("检查正文格式: 第{}段落", paragraphIndex);
-        
-        // 检查段落缩进
-        CTP ctp = paragraph.getCTP();
-        CTPPr pPr = ctp.getPPr();
-        if (pPr != null && pPr.isSetInd()) {
-            CTInd ind = pPr.getInd();
-            // 首行缩进，单位是字符数的二十分之一英寸
-            try {
-                if (ind.getFirstLine() != null) {
-                    double firstLineIndent = Double.parseDouble(ind.getFirstLine().toString());
-                    // 约等于2个中文字符的缩进
-                    int requiredIndent = 420; // 约等于2个字符的缩进
-                    if (firstLineIndent < requiredIndent * 0.8) {
-                        results.add(new CheckResult(
-                            "段落格式",
-                            "第" + paragraphIndex + "段落",
-                            "段落首行缩进不足2字符",
-                            "设置段落首行缩进为2字符"
-                        ));
-                    }
-                } else {
-                    results.add(new CheckResult(
-                        "段落格式",
-                        "第" + paragraphIndex + "段落",
-                        "段落未设置首行缩进",
-                        "设置段落首行缩进为2字符"
-                    ));
-                }
-            } catch (NumberFormatException e) {
-                logger.warn("解析段落缩进时出错", e);
-                results.add(new CheckResult(
-                    "段落格式",
-                    "第" + paragraphIndex + "段落",
-                    "无法解析段落缩进值",
-                    "请手动检查段落缩进设置"
-                ));
-            }
-        } else {
-            results.add(new CheckResult(
-                "段落格式",
-                "第" + paragraphIndex + "段落",
-                "段落未设置首行缩进",
-                "设置段落首行缩进为2字符"
-            ));
-        }
-        
-        // 检查行距
-        if (pPr != null && pPr.isSetSpacing()) {
-            CTSpacing spacing = pPr.getSpacing();
-            try {
-                if (spacing.isSetLine() && spacing.getLine() != null) {
-                    // Word中行距单位是twip，1.5倍行距约为360
-                    double lineSpacing = Double.parseDouble(spacing.getLine().toString());
-                    if (lineSpacing < 360) {
-                        results.add(new CheckResult(
-                            "段落格式",
-                            "第" + paragraphIndex + "段落",
-                            "段落行距小于1.5倍",
-                            "设置段落行距为1.5倍"
-                        ));
-                    }
-                } else {
-                    results.add(new CheckResult(
-                        "段落格式",
-                        "第" + paragraphIndex + "段落",
-                        "段落未设置行距",
-                        "设置段落行距为1.5倍"
-                    ));
-                }
-            } catch (NumberFormatException e) {
-                logger.warn("解析行距时出错", e);
-                results.add(new CheckResult(
-                    "段落格式",
-                    "第" + paragraphIndex + "段落",
-                    "无法解析行距值",
-                    "请手动检查行距设置"
-                ));
-            }
+    List<CheckResult> checkLoaded(File file, XWPFDocument document, CheckProgressListener listener,
+                                  ParagraphFingerprintIndex previous, ParagraphFingerprintIndex current) {
+        List<CheckResult> results = new ArrayList<>();
+        ProgressReporter progress = new ProgressReporter(listener, results, DocumentWalker.countElements(document));
+        CountingVisitor counter = new CountingVisitor();
+        
+        // 检查文档属性
+        PhaseTimer timer = PhaseTimer.start(Phase.CHECK_DOCUMENT);
+        plan.checkDocument(SectionInfo.from(document.getDocument().getBody().getSectPr()), results);
+        timer.stop(file, 0, results.size());
+        
+        // 一次遍历完成段落、表格、图片标题检查；没有上次的指纹可复用时先读入列式存储再检查，大文档分块并行，
+        // 需要时同时记录本次的指纹
+        int documentResults = results.size();
+        timer = PhaseTimer.start(Phase.CHECK_BODY);
+        if (previous == null) {
+            ColumnarDocumentChecker.check(document, plan::newCheckVisitor, counter, results, progress, current);
         } else {
-            results.add(new CheckResult(
-                "段落格式",
-                "第" + paragraphIndex + "段落",
-                "段落未设置行距",
-                "设置段落行距为1.5倍"
-            ));
+            new DocumentWalker(createCheckVisitors(counter)).walk(document, results, progress, previous, current);
         }
+        timer.stop(file, counter.getParagraphs(), results.size() - documentResults);
+        counter.publish();
         
-        // 检查字体
-        for (XWPFRun run : paragraph.getRuns()) {
-            // 检查字体大小
-            if (run.getFontSize() != -1 && run.getFontSize() > BODY_FONT_SIZE + 2) {
-                results.add(new CheckResult(
-                    "正文格式",
-                    "第" + paragraphIndex + "段落",
-                    "正文字号过大，应为小四号字（约" + BODY_FONT_SIZE + "磅）",
-                    "将正文字号设置为小四号字"
-                ));
-            }
-            
-            // 检查字体类型
-            String fontFamily = run.getFontFamily();
-            if (fontFamily != null && !fontFamily.contains(BODY_FONT_FAMILY)) {
-                results.add(new CheckResult(
-                    "正文格式",
-                    "第" + paragraphIndex + "段落",
-                    "正文字体不符合要求，应为" + BODY_FONT_FAMILY,
-                    "将正文字体设置为" + BODY_FONT_FAMILY
-                ));
-            }
+        progress.flush();
+        if (previous != null && current != null) {
+            logger.info("增量检查：复用 {} 个段落的结果，重新检查 {} 个段落", current.getReused(), current.getEvaluated());
         }
+        return results;
     }
 
     /**
-     * 检查表格格式
+     * 对已加载的文档依次执行全部修复
+     *
+     * @param file   文档对应的文件，仅用于记录指标
+     * @param source 加载文档时记录的原始文件状态，修复过样式时记录在其中，写出时传给 {@link #writeDocument}
+     * @return 修复的问题列表
      */
-    private void checkTables(XWPFDocument document, List<CheckResult> results) {
-        logger.debug("检查表格格式");
-        
-        List<XWPFTable> tables = document.getTables();
-        int tableIndex = 0;
-        
-        for (XWPFTable table : tables) {
-            tableIndex++;
-            
-            // 检查表格标题
-            XWPFTableRow firstRow = table.getRow(0);
-            if (firstRow != null) {
-                for (XWPFTableCell cell : firstRow.getTableCells()) {
-                    for (XWPFParagraph paragraph : cell.getParagraphs()) {
-                        if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-                            results.add(new CheckResult(
-                                "表格格式",
-                                "表格" + tableIndex,
-                                "表格标题未居中对齐",
-                                "将表格标题设置为居中对齐"
-                            ));
-                            break;
-                        }
-                    }
-                }
-            }
-            
-            // 检查表格内容字体
-            for (int i = 0; i < table.getNumberOfRows(); i++) {
-                XWPFTableRow row = table.getRow(i);
-                for (XWPFTableCell cell : row.getTableCells()) {
-                    for (XWPFParagraph paragraph : cell.getParagraphs()) {
-                        for (XWPFRun run : paragraph.getRuns()) {
-                            // 检查表格内容字体大小
-                            if (run.getFontSize() != -1 && run.getFontSize() > BODY_FONT_SIZE + 2) {
-                                results.add(new CheckResult(
-                                    "表格格式",
-                                    "表格" + tableIndex + "，第" + (i + 1) + "行",
-                                    "表格内容字号过大",
-                                    "将表格内容字号设置为小四号字或更小"
-                                ));
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    List<CheckResult> fixLoaded(File file, XWPFDocument document, FixedPackageWriter.Source source,
+                                CheckProgressListener listener) {
+        List<CheckResult> fixedResults = new ArrayList<>();
+        ProgressReporter progress = new ProgressReporter(listener, fixedResults, DocumentWalker.countElements(document));
+        CountingVisitor counter = new CountingVisitor();
+        
+        // 修复文档属性
+        PhaseTimer timer = PhaseTimer.start(Phase.FIX_DOCUMENT);
+        plan.fixDocument(document, fixedResults);
+        timer.stop(file, 0, fixedResults.size());
+        
+        // 先修复正文共用的样式，再一次遍历完成段落、表格、图片标题修复
+        int documentFixes = fixedResults.size();
+        timer = PhaseTimer.start(Phase.FIX_BODY);
+        StyleResolver styles = StyleFixer.fix(document, plan, source, fixedResults);
+        new DocumentWalker(createFixVisitors(counter)).walk(document, styles, fixedResults, progress);
+        timer.stop(file, counter.getParagraphs(), fixedResults.size() - documentFixes);
+        counter.publish();
+        
+        progress.flush();
+        return fixedResults;
     }
 
     /**
-     * 检查图片格式
+     * 创建检查用的访问器
      */
-    private void checkPictures(XWPFDocument document, List<CheckResult> results) {
-        logger.debug("检查图片格式");
-        
-        // 检查图片标题段落
-        List<XWPFParagraph> paragraphs = document.getParagraphs();
-        int paragraphIndex = 0;
-        
-        for (XWPFParagraph paragraph : paragraphs) {
-            paragraphIndex++;
-            String text = paragraph.getText().trim();
-            
-            // 识别图片标题（通常以"图"开头）
-            if (text.startsWith("图") && text.contains("：")) {
-                if (paragraph.getAlignment() != ParagraphAlignment.CENTER) {
-                    results.add(new CheckResult(
-                        "图片格式",
-                        "第" + paragraphIndex + "段落",
-                        "图片标题未居中对齐",
-                        "将图片标题设置为居中对齐"
-                    ));
-                }
-            }
-        }
+    private List<ElementVisitor> createCheckVisitors(CountingVisitor counter) {
+        return List.of(plan.newCheckVisitor(), counter);
+    }
+
+    /**
+     * 创建修复用的访问器
+     */
+    private List<ElementVisitor> createFixVisitors(CountingVisitor counter) {
+        return List.of(plan.newFixVisitor(), counter);
     }
 
     /**
@@ -840,76 +505,55 @@ public class PaperFormatChecker {
      * @throws IOException 如果写入文件失败
      */
     public void exportReportToHtml(List<CheckResult> results, File file) throws IOException {
+        exportReportToHtml(results.iterator(), file);
+    }
+
+    /**
+     * 以流式方式导出检查报告为HTML文件，逐条写出，内存占用与问题数量无关，适合数万条问题的批量报告
+     *
+     * @param results 检查结果，可以边检查边产生
+     * @param file    输出文件（UTF-8编码）
+     * @throws IOException 如果写入文件失败
+     * @see HtmlReportWriter
+     */
+    public void exportReportToHtml(Iterator<CheckResult> results, File file) throws IOException {
         logger.info("导出检查报告到: {}", file.getPath());
+        DocumentEvent event = DocumentEvent.begin("export", file);
+        PhaseTimer timer = PhaseTimer.start(Phase.EXPORT);
+        
+        long count;
+        try (HtmlReportWriter writer = HtmlReportWriter.open(file)) {
+            writer.writeAll(results);
+            count = writer.getCount();
+        } finally {
+            timer.stop(file);
+        }
         
-        try (FileWriter writer = new FileWriter(file)) {
-            // HTML头部
-            writer.write("<!DOCTYPE html>\n");
-            writer.write("<html lang=\"zh-CN\">\n");
-            writer.write("<head>\n");
-            writer.write("    <meta charset=\"UTF-8\">\n");
-            writer.write("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-            writer.write("    <title>论文格式检查报告</title>\n");
-            writer.write("    <style>\n");
-            writer.write("        body { font-family: Arial, sans-serif; margin: 40px; }\n");
-            writer.write("        h1 { color: #333; text-align: center; }\n");
-            writer.write("        .summary { margin: 20px 0; padding: 10px; background-color: #f5f5f5; border-radius: 5px; }\n");
-            writer.write("        table { width: 100%; border-collapse: collapse; margin-top: 20px; }\n");
-            writer.write("        th, td { padding: 10px; text-align: left; border-bottom: 1px solid #ddd; }\n");
-            writer.write("        th { background-color: #4CAF50; color: white; }\n");
-            writer.write("        tr:hover { background-color: #f5f5f5; }\n");
-            writer.write("        .issue-type { font-weight: bold; }\n");
-            writer.write("        .footer { margin-top: 30px; text-align: center; color: #777; font-size: 14px; }\n");
-            writer.write("    </style>\n");
-            writer.write("</head>\n");
-            writer.write("<body>\n");
-            
-            // 报告标题
-            writer.write("    <h1>论文格式检查报告</h1>\n");
-            
-            // 摘要信息
-            writer.write("    <div class=\"summary\">\n");
-            writer.write("        <p>检查时间: " + java.time.LocalDateTime.now() + "</p>\n");
-            writer.write("        <p>发现问题数量: " + results.size() + "</p>\n");
-            writer.write("    </div>\n");
-            
-            // 结果表格
-            writer.write("    <table>\n");
-            writer.write("        <tr>\n");
-            writer.write("            <th>问题类型</th>\n");
-            writer.write("            <th>位置</th>\n");
-            writer.write("            <th>问题描述</th>\n");
-            writer.write("            <th>修改建议</th>\n");
-            writer.write("        </tr>\n");
-            
-            // 输出每个问题
-            for (CheckResult result : results) {
-                writer.write("        <tr>\n");
-                writer.write("            <td class=\"issue-type\">" + result.getIssueType() + "</td>\n");
-                writer.write("            <td>" + result.getLocation() + "</td>\n");
-                writer.write("            <td>" + result.getDescription() + "</td>\n");
-                writer.write("            <td>" + result.getSuggestion() + "</td>\n");
-                writer.write("        </tr>\n");
-            }
-            
-            writer.write("    </table>\n");
-            
-            // 如果没有问题
-            if (results.isEmpty()) {
-                writer.write("    <p style=\"text-align: center; color: green; font-weight: bold; margin-top: 30px;\">");
-                writer.write("恭喜！未发现格式问题。</p>\n");
-            }
-            
-            // 页脚
-            writer.write("    <div class=\"footer\">\n");
-            writer.write("        <p>论文格式检查工具 - 自动生成报告</p>\n");
-            writer.write("    </div>\n");
-            
-            // HTML尾部
-            writer.write("</body>\n");
-            writer.write("</html>");
+        event.finish((int) Math.min(count, Integer.MAX_VALUE), 0);
+        logger.info("报告导出完成，共 {} 个问题", count);
+    }
+
+    /**
+     * 以指定格式导出一个文档的检查结果
+     *
+     * @param documentId 文档标识，写入每条记录
+     * @param results    检查结果
+     * @param format     导出格式
+     * @param file       输出文件（UTF-8编码）
+     * @throws IOException 如果写入文件失败
+     * @see ResultExporter
+     */
+    public void exportReport(String documentId, List<CheckResult> results, ExportFormat format, File file) throws IOException {
+        logger.info("导出检查结果（{}）到: {}", format, file.getPath());
+        DocumentEvent event = DocumentEvent.begin("export", file);
+        PhaseTimer timer = PhaseTimer.start(Phase.EXPORT);
+        
+        try (ResultExporter exporter = ResultExporter.create(format, new FileOutputStream(file))) {
+            exporter.writeDocument(documentId, results);
+        } finally {
+            timer.stop(file);
         }
         
-        logger.info("报告导出完成");
+        event.finish(results.size(), 0);
     }
 } 
\ No newline at end of file
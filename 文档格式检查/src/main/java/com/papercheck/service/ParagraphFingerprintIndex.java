@@ -0,0 +1,140 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.Location;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 段落指纹索引，用于增量检查
+ * <p>
+ * 记录上一次检查中每个正文段落的指纹（段落文本 + 段落属性pPr + 各文字块属性rPr 的XML，
+ * 该段落是否位于第一个非空段落之前，以及文档样式的指纹）及其检查结果。再次检查时，指纹相同的段落直接复用上次的结果，
+ * 只有新增或修改过的段落才重新执行检查规则。复用的结果中“第N段落”会改为段落的新位置，
+ * 因此插入、删除段落后位置仍然正确。
+ * <p>
+ * 只对基于POI的检查有效，流式检查的段落没有XML可取。索引只保存在内存中，不是线程安全的。
+ */
+public class ParagraphFingerprintIndex {
+    // 指纹 -> 上次检查时的位置及该段落产生的结果
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int reused;
+    private int evaluated;
+
+    /**
+     * @return 本次检查中复用了结果的段落数
+     */
+    public int getReused() {
+        return reused;
+    }
+
+    /**
+     * @return 本次检查中重新执行规则的段落数
+     */
+    public int getEvaluated() {
+        return evaluated;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 计算段落指纹
+     *
+     * @param leading 段落是否位于第一个非空段落之前（含其本身），标题规则依赖这一上下文
+     * @param styles  文档样式的指纹，样式修改后继承的格式随之改变
+     * @return 指纹，段落不是基于POI的节点时为null
+     */
+    static String fingerprint(ParagraphNode node, boolean leading, String styles) {
+        XWPFParagraph paragraph = node.getParagraph();
+        if (paragraph == null) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        update(digest, leading ? "T" : "B");
+        update(digest, styles);
+        update(digest, node.getText());
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        update(digest, pPr == null ? "" : pPr.xmlText());
+        for (XWPFRun run : paragraph.getRuns()) {
+            CTRPr rPr = run.getCTR().getRPr();
+            update(digest, rPr == null ? "" : rPr.xmlText());
+        }
+        // 128位足以避免碰撞
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    /**
+     * 取出指纹相同的段落上次的检查结果，位置改为段落的新位置
+     *
+     * @return 是否命中
+     */
+    boolean reuse(String fingerprint, ParagraphNode node, List<CheckResult> results) {
+        Entry entry = fingerprint == null ? null : entries.get(fingerprint);
+        if (entry == null) {
+            return false;
+        }
+        Location location = node.getPosition();
+        for (CheckResult result : entry.results) {
+            results.add(location.equals(result.getPosition()) || !entry.location.equals(result.getPosition())
+                    ? result
+                    : result.withPosition(location));
+        }
+        return true;
+    }
+
+    /**
+     * 记录段落的检查结果
+     *
+     * @param produced 该段落产生的结果
+     * @param reusedEntry 结果是否来自上次检查
+     */
+    void record(String fingerprint, ParagraphNode node, List<CheckResult> produced, boolean reusedEntry) {
+        if (reusedEntry) {
+            reused++;
+        } else {
+            evaluated++;
+        }
+        if (fingerprint != null) {
+            entries.put(fingerprint, new Entry(node.getPosition(),
+                    produced.isEmpty() ? Collections.emptyList() : new ArrayList<>(produced)));
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0); // 分隔符，避免不同字段拼接后相同
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JRE不支持SHA-256", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Location location;
+        private final List<CheckResult> results;
+
+        private Entry(Location location, List<CheckResult> results) {
+            this.location = location;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.papercheck.service;
+
+import com.papercheck.model.Location;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.util.List;
+
+/**
+ * 遍历时的段落节点
+ * <p>
+ * 检查项只通过本类读取段落文本和格式，不直接访问POI对象，
+ * 因此同一套检查既可以运行在完整加载的 {@link org.apache.poi.xwpf.usermodel.XWPFDocument} 上，
+ * 也可以运行在流式读取得到的 {@link ParagraphSnapshot} 上。
+ */
+public abstract class ParagraphNode {
+    /**
+     * {@link #getFirstLineIndentValue()}、{@link #getSpacingLineValue()}：未设置
+     */
+    public static final int NOT_SET = Integer.MIN_VALUE;
+
+    /**
+     * {@link #getFirstLineIndentValue()}、{@link #getSpacingLineValue()}：设置了但无法解析为数值
+     */
+    public static final int UNPARSABLE = Integer.MIN_VALUE + 1;
+
+    private final int index;
+    private Location location;
+
+    /**
+     * @param index 正文段落序号（从1开始），单元格段落为0
+     */
+    protected ParagraphNode(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return 段落位置，同一段落上的检查结果共用
+     */
+    public Location getPosition() {
+        if (location == null) {
+            location = Location.paragraph(index);
+        }
+        return location;
+    }
+
+    /**
+     * @return 对应的POI段落，用于修复；只读模式下为null
+     */
+    public abstract XWPFParagraph getParagraph();
+
+    /**
+     * @return 去除首尾空白后的段落文本
+     */
+    public abstract String getText();
+
+    public abstract ParagraphAlignment getAlignment();
+
+    /**
+     * @return 段落属性或段落样式中是否有缩进设置（w:ind）
+     */
+    public abstract boolean hasIndent();
+
+    /**
+     * @return 生效的首行缩进原始值（twip，可能带单位），未设置时为null
+     */
+    public abstract String getFirstLineIndent();
+
+    /**
+     * @return 段落属性或段落样式中是否有间距设置（w:spacing）
+     */
+    public abstract boolean hasSpacing();
+
+    /**
+     * @return 生效的行距原始值（twip，可能带单位），未设置时为null
+     */
+    public abstract String getSpacingLine();
+
+    /**
+     * @return 各文本块的字符格式
+     */
+    public abstract List<RunInfo> getRuns();
+
+    /**
+     * @return 首行缩进（twip，向下取整），未设置时为 {@link #NOT_SET}，无法解析时为 {@link #UNPARSABLE}
+     */
+    public int getFirstLineIndentValue() {
+        return toValue(getFirstLineIndent());
+    }
+
+    /**
+     * @return 行距（二百四十分之一行，向下取整），未设置时为 {@link #NOT_SET}，无法解析时为 {@link #UNPARSABLE}
+     */
+    public int getSpacingLineValue() {
+        return toValue(getSpacingLine());
+    }
+
+    /**
+     * 按序号读取文本块格式的方法与 {@link #getRuns()} 等价，检查规则使用这组方法，
+     * 列式存储的节点（{@link DocumentColumns}）不必为每个文本块创建对象
+     *
+     * @return 文本块数
+     */
+    public int getRunCount() {
+        return getRuns().size();
+    }
+
+    /**
+     * @return 第run个文本块的字号（磅），未设置时为-1
+     */
+    public int getRunFontSize(int run) {
+        return getRuns().get(run).getFontSize();
+    }
+
+    /**
+     * @return 第run个文本块的字体，未设置时为null
+     */
+    public String getRunFontFamily(int run) {
+        return getRuns().get(run).getFontFamily();
+    }
+
+    public boolean isRunBold(int run) {
+        return getRuns().get(run).isBold();
+    }
+
+    /**
+     * @return 不计段落上直接设置的格式，从样式继承的首行缩进；未设置或只读模式下为null
+     */
+    public String getInheritedFirstLineIndent() {
+        return null;
+    }
+
+    /**
+     * @return 不计段落上直接设置的格式，从样式继承的行距；未设置或只读模式下为null
+     */
+    public String getInheritedSpacingLine() {
+        return null;
+    }
+
+    /**
+     * 把首行缩进、行距的原始值转为整数。与整数阈值比较时，向下取整后的比较结果与按小数比较相同
+     */
+    static int toValue(String value) {
+        if (value == null) {
+            return NOT_SET;
+        }
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return UNPARSABLE;
+        }
+        if (Double.isNaN(parsed)) {
+            return UNPARSABLE;
+        }
+        return (int) Math.max(Math.floor(parsed), UNPARSABLE + 1);
+    }
+
+    /**
+     * 文本块的字符格式快照，取实际生效的格式（直接设置的格式以及从样式继承的格式）
+     *
+     * @see StyleResolver
+     */
+    public static class RunInfo {
+        private final XWPFRun run;
+        private final int fontSize;
+        private final String fontFamily;
+        private final boolean bold;
+        private final StyleResolver.RunFormat inherited;
+
+        RunInfo(XWPFRun run, StyleResolver.RunFormat inherited, StyleResolver.RunFormat format) {
+            this.run = run;
+            this.fontSize = format.fontSize;
+            this.fontFamily = format.fontFamily;
+            this.bold = format.isBold();
+            this.inherited = inherited;
+        }
+
+        public RunInfo(int fontSize, String fontFamily, boolean bold) {
+            this.run = null;
+            this.fontSize = fontSize;
+            this.fontFamily = fontFamily;
+            this.bold = bold;
+            this.inherited = StyleResolver.RunFormat.NONE;
+        }
+
+        /**
+         * @return 对应的POI文本块；只读模式下为null
+         */
+        public XWPFRun getRun() {
+            return run;
+        }
+
+        /**
+         * @return 字号（磅），文档和样式中都未设置时为-1
+         */
+        public int getFontSize() {
+            return fontSize;
+        }
+
+        /**
+         * @return 字体，文档和样式中都未设置时为null
+         */
+        public String getFontFamily() {
+            return fontFamily;
+        }
+
+        public boolean isBold() {
+            return bold;
+        }
+
+        /**
+         * @return 不计文本块上直接设置的格式，从样式继承的字号；未设置或只读模式下为-1
+         */
+        public int getInheritedFontSize() {
+            return inherited.fontSize;
+        }
+
+        /**
+         * @return 不计文本块上直接设置的格式，从样式继承的字体；未设置或只读模式下为null
+         */
+        public String getInheritedFontFamily() {
+            return inherited.fontFamily;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.papercheck.service;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 不可变的段落快照，不持有任何POI对象
+ * <p>
+ * 由流式读取器直接从XML构造，只能用于检查，不能用于修复。
+ */
+public class ParagraphSnapshot extends ParagraphNode {
+    private final String text;
+    private final ParagraphAlignment alignment;
+    private final boolean indent;
+    private final String firstLineIndent;
+    private final boolean spacing;
+    private final String spacingLine;
+    private final List<RunInfo> runs;
+
+    public ParagraphSnapshot(int index, String text, ParagraphAlignment alignment,
+                             boolean indent, String firstLineIndent,
+                             boolean spacing, String spacingLine, List<RunInfo> runs) {
+        super(index);
+        this.text = text;
+        this.alignment = alignment;
+        this.indent = indent;
+        this.firstLineIndent = firstLineIndent;
+        this.spacing = spacing;
+        this.spacingLine = spacingLine;
+        this.runs = Collections.unmodifiableList(runs);
+    }
+
+    @Override
+    public XWPFParagraph getParagraph() {
+        return null;
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public ParagraphAlignment getAlignment() {
+        return alignment;
+    }
+
+    @Override
+    public boolean hasIndent() {
+        return indent;
+    }
+
+    @Override
+    public String getFirstLineIndent() {
+        return firstLineIndent;
+    }
+
+    @Override
+    public boolean hasSpacing() {
+        return spacing;
+    }
+
+    @Override
+    public String getSpacingLine() {
+        return spacingLine;
+    }
+
+    @Override
+    public List<RunInfo> getRuns() {
+        return runs;
+    }
+}
@@ -0,0 +1,93 @@
+package com.papercheck.service;
+
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+
+/**
+ * 修复时正文段落共用的段落样式
+ * <p>
+ * 格式的getter返回修复前样式实际生效的格式（含其继承的样式和文档默认格式），与段落节点的取值方式相同；
+ * 修复规则通过 {@link #getPPr()}、{@link #getRPr()} 修改样式定义本身，使用该样式的段落随之改变。
+ *
+ * @see StyleFixer
+ */
+public class ParagraphStyle {
+    private final CTStyle style;
+    private final StyleResolver.ParagraphFormat format;
+    private final int paragraphCount;
+
+    ParagraphStyle(CTStyle style, StyleResolver.ParagraphFormat format, int paragraphCount) {
+        this.style = style;
+        this.format = format;
+        this.paragraphCount = paragraphCount;
+    }
+
+    public String getStyleId() {
+        return style.getStyleId();
+    }
+
+    /**
+     * @return 样式名称，没有名称时为样式ID
+     */
+    public String getName() {
+        return style.isSetName() && style.getName().getVal() != null ? style.getName().getVal() : style.getStyleId();
+    }
+
+    /**
+     * @return 使用该样式的正文段落数
+     */
+    public int getParagraphCount() {
+        return paragraphCount;
+    }
+
+    public boolean hasIndent() {
+        return format.indent;
+    }
+
+    /**
+     * @return 首行缩进的原始值（twip，可能带单位），未设置时为null
+     */
+    public String getFirstLineIndent() {
+        return format.firstLineIndent;
+    }
+
+    public boolean hasSpacing() {
+        return format.spacing;
+    }
+
+    /**
+     * @return 行距的原始值（twip，可能带单位），未设置时为null
+     */
+    public String getSpacingLine() {
+        return format.spacingLine;
+    }
+
+    /**
+     * @return 字号（磅），未设置时为-1
+     */
+    public int getFontSize() {
+        return format.run.fontSize;
+    }
+
+    /**
+     * @return 字体，未设置时为null
+     */
+    public String getFontFamily() {
+        return format.run.fontFamily;
+    }
+
+    /**
+     * @return 样式定义的段落属性，没有时新建
+     */
+    public CTPPrGeneral getPPr() {
+        return style.isSetPPr() ? style.getPPr() : style.addNewPPr();
+    }
+
+    /**
+     * @return 样式定义的字符属性，没有时新建
+     */
+    public CTRPr getRPr() {
+        return style.isSetRPr() ? style.getRPr() : style.addNewRPr();
+    }
+}
@@ -0,0 +1,77 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 进度汇报器：按固定步长把进度和新增结果转发给 {@link CheckProgressListener}
+ */
+class ProgressReporter {
+    private static final int BATCH_SIZE = 50; // 每处理50个元素汇报一次
+
+    private final CheckProgressListener listener;
+    private final List<CheckResult> results;
+    private final int total;
+    private int processed;
+    private int flushed;
+
+    /**
+     * @param total 元素总数，未知时为-1
+     */
+    ProgressReporter(CheckProgressListener listener, List<CheckResult> results, int total) {
+        this.listener = listener;
+        this.results = results;
+        this.total = total;
+    }
+
+    /**
+     * 记录一个元素处理完成，必要时汇报进度
+     *
+     * @throws CancellationException 如果任务已被取消
+     */
+    void step() {
+        if (listener.isCancelled()) {
+            throw new CancellationException("任务已取消");
+        }
+        processed++;
+        if (processed % BATCH_SIZE == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * 记录一批元素处理完成并立即汇报，用于在调用线程上汇报其他线程完成的工作
+     *
+     * @throws CancellationException 如果任务已被取消
+     */
+    void advance(int count) {
+        checkCancelled();
+        processed += count;
+        flush();
+    }
+
+    /**
+     * 只检查是否已取消，不计入进度；可在其他线程上调用
+     *
+     * @throws CancellationException 如果任务已被取消
+     */
+    void checkCancelled() {
+        if (listener.isCancelled()) {
+            throw new CancellationException("任务已取消");
+        }
+    }
+
+    /**
+     * 汇报当前进度及尚未推送的结果
+     */
+    void flush() {
+        if (flushed < results.size()) {
+            listener.onResults(new ArrayList<>(results.subList(flushed, results.size())));
+            flushed = results.size();
+        }
+        listener.onProgress(total < 0 ? processed : Math.min(processed, total), total);
+    }
+}
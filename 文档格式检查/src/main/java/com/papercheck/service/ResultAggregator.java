@@ -0,0 +1,273 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.Location;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * 检查结果的流式合并
+ * <p>
+ * 逐个文字块检查的规则会对同一段落报告多条相同的问题，整章段落都缺少缩进时又会报告几百条。
+ * 本类按检查顺序逐条接收结果，把问题类型、描述、建议都相同的结果合并：
+ * <ul>
+ *     <li>同一位置的重复结果合并为一条</li>
+ *     <li>连续段落上的相同问题合并为段落范围，如"第12–87段落"；同一表格的连续行合并为行范围</li>
+ * </ul>
+ * 合并前的条数记在 {@link CheckResult#getCount()} 中。检查位置越过某条结果可以延伸的范围后，该结果就确定下来，
+ * 按首次出现的顺序交给下游，因此只需保存尚未确定的结果，可以边检查边输出。
+ * 非线程安全，每次检查新建一个。
+ */
+public class ResultAggregator implements Consumer<CheckResult> {
+    private final Consumer<CheckResult> downstream;
+    // 尚未确定的结果，按首次出现的顺序排列
+    private final Map<Key, Group> open = new LinkedHashMap<>();
+    // 已确定但前面还有未确定结果的，等前面的输出后再输出
+    private final PriorityQueue<Group> closed = new PriorityQueue<>(Comparator.comparingLong(group -> group.sequence));
+    private Location current;
+    private long sequence;
+    private long received;
+    private long emitted;
+
+    /**
+     * @param downstream 接收合并后的结果
+     */
+    public ResultAggregator(Consumer<CheckResult> downstream) {
+        this.downstream = downstream;
+    }
+
+    /**
+     * 合并一批检查结果
+     *
+     * @param results 按检查顺序排列的结果
+     * @return 合并后的结果，按首次出现的顺序排列
+     */
+    public static List<CheckResult> aggregate(List<CheckResult> results) {
+        List<CheckResult> aggregated = new ArrayList<>();
+        ResultAggregator aggregator = new ResultAggregator(aggregated::add);
+        for (CheckResult result : results) {
+            aggregator.accept(result);
+        }
+        aggregator.finish();
+        return aggregated;
+    }
+
+    /**
+     * 接收下一条检查结果
+     */
+    @Override
+    public void accept(CheckResult result) {
+        received += result.getCount();
+        Location location = result.getPosition();
+        if (!Objects.equals(location, current)) {
+            current = location;
+            closeStale(location);
+        }
+
+        Key key = new Key(result);
+        Group group = open.get(key);
+        if (group != null && group.extend(location, result.getCount())) {
+            return;
+        }
+        if (group != null) {
+            close(group);
+        }
+        open.put(key, new Group(sequence++, key, result));
+        flush();
+    }
+
+    /**
+     * 检查结束，输出全部剩余结果
+     */
+    public void finish() {
+        closed.addAll(open.values());
+        open.clear();
+        flush();
+    }
+
+    /**
+     * @return 已接收的问题数（按合并前计）
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return 已输出的合并后结果数
+     */
+    public long getEmitted() {
+        return emitted;
+    }
+
+    private void closeStale(Location location) {
+        boolean changed = false;
+        for (Iterator<Group> iterator = open.values().iterator(); iterator.hasNext(); ) {
+            Group group = iterator.next();
+            if (group.isStale(location)) {
+                iterator.remove();
+                closed.add(group);
+                changed = true;
+            }
+        }
+        if (changed) {
+            flush();
+        }
+    }
+
+    private void close(Group group) {
+        open.remove(group.key);
+        closed.add(group);
+    }
+
+    private void flush() {
+        long firstOpen = open.isEmpty() ? Long.MAX_VALUE : open.values().iterator().next().sequence;
+        while (!closed.isEmpty() && closed.peek().sequence < firstOpen) {
+            emitted++;
+            downstream.accept(closed.poll().toResult());
+        }
+    }
+
+    /**
+     * 合并的依据：问题内容相同，且位置属于同一类可以连续的元素
+     */
+    private static final class Key {
+        private final String issueType;
+        private final String description;
+        private final String suggestion;
+        private final Object scope;
+
+        Key(CheckResult result) {
+            this.issueType = result.getIssueType();
+            this.description = result.getDescription();
+            this.suggestion = result.getSuggestion();
+            this.scope = scopeOf(result.getPosition());
+        }
+
+        /**
+         * 段落可以跨段合并；表格行只在同一表格内合并；其余位置只合并完全相同的位置
+         */
+        private static Object scopeOf(Location location) {
+            if (location == null) {
+                return null;
+            }
+            switch (location.getKind()) {
+                case PARAGRAPH:
+                    return Location.Kind.PARAGRAPH;
+                case TABLE_ROW:
+                    return List.of(Location.Kind.TABLE_ROW, location.getIndex());
+                default:
+                    return location;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(issueType, other.issueType) && Objects.equals(description, other.description)
+                    && Objects.equals(suggestion, other.suggestion) && Objects.equals(scope, other.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(issueType, description, suggestion, scope);
+        }
+    }
+
+    private static final class Group {
+        private final long sequence;
+        private final Key key;
+        private final CheckResult first;
+        private final Location start;
+        private int end; // 段落序号或行号
+        private int count;
+
+        Group(long sequence, Key key, CheckResult first) {
+            this.sequence = sequence;
+            this.key = key;
+            this.first = first;
+            this.start = first.getPosition();
+            this.end = lastOf(start);
+            this.count = first.getCount();
+        }
+
+        /**
+         * @return 能否把该位置并入本组；能则并入
+         */
+        boolean extend(Location location, int added) {
+            if (location != null && location.getKind() != Location.Kind.DOCUMENT
+                    && location.getKind() != Location.Kind.TABLE && location.getKind() != Location.Kind.TEXT) {
+                int from = location.getKind() == Location.Kind.PARAGRAPH ? location.getIndex() : location.getRow();
+                if (from < firstOf(start) || from > end + 1) {
+                    return false;
+                }
+                end = Math.max(end, location.getEnd());
+            }
+            count += added;
+            return true;
+        }
+
+        /**
+         * @return 检查位置已到达 location 时，本组是否不可能再延伸
+         */
+        boolean isStale(Location location) {
+            if (start == null) {
+                return location != null;
+            }
+            switch (start.getKind()) {
+                case PARAGRAPH:
+                    return location != null && location.getKind() == Location.Kind.PARAGRAPH
+                            && location.getIndex() > end + 1;
+                case TABLE:
+                case TABLE_ROW:
+                    // 同一表格的表头结果（表格位置）和行结果交替出现
+                    if (location == null || (location.getKind() != Location.Kind.TABLE
+                            && location.getKind() != Location.Kind.TABLE_ROW)
+                            || location.getIndex() != start.getIndex()) {
+                        return true;
+                    }
+                    if (location.getKind() == Location.Kind.TABLE_ROW) {
+                        return start.getKind() == Location.Kind.TABLE_ROW && location.getRow() > end + 1;
+                    }
+                    return location.getKind() != Location.Kind.TABLE;
+                case DOCUMENT:
+                    return location == null || location.getKind() != Location.Kind.DOCUMENT;
+                default:
+                    return !start.equals(location);
+            }
+        }
+
+        CheckResult toResult() {
+            Location merged = start;
+            if (start != null && end != lastOf(start)) {
+                merged = start.getKind() == Location.Kind.PARAGRAPH
+                        ? Location.paragraphs(start.getIndex(), end)
+                        : Location.tableRows(start.getIndex(), start.getRow(), end);
+            }
+            if (merged == start && count == first.getCount()) {
+                return first;
+            }
+            CheckResult result = first.withPosition(merged);
+            result.setCount(count);
+            return result;
+        }
+
+        private static int firstOf(Location location) {
+            return location.getKind() == Location.Kind.PARAGRAPH ? location.getIndex() : location.getRow();
+        }
+
+        private static int lastOf(Location location) {
+            return location == null ? 0 : location.getEnd();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.papercheck.service;
+
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+
+/**
+ * 正文节属性（w:body/w:sectPr）中与检查相关的部分
+ * <p>
+ * 页边距保存为原始字符串（twip，可能带单位），解析和判断由检查项负责。
+ */
+public class SectionInfo {
+    private final boolean pageMarginsSet;
+    private final String marginTop;
+    private final String marginBottom;
+    private final String marginLeft;
+    private final String marginRight;
+    private final boolean pageNumberTypeSet;
+
+    public SectionInfo(boolean pageMarginsSet, String marginTop, String marginBottom,
+                       String marginLeft, String marginRight, boolean pageNumberTypeSet) {
+        this.pageMarginsSet = pageMarginsSet;
+        this.marginTop = marginTop;
+        this.marginBottom = marginBottom;
+        this.marginLeft = marginLeft;
+        this.marginRight = marginRight;
+        this.pageNumberTypeSet = pageNumberTypeSet;
+    }
+
+    /**
+     * @param sectPr 节属性，可以为null
+     * @return 节属性信息，sectPr为null时返回null
+     */
+    public static SectionInfo from(CTSectPr sectPr) {
+        if (sectPr == null) {
+            return null;
+        }
+        CTPageMar pgMar = sectPr.getPgMar();
+        if (pgMar == null) {
+            return new SectionInfo(false, null, null, null, null, sectPr.isSetPgNumType());
+        }
+        return new SectionInfo(true, valueOf(pgMar.getTop()), valueOf(pgMar.getBottom()),
+                valueOf(pgMar.getLeft()), valueOf(pgMar.getRight()), sectPr.isSetPgNumType());
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    public boolean isPageMarginsSet() {
+        return pageMarginsSet;
+    }
+
+    public String getMarginTop() {
+        return marginTop;
+    }
+
+    public String getMarginBottom() {
+        return marginBottom;
+    }
+
+    public String getMarginLeft() {
+        return marginLeft;
+    }
+
+    public String getMarginRight() {
+        return marginRight;
+    }
+
+    public boolean isPageNumberTypeSet() {
+        return pageNumberTypeSet;
+    }
+}
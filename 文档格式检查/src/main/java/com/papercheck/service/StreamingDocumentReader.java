@@ -0,0 +1,756 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 流式文档读取器
+ * <p>
+ * 直接从.docx压缩包中用StAX拉取解析主文档XML，边读边构造 {@link ParagraphSnapshot}
+ * 并交给访问器，不构建 {@code XWPFDocument}，内存占用只与单个段落或表格的大小有关。
+ * 段落文本、字号、字体、加粗、对齐、缩进、行距的取值规则与POI对应的getter保持一致，从样式继承的格式
+ * 同样由 {@link StyleResolver} 计算，段落和表格的编号方式与 {@link DocumentWalker} 相同，
+ * 因此同一组访问器会得到相同的结果。
+ * <p>
+ * 每次读取都应使用新实例，不可在线程间共享。
+ */
+class StreamingDocumentReader {
+    private static final String NS_W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String REL_OFFICE_DOCUMENT =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument";
+    private static final String REL_FOOTNOTES =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/footnotes";
+    private static final String REL_ENDNOTES =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/endnotes";
+    private static final String REL_STYLES =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles";
+    private static final String DEFAULT_MAIN_PART = "word/document.xml";
+
+    private final XMLInputFactory factory;
+    // 脚注、尾注文本，键为"f:编号"或"e:编号"
+    private final Map<String, String> notes = new HashMap<>();
+    private StyleResolver styles = StyleResolver.empty();
+
+    StreamingDocumentReader() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * 读取文档并把每个正文元素交给访问器
+     *
+     * @param file     Word文档
+     * @param visitors 访问器
+     * @param results  结果列表，由访问器写入
+     * @param progress 进度汇报器
+     * @return 正文节属性，文档没有节属性时为null
+     * @throws IOException 如果文件读取或XML解析失败
+     */
+    SectionInfo read(File file, List<ElementVisitor> visitors, List<CheckResult> results,
+                     ProgressReporter progress) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            String mainPart = findMainPart(zip);
+            Map<String, String> relationships = readPartRelationships(zip, mainPart);
+            readNotes(zip, relationships);
+            readStyles(zip, relationships.get(REL_STYLES));
+
+            ZipEntry entry = zip.getEntry(mainPart);
+            if (entry == null) {
+                throw new IOException("文档中缺少主文档部件: " + mainPart);
+            }
+            try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+                XMLStreamReader reader = factory.createXMLStreamReader(in);
+                try {
+                    return readDocument(reader, visitors, results, progress);
+                } finally {
+                    reader.close();
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("解析文档XML失败: " + e.getMessage(), e);
+        }
+    }
+
+    // ---------------------------------------------------------------- 包结构
+
+    /**
+     * 从 _rels/.rels 中找到主文档部件名称
+     */
+    private String findMainPart(ZipFile zip) throws IOException, XMLStreamException {
+        Map<String, String> relationships = readRelationships(zip, "_rels/.rels", "");
+        String target = relationships.get(REL_OFFICE_DOCUMENT);
+        return target == null ? DEFAULT_MAIN_PART : target;
+    }
+
+    /**
+     * 读取关系部件，返回 关系类型 -> 目标部件名称（已解析为包内绝对路径，不带前导斜杠）
+     */
+    private Map<String, String> readRelationships(ZipFile zip, String relsPart, String baseDir)
+            throws IOException, XMLStreamException {
+        Map<String, String> relationships = new HashMap<>();
+        ZipEntry entry = zip.getEntry(relsPart);
+        if (entry == null) {
+            return relationships;
+        }
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && NS_RELATIONSHIPS.equals(reader.getNamespaceURI())
+                            && "Relationship".equals(reader.getLocalName())
+                            && !"External".equals(reader.getAttributeValue(null, "TargetMode"))) {
+                        String target = reader.getAttributeValue(null, "Target");
+                        relationships.putIfAbsent(reader.getAttributeValue(null, "Type"),
+                                target.startsWith("/") ? target.substring(1) : baseDir + target);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * 读取主文档部件的关系
+     */
+    private Map<String, String> readPartRelationships(ZipFile zip, String mainPart)
+            throws IOException, XMLStreamException {
+        int slash = mainPart.lastIndexOf('/');
+        String baseDir = mainPart.substring(0, slash + 1);
+        String relsPart = baseDir + "_rels/" + mainPart.substring(slash + 1) + ".rels";
+        return readRelationships(zip, relsPart, baseDir);
+    }
+
+    /**
+     * 读取样式部件，用于计算从样式继承的格式。样式部件很小，直接整体解析
+     */
+    private void readStyles(ZipFile zip, String part) throws IOException {
+        ZipEntry entry = part == null ? null : zip.getEntry(part);
+        if (entry == null) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+            styles = StyleResolver.parse(in);
+        }
+    }
+
+    /**
+     * 读取脚注、尾注文本，用于还原段落文本中的脚注内容
+     */
+    private void readNotes(ZipFile zip, Map<String, String> relationships) throws IOException, XMLStreamException {
+        readNotesPart(zip, relationships.get(REL_FOOTNOTES), "footnote", "f:");
+        readNotesPart(zip, relationships.get(REL_ENDNOTES), "endnote", "e:");
+    }
+
+    private void readNotesPart(ZipFile zip, String part, String noteElement, String keyPrefix)
+            throws IOException, XMLStreamException {
+        ZipEntry entry = part == null ? null : zip.getEntry(part);
+        if (entry == null) {
+            return;
+        }
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && isW(reader, noteElement)) {
+                        String id = normalizeId(reader.getAttributeValue(NS_W, "id"));
+                        StringBuilder text = new StringBuilder();
+                        forEachChild(reader, name -> {
+                            if ("p".equals(name)) {
+                                if (text.length() > 0) {
+                                    text.append('\n');
+                                }
+                                text.append(readParagraphText(reader));
+                            } else {
+                                skipElement(reader);
+                            }
+                        });
+                        notes.putIfAbsent(keyPrefix + id, text.toString());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 正文
+
+    private SectionInfo readDocument(XMLStreamReader reader, List<ElementVisitor> visitors,
+                                     List<CheckResult> results, ProgressReporter progress)
+            throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && isW(reader, "body")) {
+                return readBody(reader, visitors, results, progress);
+            }
+        }
+        return null;
+    }
+
+    private SectionInfo readBody(XMLStreamReader reader, List<ElementVisitor> visitors,
+                                 List<CheckResult> results, ProgressReporter progress)
+            throws XMLStreamException {
+        int[] paragraphIndex = {0};
+        int[] tableIndex = {0};
+        SectionInfo[] section = {null};
+
+        forEachChild(reader, name -> {
+            switch (name) {
+                case "p":
+                    progress.step();
+                    paragraphIndex[0]++;
+                    ParagraphSnapshot paragraph = readParagraph(reader, paragraphIndex[0]);
+                    for (ElementVisitor visitor : visitors) {
+                        visitor.visitParagraph(paragraph, results);
+                    }
+                    break;
+                case "tbl":
+                    progress.step();
+                    tableIndex[0]++;
+                    readTable(reader, new TableNode(null, tableIndex[0]), visitors, results);
+                    break;
+                case "sdt":
+                    // 内容控件也是正文元素，但不计入段落
+                    progress.step();
+                    skipElement(reader);
+                    break;
+                case "sectPr":
+                    section[0] = readSectPr(reader);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        });
+        return section[0];
+    }
+
+    private void readTable(XMLStreamReader reader, TableNode table, List<ElementVisitor> visitors,
+                           List<CheckResult> results) throws XMLStreamException {
+        for (ElementVisitor visitor : visitors) {
+            visitor.visitTable(table, results);
+        }
+
+        int[] rowIndex = {-1};
+        forEachChild(reader, rowName -> {
+            if (!"tr".equals(rowName)) {
+                skipElement(reader);
+                return;
+            }
+            rowIndex[0]++;
+            int[] cellIndex = {-1};
+            forEachChild(reader, cellName -> {
+                if (!"tc".equals(cellName)) {
+                    skipElement(reader);
+                    return;
+                }
+                cellIndex[0]++;
+                forEachChild(reader, name -> {
+                    if (!"p".equals(name)) {
+                        skipElement(reader);
+                        return;
+                    }
+                    ParagraphSnapshot paragraph = readParagraph(reader, 0);
+                    for (ElementVisitor visitor : visitors) {
+                        visitor.visitCellParagraph(table, rowIndex[0], cellIndex[0], paragraph, results);
+                    }
+                });
+            });
+        });
+    }
+
+    private SectionInfo readSectPr(XMLStreamReader reader) throws XMLStreamException {
+        String[] margins = new String[4];
+        boolean[] flags = new boolean[2]; // 0: 有页边距  1: 有页码设置
+        forEachChild(reader, name -> {
+            if ("pgMar".equals(name)) {
+                flags[0] = true;
+                margins[0] = reader.getAttributeValue(NS_W, "top");
+                margins[1] = reader.getAttributeValue(NS_W, "bottom");
+                margins[2] = reader.getAttributeValue(NS_W, "left");
+                margins[3] = reader.getAttributeValue(NS_W, "right");
+            } else if ("pgNumType".equals(name)) {
+                flags[1] = true;
+            }
+            skipElement(reader);
+        });
+        return new SectionInfo(flags[0], margins[0], margins[1], margins[2], margins[3], flags[1]);
+    }
+
+    // ---------------------------------------------------------------- 段落
+
+    private ParagraphSnapshot readParagraph(XMLStreamReader reader, int index) throws XMLStreamException {
+        ParagraphContent content = new ParagraphContent();
+        forEachChild(reader, name -> {
+            if ("pPr".equals(name)) {
+                readPPr(reader, content);
+            } else {
+                readRunContainerChild(reader, name, content);
+            }
+        });
+        return content.toSnapshot(index, styles);
+    }
+
+    /**
+     * 只读取段落文本（用于脚注、尾注）
+     */
+    private String readParagraphText(XMLStreamReader reader) throws XMLStreamException {
+        ParagraphContent content = new ParagraphContent();
+        forEachChild(reader, name -> readRunContainerChild(reader, name, content));
+        return content.fullText();
+    }
+
+    private void readPPr(XMLStreamReader reader, ParagraphContent content) throws XMLStreamException {
+        forEachChild(reader, name -> {
+            switch (name) {
+                case "pStyle":
+                    content.styleId = reader.getAttributeValue(NS_W, "val");
+                    break;
+                case "jc":
+                    STJc.Enum jc = STJc.Enum.forString(reader.getAttributeValue(NS_W, "val"));
+                    if (jc != null) {
+                        content.alignment = ParagraphAlignment.valueOf(jc.intValue());
+                    }
+                    break;
+                case "ind":
+                    content.indent = true;
+                    content.firstLineIndent = reader.getAttributeValue(NS_W, "firstLine");
+                    break;
+                case "spacing":
+                    content.spacing = true;
+                    content.spacingLine = reader.getAttributeValue(NS_W, "line");
+                    break;
+                default:
+                    break;
+            }
+            skipElement(reader);
+        });
+    }
+
+    /**
+     * 处理段落（或智能标记等容器）中的一个子元素，规则与 XWPFParagraph 构造文本块列表的方式一致
+     */
+    private void readRunContainerChild(XMLStreamReader reader, String name, ParagraphContent content)
+            throws XMLStreamException {
+        switch (name) {
+            case "r":
+                readRun(reader, content);
+                break;
+            case "hyperlink":
+            case "fldSimple":
+                forEachChild(reader, child -> {
+                    if ("r".equals(child)) {
+                        readRun(reader, content);
+                    } else {
+                        skipElement(reader);
+                    }
+                });
+                break;
+            case "ins":
+            case "del":
+            case "moveFrom":
+            case "moveTo":
+                // 修订中的文本块照常参与检查；嵌套的插入内容按普通容器处理
+                forEachChild(reader, child -> {
+                    if ("r".equals(child)) {
+                        readRun(reader, content);
+                    } else if ("ins".equals(child)) {
+                        forEachChild(reader, nested -> readRunContainerChild(reader, nested, content));
+                    } else {
+                        skipElement(reader);
+                    }
+                });
+                break;
+            case "smartTag":
+                forEachChild(reader, child -> readRunContainerChild(reader, child, content));
+                break;
+            case "sdt":
+                // 内容控件只贡献文本，不作为文本块参与格式检查
+                readSdtText(reader, content.text);
+                break;
+            default:
+                skipElement(reader);
+        }
+    }
+
+    private void readSdtText(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        forEachChild(reader, name -> {
+            if (!"sdtContent".equals(name)) {
+                skipElement(reader);
+                return;
+            }
+            forEachChild(reader, child -> {
+                if ("r".equals(child)) {
+                    RunContent run = readRunContent(reader);
+                    text.append(run.displayText());
+                } else if ("sdt".equals(child)) {
+                    readSdtText(reader, text);
+                } else {
+                    skipElement(reader);
+                }
+            });
+        });
+    }
+
+    private void readRun(XMLStreamReader reader, ParagraphContent content) throws XMLStreamException {
+        RunContent run = readRunContent(reader);
+        StyleResolver.RunFormat format = styles.runStyle(content.style(styles), run.styleId)
+                .merge(run.fontSize, run.fontFamily, run.bold);
+        content.runs.add(new ParagraphNode.RunInfo(format.fontSize, format.fontFamily, format.isBold()));
+        // 删除修订中的文本不计入段落文本
+        if (!run.deleted) {
+            content.text.append(run.displayText());
+        }
+        for (String noteKey : run.noteReferences) {
+            String id = noteKey.substring(2);
+            String noteText = notes.get(noteKey);
+            content.noteText.append(" [").append(id).append(": ");
+            if (noteText != null) {
+                content.noteText.append(noteText);
+            } else {
+                content.noteText.append("!!! End note with ID \"").append(id).append("\" not found in document.");
+            }
+            content.noteText.append("] ");
+        }
+    }
+
+    private RunContent readRunContent(XMLStreamReader reader) throws XMLStreamException {
+        RunContent run = new RunContent();
+        forEachChild(reader, name -> {
+            switch (name) {
+                case "rPr":
+                    readRPr(reader, run);
+                    break;
+                case "t":
+                case "delInstrText":
+                    run.text.append(reader.getElementText());
+                    break;
+                case "delText":
+                    run.deleted = true;
+                    run.text.append(reader.getElementText());
+                    break;
+                case "tab":
+                case "ptab":
+                    run.text.append('\t');
+                    skipElement(reader);
+                    break;
+                case "br":
+                case "cr":
+                    run.text.append('\n');
+                    skipElement(reader);
+                    break;
+                case "footnoteReference":
+                case "endnoteReference":
+                    String id = normalizeId(reader.getAttributeValue(NS_W, "id"));
+                    boolean footnote = "footnoteReference".equals(name);
+                    run.text.append(footnote ? "[footnoteRef:" : "[endnoteRef:").append(id).append(']');
+                    run.noteReferences.add((footnote ? "f:" : "e:") + id);
+                    skipElement(reader);
+                    break;
+                case "fldChar":
+                    readFldChar(reader, run.text);
+                    break;
+                case "ruby":
+                    readRuby(reader, run);
+                    break;
+                case "pict":
+                case "drawing":
+                    collectPictureText(reader, run.pictureText);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        });
+        return run;
+    }
+
+    private void readRPr(XMLStreamReader reader, RunContent run) throws XMLStreamException {
+        boolean[] seen = new boolean[4]; // 只取第一个 sz、rFonts、b、rStyle
+        forEachChild(reader, name -> {
+            if ("rStyle".equals(name) && !seen[3]) {
+                seen[3] = true;
+                run.styleId = reader.getAttributeValue(NS_W, "val");
+            } else if ("sz".equals(name) && !seen[0]) {
+                seen[0] = true;
+                String val = reader.getAttributeValue(NS_W, "val");
+                run.fontSize = val == null ? -1 : toFontSize(val);
+            } else if ("rFonts".equals(name) && !seen[1]) {
+                seen[1] = true;
+                run.fontFamily = reader.getAttributeValue(NS_W, "ascii");
+            } else if ("b".equals(name) && !seen[2]) {
+                seen[2] = true;
+                run.bold = isOn(reader.getAttributeValue(NS_W, "val"));
+            }
+            skipElement(reader);
+        });
+    }
+
+    /**
+     * 复选框域在文本中显示为 |X| 或 |_|
+     */
+    private void readFldChar(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        boolean begin = "begin".equals(reader.getAttributeValue(NS_W, "fldCharType"));
+        forEachChild(reader, name -> {
+            if (!begin || !"ffData".equals(name)) {
+                skipElement(reader);
+                return;
+            }
+            forEachChild(reader, child -> {
+                if (!"checkBox".equals(child)) {
+                    skipElement(reader);
+                    return;
+                }
+                boolean[] checked = {false};
+                forEachChild(reader, option -> {
+                    if ("default".equals(option)) {
+                        checked[0] = isOn(reader.getAttributeValue(NS_W, "val"));
+                    }
+                    skipElement(reader);
+                });
+                text.append(checked[0] ? "|X|" : "|_|");
+            });
+        });
+    }
+
+    /**
+     * 注音：基准文字计入文本，注音文字计入拼音部分
+     */
+    private void readRuby(XMLStreamReader reader, RunContent run) throws XMLStreamException {
+        forEachChild(reader, name -> {
+            if ("rt".equals(name)) {
+                collectInlineText(reader, run.phonetic);
+            } else if ("rubyBase".equals(name)) {
+                collectInlineText(reader, run.text);
+            } else {
+                skipElement(reader);
+            }
+        });
+    }
+
+    private void collectInlineText(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isW(reader, "t")) {
+                    text.append(reader.getElementText());
+                } else if (isW(reader, "tab") || isW(reader, "ptab")) {
+                    text.append('\t');
+                    depth++;
+                } else if (isW(reader, "br") || isW(reader, "cr")) {
+                    text.append('\n');
+                    depth++;
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 图片、绘图对象中的文本框文字
+     */
+    private void collectPictureText(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isW(reader, "t")) {
+                    String value = reader.getElementText();
+                    if (!value.isEmpty()) {
+                        if (text.length() > 0) {
+                            text.append('\n');
+                        }
+                        text.append(value);
+                    }
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 取值规则
+
+    /**
+     * 与 XWPFRun.getFontSize() 相同：半磅值换算为磅后按四舍五入取整（带单位时按POI的换算方式）
+     */
+    static int toFontSize(String value) {
+        String str = value.toLowerCase(Locale.ROOT);
+        double digits = Double.parseDouble(str.replaceAll("(mm|cm|in|pt|pc|pi)", ""));
+        long emu;
+        if (str.endsWith("mm")) {
+            emu = (long) (((digits / 10f) / 2.54f) * Units.EMU_PER_INCH);
+        } else if (str.endsWith("cm")) {
+            emu = (long) ((digits / 2.54f) * Units.EMU_PER_INCH);
+        } else if (str.endsWith("in")) {
+            emu = (long) (digits * Units.EMU_PER_INCH);
+        } else if (str.endsWith("pc") || str.endsWith("pi")) {
+            emu = (long) (digits * 0.166f * Units.EMU_PER_INCH);
+        } else if (str.endsWith("pt")) {
+            emu = (long) (digits * Units.EMU_PER_POINT);
+        } else {
+            emu = (long) (digits * Units.EMU_PER_POINT * 2d);
+        }
+        return BigDecimal.valueOf(Units.toPoints(emu))
+                .divide(BigDecimal.valueOf(4), 0, RoundingMode.HALF_UP)
+                .intValue();
+    }
+
+    /**
+     * 开关属性：未设置val时为开
+     */
+    private static boolean isOn(String value) {
+        return value == null || "true".equalsIgnoreCase(value) || "on".equalsIgnoreCase(value)
+                || "x".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    private static String normalizeId(String id) {
+        try {
+            return new BigInteger(id.trim()).toString();
+        } catch (RuntimeException e) {
+            return String.valueOf(id);
+        }
+    }
+
+    // ---------------------------------------------------------------- XML工具
+
+    private static boolean isW(XMLStreamReader reader, String localName) {
+        return localName.equals(reader.getLocalName()) && NS_W.equals(reader.getNamespaceURI());
+    }
+
+    /**
+     * 依次处理当前元素的直接子元素（只包括w命名空间，其他命名空间的元素直接跳过）。
+     * 处理器被调用时读取器位于子元素的开始标签，返回前必须读到该子元素的结束标签；
+     * 本方法返回时读取器位于当前元素的结束标签。
+     */
+    private static void forEachChild(XMLStreamReader reader, ChildHandler handler) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (NS_W.equals(reader.getNamespaceURI())) {
+                    handler.handle(reader.getLocalName());
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 跳过当前元素，返回时读取器位于其结束标签
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChildHandler {
+        void handle(String localName) throws XMLStreamException;
+    }
+
+    /**
+     * 读取中的段落内容
+     */
+    private static class ParagraphContent {
+        final StringBuilder text = new StringBuilder(64);
+        final StringBuilder noteText = new StringBuilder();
+        final List<ParagraphNode.RunInfo> runs = new ArrayList<>();
+        String styleId;
+        ParagraphAlignment alignment;
+        boolean indent;
+        String firstLineIndent;
+        boolean spacing;
+        String spacingLine;
+        private StyleResolver.ParagraphFormat style;
+
+        String fullText() {
+            return text.append(noteText).toString();
+        }
+
+        /**
+         * @return 段落样式的格式；段落属性pPr位于文本块之前，读取文本块时样式已确定
+         */
+        StyleResolver.ParagraphFormat style(StyleResolver styles) {
+            if (style == null) {
+                style = styles.paragraphStyle(styleId);
+            }
+            return style;
+        }
+
+        ParagraphSnapshot toSnapshot(int index, StyleResolver styles) {
+            StyleResolver.ParagraphFormat inherited = style(styles);
+            ParagraphAlignment effective = alignment != null ? alignment
+                    : inherited.alignment != null ? inherited.alignment : ParagraphAlignment.LEFT;
+            return new ParagraphSnapshot(index, fullText().trim(), effective,
+                    indent || inherited.indent, firstLineIndent != null ? firstLineIndent : inherited.firstLineIndent,
+                    spacing || inherited.spacing, spacingLine != null ? spacingLine : inherited.spacingLine, runs);
+        }
+    }
+
+    /**
+     * 读取中的文本块内容
+     */
+    private static class RunContent {
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder phonetic = new StringBuilder();
+        final StringBuilder pictureText = new StringBuilder();
+        final List<String> noteReferences = new ArrayList<>(0);
+        String styleId;
+        int fontSize = -1;
+        String fontFamily;
+        Boolean bold;
+        boolean deleted;
+
+        /**
+         * 与 XWPFRun.toString() 相同：文本后附带注音和图片文字
+         */
+        String displayText() {
+            StringBuilder extra = new StringBuilder(phonetic);
+            if (pictureText.length() > 0) {
+                extra.append('\n').append(pictureText).append('\n');
+            }
+            return extra.length() == 0 ? text.toString() : text + " (" + extra + ")";
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.rule.RulePlan;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 样式级修复
+ * <p>
+ * 正文段落通常都使用同一个段落样式（如"正文文本"或学校模板中的正文样式）。逐段修复会给每个段落写上缩进、行距，给每个文字块写上字体、字号，
+ * 正文XML随之膨胀，写出、再次检查和打开都变慢。修复正文之前，先统计正文段落使用的样式，
+ * 超过半数的正文段落使用同一样式时，由正文规则直接修改该样式的定义（{@link RulePlan#fixParagraphStyle}）。
+ * 之后逐段修复时按修改后的样式计算生效的格式：从样式继承的格式已符合要求的段落不再改动，
+ * 直接格式与之冲突的改为删除直接格式，只有使用其他样式的段落才逐段写入格式。
+ * <p>
+ * 改写样式会影响所有使用它的段落。样式是默认段落样式（未指定样式的标题、表格单元格等都使用它）、
+ * 被其他样式继承，或者标题、表格、页眉页脚、脚注中也有段落使用它时，不改写样式，仍逐段修复。
+ */
+final class StyleFixer {
+    private static final Logger logger = LoggerFactory.getLogger(StyleFixer.class);
+
+    private StyleFixer() {
+    }
+
+    /**
+     * 修复正文段落共用的样式
+     *
+     * @param source 改写了样式时记录在其中，写出时重新生成样式部件
+     * @return 逐段修复时使用的样式解析器，反映修复后的样式
+     */
+    static StyleResolver fix(XWPFDocument document, RulePlan plan, FixedPackageWriter.Source source,
+                             List<CheckResult> fixedResults) {
+        if (!plan.hasBodyRules() || document.getStyles() == null) {
+            return StyleResolver.of(document);
+        }
+        StyleResolver resolver;
+        try {
+            resolver = StyleResolver.of(document.getStyle());
+        } catch (XmlException | IOException e) {
+            logger.warn("读取文档样式失败，逐段修复: {}", e.getMessage());
+            return StyleResolver.empty();
+        }
+
+        // 与执行计划相同：第一个非空段落是标题，之后的非空段落是正文
+        Map<String, Integer> counts = new HashMap<>();
+        // 正文以外的段落使用的样式：标题及其之前的段落、表格中的段落
+        Set<String> otherStyles = new HashSet<>();
+        int bodyParagraphs = 0;
+        boolean foundTitle = false;
+        for (IBodyElement element : document.getBodyElements()) {
+            if (element instanceof XWPFTable) {
+                collectStyles((XWPFTable) element, resolver, otherStyles);
+                continue;
+            }
+            if (!(element instanceof XWPFParagraph)) {
+                continue;
+            }
+            XWPFParagraph paragraph = (XWPFParagraph) element;
+            boolean empty = paragraph.getText().trim().isEmpty();
+            if (!foundTitle) {
+                otherStyles.add(resolver.paragraphStyleId(paragraph.getStyleID()));
+                foundTitle = !empty;
+                continue;
+            }
+            if (empty) {
+                continue;
+            }
+            bodyParagraphs++;
+            String styleId = resolver.paragraphStyleId(paragraph.getStyleID());
+            if (styleId != null) {
+                counts.merge(styleId, 1, Integer::sum);
+            }
+        }
+
+        String shared = null;
+        int sharedCount = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > sharedCount) {
+                shared = entry.getKey();
+                sharedCount = entry.getValue();
+            }
+        }
+        if (shared == null || sharedCount * 2 <= bodyParagraphs) {
+            return resolver;
+        }
+        if (shared.equals(resolver.paragraphStyleId(null)) || resolver.hasDerivedStyles(shared)
+                || otherStyles.contains(shared) || usedOutsideBody(document, resolver, shared)) {
+            logger.info("样式 {} 还被正文以外的段落或其他样式使用，逐段修复", shared);
+            return resolver;
+        }
+
+        // 修改POI持有的样式对象，写出时序列化的就是修改后的样式
+        XWPFStyle live = document.getStyles().getStyle(shared);
+        if (live == null) {
+            return resolver;
+        }
+        int before = fixedResults.size();
+        plan.fixParagraphStyle(new ParagraphStyle(live.getCTStyle(), resolver.paragraphStyle(shared), sharedCount),
+                fixedResults);
+        if (fixedResults.size() == before) {
+            return resolver;
+        }
+
+        CTStyles styles;
+        try (XmlCursor cursor = live.getCTStyle().newCursor()) {
+            cursor.toParent();
+            styles = (CTStyles) cursor.getObject();
+        }
+        source.setModifiedStyles(styles);
+        logger.info("已修复样式 {}，{} / {} 个正文段落使用该样式", shared, sharedCount, bodyParagraphs);
+        return StyleResolver.of(styles);
+    }
+
+    /**
+     * @return 页眉、页脚、脚注、尾注中是否有段落使用该样式
+     */
+    private static boolean usedOutsideBody(XWPFDocument document, StyleResolver resolver, String styleId) {
+        Set<String> styles = new HashSet<>();
+        List<IBody> parts = new ArrayList<>();
+        parts.addAll(document.getHeaderList());
+        parts.addAll(document.getFooterList());
+        parts.addAll(document.getFootnotes());
+        parts.addAll(document.getEndnotes());
+        for (IBody part : parts) {
+            collectStyles(part.getBodyElements(), resolver, styles);
+        }
+        return styles.contains(styleId);
+    }
+
+    private static void collectStyles(List<IBodyElement> elements, StyleResolver resolver, Set<String> styles) {
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph) {
+                styles.add(resolver.paragraphStyleId(((XWPFParagraph) element).getStyleID()));
+            } else if (element instanceof XWPFTable) {
+                collectStyles((XWPFTable) element, resolver, styles);
+            }
+        }
+    }
+
+    private static void collectStyles(XWPFTable table, StyleResolver resolver, Set<String> styles) {
+        for (XWPFTableRow row : table.getRows()) {
+            for (XWPFTableCell cell : row.getTableCells()) {
+                collectStyles(cell.getBodyElements(), resolver, styles);
+            }
+        }
+    }
+}
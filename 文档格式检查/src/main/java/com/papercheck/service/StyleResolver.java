@@ -0,0 +1,369 @@
+package com.papercheck.service;
+
+import org.apache.poi.ooxml.util.POIXMLUnits;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocDefaults;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrBase;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSpacing;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.StylesDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+/**
+ * 样式继承解析
+ * <p>
+ * Word中段落和文字块的格式大多来自样式，直接读取段落属性pPr、文字块属性rPr时得不到这部分格式。
+ * 本类按Word的优先级计算实际生效的格式，后者覆盖前者：
+ * <ol>
+ *     <li>文档默认格式（styles.xml 中的 w:docDefaults）</li>
+ *     <li>段落样式，沿 w:basedOn 从最顶层的样式依次向下；段落未指定样式时使用默认段落样式</li>
+ *     <li>字符样式（w:rStyle），同样沿 w:basedOn 继承，只影响字符格式</li>
+ *     <li>段落、文字块上直接设置的格式</li>
+ * </ol>
+ * 每个样式的继承链只解析一次，段落样式与字符样式的组合也只合并一次，之后的段落、文字块只需查表，
+ * 解析成本与文档中不同样式的数量有关，与段落、文字块的数量无关。
+ * 缩进、行距按属性逐项继承；加粗等开关属性按后者覆盖前者处理；表格样式、编号格式不参与计算。
+ * <p>
+ * 只解析本次检查所需的格式项。非线程安全，每次遍历新建一个。
+ */
+final class StyleResolver {
+    private static final Logger logger = LoggerFactory.getLogger(StyleResolver.class);
+
+    private final CTStyles styles;
+    private final Map<String, CTStyle> definitions = new HashMap<>();
+    private final ParagraphFormat defaults;
+    private final String defaultParagraphStyle;
+    // 已解析的段落样式、字符样式，键为样式ID
+    private final Map<String, ParagraphFormat> paragraphStyles = new HashMap<>();
+    private final Map<String, RunFormat> characterStyles = new HashMap<>();
+    // 段落样式与字符样式组合后的字符格式
+    private final Map<ParagraphFormat, Map<String, RunFormat>> combined = new HashMap<>();
+    private String fingerprint;
+
+    private StyleResolver(CTStyles styles) {
+        this.styles = styles;
+        String defaultStyle = null;
+        ParagraphFormat base = ParagraphFormat.NONE;
+        if (styles != null) {
+            for (CTStyle style : styles.getStyleArray()) {
+                if (style.getStyleId() == null) {
+                    continue;
+                }
+                definitions.putIfAbsent(style.getStyleId(), style);
+                if (defaultStyle == null && style.getType() == STStyleType.PARAGRAPH
+                        && style.isSetDefault() && POIXMLUnits.parseOnOff(style.xgetDefault())) {
+                    defaultStyle = style.getStyleId();
+                }
+            }
+            if (styles.isSetDocDefaults()) {
+                CTDocDefaults docDefaults = styles.getDocDefaults();
+                CTPPrBase pPr = docDefaults.isSetPPrDefault() && docDefaults.getPPrDefault().isSetPPr()
+                        ? docDefaults.getPPrDefault().getPPr() : null;
+                CTRPr rPr = docDefaults.isSetRPrDefault() && docDefaults.getRPrDefault().isSetRPr()
+                        ? docDefaults.getRPrDefault().getRPr() : null;
+                base = base.merge(pPr, rPr);
+            }
+        }
+        this.defaults = base;
+        this.defaultParagraphStyle = defaultStyle;
+    }
+
+    /**
+     * 没有样式部件的文档：所有格式都只来自直接设置
+     */
+    static StyleResolver empty() {
+        return new StyleResolver(null);
+    }
+
+    /**
+     * 解析已加载文档的样式，文档没有样式部件时返回 {@link #empty()}
+     */
+    static StyleResolver of(XWPFDocument document) {
+        if (document.getStyles() == null) {
+            return empty();
+        }
+        try {
+            return new StyleResolver(document.getStyle());
+        } catch (XmlException | IOException e) {
+            logger.warn("读取文档样式失败，按无样式处理: {}", e.getMessage());
+            return empty();
+        }
+    }
+
+    /**
+     * 使用已解析的样式，修复时用于计算改写样式之后的格式
+     */
+    static StyleResolver of(CTStyles styles) {
+        return new StyleResolver(styles);
+    }
+
+    /**
+     * 解析样式部件（styles.xml）
+     */
+    static StyleResolver parse(InputStream in) throws IOException {
+        try {
+            return new StyleResolver(StylesDocument.Factory.parse(in, DEFAULT_XML_OPTIONS).getStyles());
+        } catch (XmlException e) {
+            throw new IOException("解析样式XML失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param styleId 段落上指定的样式ID，未指定时为null
+     * @return 段落实际使用的样式ID：未指定或样式不存在时为默认段落样式，没有默认段落样式时为null
+     */
+    String paragraphStyleId(String styleId) {
+        return styleId != null && definitions.containsKey(styleId) ? styleId : defaultParagraphStyle;
+    }
+
+    /**
+     * @return 样式定义，不存在时为null
+     */
+    CTStyle definition(String styleId) {
+        return styleId == null ? null : definitions.get(styleId);
+    }
+
+    /**
+     * @return 是否有其他样式沿 w:basedOn 直接或间接继承该样式
+     */
+    boolean hasDerivedStyles(String styleId) {
+        for (CTStyle style : definitions.values()) {
+            Set<String> visiting = new HashSet<>();
+            visiting.add(style.getStyleId());
+            CTStyle current = style;
+            while (current.isSetBasedOn()) {
+                String basedOn = current.getBasedOn().getVal();
+                if (styleId.equals(basedOn)) {
+                    return true;
+                }
+                current = definitions.get(basedOn);
+                if (current == null || !visiting.add(basedOn)) {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param styleId 段落样式ID，未指定时为null
+     * @return 段落样式（含其继承的样式和文档默认格式）生效的格式
+     */
+    ParagraphFormat paragraphStyle(String styleId) {
+        styleId = paragraphStyleId(styleId);
+        if (styleId == null) {
+            return defaults;
+        }
+        ParagraphFormat cached = paragraphStyles.get(styleId);
+        return cached != null ? cached : resolveParagraphStyle(styleId, new HashSet<>());
+    }
+
+    /**
+     * @param paragraphStyle 所在段落的样式格式，由 {@link #paragraphStyle} 得到
+     * @param runStyleId     字符样式ID，未指定时为null
+     * @return 文字块在直接格式之前生效的字符格式
+     */
+    RunFormat runStyle(ParagraphFormat paragraphStyle, String runStyleId) {
+        if (runStyleId == null) {
+            return paragraphStyle.run;
+        }
+        Map<String, RunFormat> byRunStyle = combined.get(paragraphStyle);
+        if (byRunStyle == null) {
+            byRunStyle = new HashMap<>();
+            combined.put(paragraphStyle, byRunStyle);
+        }
+        RunFormat format = byRunStyle.get(runStyleId);
+        if (format == null) {
+            format = paragraphStyle.run.merge(resolveCharacterStyle(runStyleId, new HashSet<>()));
+            byRunStyle.put(runStyleId, format);
+        }
+        return format;
+    }
+
+    /**
+     * @return 样式部件内容的指纹，样式修改后随之变化；没有样式部件时为空字符串
+     */
+    String getFingerprint() {
+        if (fingerprint == null) {
+            if (styles == null) {
+                fingerprint = "";
+            } else {
+                MessageDigest digest;
+                try {
+                    digest = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("SHA-256 不可用", e);
+                }
+                byte[] hash = digest.digest(styles.xmlText().getBytes(StandardCharsets.UTF_8));
+                fingerprint = Base64.getEncoder().encodeToString(Arrays.copyOf(hash, 16));
+            }
+        }
+        return fingerprint;
+    }
+
+    private ParagraphFormat resolveParagraphStyle(String styleId, Set<String> visiting) {
+        ParagraphFormat cached = paragraphStyles.get(styleId);
+        if (cached != null) {
+            return cached;
+        }
+        CTStyle style = definitions.get(styleId);
+        if (style == null || !visiting.add(styleId)) {
+            // 不存在或循环继承的样式不再向上查找
+            return defaults;
+        }
+        String basedOn = style.isSetBasedOn() ? style.getBasedOn().getVal() : null;
+        ParagraphFormat parent = basedOn == null ? defaults : resolveParagraphStyle(basedOn, visiting);
+        ParagraphFormat resolved = parent.merge(style.isSetPPr() ? style.getPPr() : null,
+                style.isSetRPr() ? style.getRPr() : null);
+        paragraphStyles.put(styleId, resolved);
+        return resolved;
+    }
+
+    private RunFormat resolveCharacterStyle(String styleId, Set<String> visiting) {
+        RunFormat cached = characterStyles.get(styleId);
+        if (cached != null) {
+            return cached;
+        }
+        CTStyle style = definitions.get(styleId);
+        if (style == null || !visiting.add(styleId)) {
+            return RunFormat.NONE;
+        }
+        String basedOn = style.isSetBasedOn() ? style.getBasedOn().getVal() : null;
+        RunFormat parent = basedOn == null ? RunFormat.NONE : resolveCharacterStyle(basedOn, visiting);
+        RunFormat resolved = parent.merge(style.isSetRPr() ? style.getRPr() : null);
+        characterStyles.put(styleId, resolved);
+        return resolved;
+    }
+
+    /**
+     * 段落格式，未设置的项为null（缩进、行距另有是否设置的标记），不可变
+     */
+    static final class ParagraphFormat {
+        static final ParagraphFormat NONE = new ParagraphFormat(null, false, null, false, null, RunFormat.NONE);
+
+        final ParagraphAlignment alignment;
+        final boolean indent;
+        final String firstLineIndent;
+        final boolean spacing;
+        final String spacingLine;
+        final RunFormat run;
+
+        private ParagraphFormat(ParagraphAlignment alignment, boolean indent, String firstLineIndent,
+                                boolean spacing, String spacingLine, RunFormat run) {
+            this.alignment = alignment;
+            this.indent = indent;
+            this.firstLineIndent = firstLineIndent;
+            this.spacing = spacing;
+            this.spacingLine = spacingLine;
+            this.run = run;
+        }
+
+        private ParagraphFormat merge(CTPPrBase pPr, CTRPr rPr) {
+            ParagraphAlignment mergedAlignment = alignment;
+            boolean mergedIndent = indent;
+            String mergedFirstLine = firstLineIndent;
+            boolean mergedSpacing = spacing;
+            String mergedLine = spacingLine;
+            if (pPr != null) {
+                if (pPr.isSetJc() && pPr.getJc().getVal() != null) {
+                    mergedAlignment = ParagraphAlignment.valueOf(pPr.getJc().getVal().intValue());
+                }
+                if (pPr.isSetInd()) {
+                    CTInd ind = pPr.getInd();
+                    mergedIndent = true;
+                    if (ind.isSetFirstLine() && ind.getFirstLine() != null) {
+                        mergedFirstLine = ind.getFirstLine().toString();
+                    }
+                }
+                if (pPr.isSetSpacing()) {
+                    CTSpacing spacingPr = pPr.getSpacing();
+                    mergedSpacing = true;
+                    if (spacingPr.isSetLine() && spacingPr.getLine() != null) {
+                        mergedLine = spacingPr.getLine().toString();
+                    }
+                }
+            }
+            return new ParagraphFormat(mergedAlignment, mergedIndent, mergedFirstLine,
+                    mergedSpacing, mergedLine, run.merge(rPr));
+        }
+    }
+
+    /**
+     * 字符格式，未设置的项为-1或null，不可变
+     */
+    static final class RunFormat {
+        static final RunFormat NONE = new RunFormat(-1, null, null);
+
+        final int fontSize;
+        final String fontFamily;
+        final Boolean bold;
+
+        private RunFormat(int fontSize, String fontFamily, Boolean bold) {
+            this.fontSize = fontSize;
+            this.fontFamily = fontFamily;
+            this.bold = bold;
+        }
+
+        /**
+         * @param fontSize   直接设置的字号（磅），未设置时为-1
+         * @param fontFamily 直接设置的字体，未设置时为null
+         * @param bold       直接设置的加粗，未设置时为null
+         * @return 以直接格式覆盖后的格式；没有覆盖任何项时返回本对象
+         */
+        RunFormat merge(int fontSize, String fontFamily, Boolean bold) {
+            int size = fontSize == -1 ? this.fontSize : fontSize;
+            String family = fontFamily == null ? this.fontFamily : fontFamily;
+            Boolean b = bold == null ? this.bold : bold;
+            if (size == this.fontSize && Objects.equals(family, this.fontFamily) && Objects.equals(b, this.bold)) {
+                return this;
+            }
+            return new RunFormat(size, family, b);
+        }
+
+        RunFormat merge(RunFormat other) {
+            return merge(other.fontSize, other.fontFamily, other.bold);
+        }
+
+        /**
+         * 以文字块属性覆盖，只取第一个 sz、rFonts、b，与 {@code XWPFRun} 的getter一致
+         */
+        RunFormat merge(CTRPr rPr) {
+            if (rPr == null) {
+                return this;
+            }
+            int size = -1;
+            if (rPr.sizeOfSzArray() > 0 && rPr.getSzArray(0).getVal() != null) {
+                size = StreamingDocumentReader.toFontSize(rPr.getSzArray(0).getVal().toString());
+            }
+            String family = rPr.sizeOfRFontsArray() > 0 ? rPr.getRFontsArray(0).getAscii() : null;
+            Boolean b = rPr.sizeOfBArray() > 0 ? POIXMLUnits.parseOnOff(rPr.getBArray(0)) : null;
+            return merge(size, family, b);
+        }
+
+        boolean isBold() {
+            return bold != null && bold;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.papercheck.service;
+
+import com.papercheck.model.Location;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+/**
+ * 遍历时的表格节点
+ */
+public class TableNode {
+    private final XWPFTable table;
+    private final int index;
+    private Location location;
+
+    /**
+     * @param table 表格，只读模式下为null
+     * @param index 表格序号，从1开始
+     */
+    public TableNode(XWPFTable table, int index) {
+        this.table = table;
+        this.index = index;
+    }
+
+    /**
+     * @return 对应的POI表格；只读模式下为null
+     */
+    public XWPFTable getTable() {
+        return table;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return 表格位置，显示为"表格2"
+     */
+    public Location getPosition() {
+        if (location == null) {
+            location = Location.table(index);
+        }
+        return location;
+    }
+
+    /**
+     * @param rowIndex 行号，从0开始
+     * @return 行位置，显示为"表格2，第3行"
+     */
+    public Location getRowPosition(int rowIndex) {
+        return Location.tableRow(index, rowIndex);
+    }
+}
@@ -0,0 +1,126 @@
+package com.papercheck.service;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSpacing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于已加载POI段落的节点
+ * <p>
+ * 文本和字符格式在首次访问时计算并缓存，供同一次遍历中的所有访问器共享；
+ * 对齐方式和段落属性始终读取最新值，修复过程中的修改对后续访问器可见。
+ * 直接设置的格式之外，从样式继承的格式由 {@link StyleResolver} 提供。
+ */
+class XWPFParagraphNode extends ParagraphNode {
+    private final XWPFParagraph paragraph;
+    private final StyleResolver styles;
+    private StyleResolver.ParagraphFormat style;
+    private String text;
+    private List<RunInfo> runs;
+
+    XWPFParagraphNode(XWPFParagraph paragraph, int index, StyleResolver styles) {
+        super(index);
+        this.paragraph = paragraph;
+        this.styles = styles;
+    }
+
+    @Override
+    public XWPFParagraph getParagraph() {
+        return paragraph;
+    }
+
+    @Override
+    public String getText() {
+        if (text == null) {
+            text = paragraph.getText().trim();
+        }
+        return text;
+    }
+
+    @Override
+    public ParagraphAlignment getAlignment() {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        if (pPr != null && pPr.isSetJc()) {
+            return paragraph.getAlignment();
+        }
+        ParagraphAlignment inherited = style().alignment;
+        return inherited == null ? ParagraphAlignment.LEFT : inherited;
+    }
+
+    @Override
+    public boolean hasIndent() {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        return (pPr != null && pPr.isSetInd()) || style().indent;
+    }
+
+    @Override
+    public String getFirstLineIndent() {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        if (pPr != null && pPr.isSetInd()) {
+            Object firstLine = pPr.getInd().getFirstLine();
+            if (firstLine != null) {
+                return firstLine.toString();
+            }
+        }
+        return style().firstLineIndent;
+    }
+
+    @Override
+    public boolean hasSpacing() {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        return (pPr != null && pPr.isSetSpacing()) || style().spacing;
+    }
+
+    @Override
+    public String getSpacingLine() {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        if (pPr != null && pPr.isSetSpacing()) {
+            CTSpacing spacing = pPr.getSpacing();
+            if (spacing.isSetLine() && spacing.getLine() != null) {
+                return spacing.getLine().toString();
+            }
+        }
+        return style().spacingLine;
+    }
+
+    @Override
+    public List<RunInfo> getRuns() {
+        if (runs == null) {
+            List<XWPFRun> xwpfRuns = paragraph.getRuns();
+            List<RunInfo> infos = new ArrayList<>(xwpfRuns.size());
+            for (XWPFRun run : xwpfRuns) {
+                CTRPr rPr = run.getCTR().getRPr();
+                String runStyle = rPr != null && rPr.sizeOfRStyleArray() > 0 ? rPr.getRStyleArray(0).getVal() : null;
+                Boolean bold = rPr != null && rPr.sizeOfBArray() > 0 ? run.isBold() : null;
+                StyleResolver.RunFormat inherited = styles.runStyle(style(), runStyle);
+                infos.add(new RunInfo(run, inherited, inherited.merge(run.getFontSize(), run.getFontFamily(), bold)));
+            }
+            runs = Collections.unmodifiableList(infos);
+        }
+        return runs;
+    }
+
+    @Override
+    public String getInheritedFirstLineIndent() {
+        return style().firstLineIndent;
+    }
+
+    @Override
+    public String getInheritedSpacingLine() {
+        return style().spacingLine;
+    }
+
+    private StyleResolver.ParagraphFormat style() {
+        if (style == null) {
+            style = styles.paragraphStyle(paragraph.getStyleID());
+        }
+        return style;
+    }
+}
@@ -0,0 +1,98 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisSpec;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.papercheck.service.TestDocuments.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 各检查路径的结果及顺序相同：加载完整文档后基于列式存储的检查（{@link PaperFormatChecker#checkDocument}）、
+ * 流式检查（{@link PaperFormatChecker#checkDocumentStreaming}），以及逐段落遍历的 {@link DocumentWalker}
+ */
+class CheckEquivalenceTest {
+    @TempDir
+    Path directory;
+
+    private final PaperFormatChecker checker = new PaperFormatChecker();
+
+    static Stream<ThesisSpec> documents() {
+        return Stream.of(
+                new ThesisSpec().seed(1).paragraphs(20),
+                new ThesisSpec().seed(2).paragraphs(300).tables(6).pictures(4).sections(3).marginViolation(true),
+                new ThesisSpec().seed(3).paragraphs(120).titleRuns(3).titleViolationRate(1).pageNumbers(false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("documents")
+    void allCheckPathsAgree(ThesisSpec spec) throws IOException {
+        File file = TestDocuments.generate(directory, "thesis.docx", spec);
+        assertAllPathsAgree(file);
+    }
+
+    @Test
+    void unparsableIndentAndSpacingAgree() throws IOException {
+        XWPFDocument document = new XWPFDocument();
+        XWPFParagraph title = document.createParagraph();
+        title.setAlignment(ParagraphAlignment.CENTER);
+        XWPFRun titleRun = title.createRun();
+        titleRun.setText("论文标题");
+        titleRun.setFontFamily("黑体");
+        titleRun.setFontSize(16);
+        titleRun.setBold(true);
+
+        // 带单位和小数的取值无法按twip解析
+        Object[][] values = {{"1cm", "360"}, {"420", "1.5cm"}, {"480.7", "359.9"}, {"0.5in", null}, {null, "12pt"}};
+        for (Object[] value : values) {
+            XWPFParagraph paragraph = document.createParagraph();
+            CTPPr pPr = paragraph.getCTP().addNewPPr();
+            if (value[0] != null) {
+                pPr.addNewInd().setFirstLine(value[0]);
+            }
+            if (value[1] != null) {
+                pPr.addNewSpacing().setLine(value[1]);
+            }
+            XWPFRun run = paragraph.createRun();
+            run.setText("正文段落。");
+            run.setFontFamily("宋体");
+            run.setFontSize(12);
+        }
+        XWPFTable table = document.createTable(2, 2);
+        table.getRow(1).getCell(1).getParagraphs().get(0).getCTP().addNewPPr().addNewSpacing().setLine("1cm");
+        table.getRow(1).getCell(1).getParagraphs().get(0).createRun().setText("1.00");
+
+        File file = TestDocuments.write(document, directory, "unparsable.docx");
+        assertAllPathsAgree(file);
+    }
+
+    private void assertAllPathsAgree(File file) throws IOException {
+        List<String> expected = describe(checker.checkDocument(file));
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, describe(checker.checkDocumentStreaming(file)), "流式检查");
+        XWPFDocument document = checker.loadDocument(file);
+        try {
+            // 传入空的上次索引时逐段落遍历
+            List<String> walked = describe(checker.checkLoaded(file, document, CheckProgressListener.NONE,
+                    new ParagraphFingerprintIndex(), null));
+            assertEquals(expected, walked, "逐段落遍历");
+        } finally {
+            document.getPackage().revert();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisSpec;
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.IssueType;
+import com.papercheck.model.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.papercheck.service.TestDocuments.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 检查结果缓存的读写
+ */
+class CheckResultCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void checkResultsSurviveReopening() throws IOException {
+        File file = TestDocuments.generate(directory, "thesis.docx",
+                new ThesisSpec().seed(6).paragraphs(150).tables(3).marginViolation(true));
+        List<CheckResult> results = new PaperFormatChecker().checkDocument(file);
+        // 合并后的结果带有段落范围和问题数
+        List<CheckResult> aggregated = ResultAggregator.aggregate(results);
+
+        Path cacheDirectory = directory.resolve("cache");
+        CheckResultCache cache = new CheckResultCache(cacheDirectory);
+        cache.put("raw", results);
+        cache.put("aggregated", aggregated);
+        assertEquals(describe(results), describe(cache.get("raw")));
+
+        CheckResultCache reopened = new CheckResultCache(cacheDirectory);
+        assertEquals(2, reopened.size());
+        assertEquals(describe(results), describe(reopened.get("raw")));
+        assertEquals(describe(aggregated), describe(reopened.get("aggregated")));
+        assertNull(reopened.get("missing"));
+        assertEquals(2, reopened.getHits());
+        assertEquals(1, reopened.getMisses());
+    }
+
+    @Test
+    void everyLocationKindRoundTrips() throws IOException {
+        List<CheckResult> results = new ArrayList<>();
+        results.add(new CheckResult(IssueType.PAGE_MARGIN, Location.DOCUMENT, "上边距不符合要求", "将上边距设置为2.5厘米"));
+        results.add(new CheckResult(IssueType.BODY, Location.paragraph(3), "字体不符合要求", null));
+        results.add(new CheckResult(IssueType.BODY, Location.paragraphs(12, 87), "字体不符合要求", null));
+        results.add(new CheckResult(IssueType.TABLE, Location.table(2), "表头未居中", "居中"));
+        results.add(new CheckResult(IssueType.TABLE, Location.tableRows(2, 1, 4), "字号过大", "改为五号"));
+        results.add(new CheckResult("自定义", "封面", "未知位置", "原样保存"));
+        results.get(2).setCount(76);
+        results.get(4).setCount(4);
+
+        CheckResultCache cache = new CheckResultCache(directory);
+        cache.put("locations", results);
+        List<CheckResult> read = new CheckResultCache(directory).get("locations");
+        assertEquals(describe(results), describe(read));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).getPosition(), read.get(i).getPosition());
+            assertEquals(results.get(i).getCount(), read.get(i).getCount());
+        }
+    }
+
+    @Test
+    void keyDependsOnContentAndRuleVersion() throws IOException {
+        File first = TestDocuments.generate(directory, "first.docx", new ThesisSpec().seed(7).paragraphs(30));
+        File copy = Files.copy(first.toPath(), directory.resolve("copy.docx")).toFile();
+        File other = TestDocuments.generate(directory, "other.docx", new ThesisSpec().seed(8).paragraphs(30));
+
+        CheckResultCache cache = new CheckResultCache(directory.resolve("cache"));
+        assertEquals(cache.keyFor(first, "v1"), cache.keyFor(copy, "v1"));
+        assertNotEquals(cache.keyFor(first, "v1"), cache.keyFor(other, "v1"));
+        assertNotEquals(cache.keyFor(first, "v1"), cache.keyFor(first, "v2"));
+    }
+}
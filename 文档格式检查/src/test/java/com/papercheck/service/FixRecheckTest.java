@@ -0,0 +1,194 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisSpec;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.papercheck.service.TestDocuments.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 修复后的文档再次检查没有问题
+ */
+class FixRecheckTest {
+    private static final String BODY_STYLE = "BodyText";
+    private static final String DEFAULT_STYLE = "Normal";
+
+    @TempDir
+    Path directory;
+
+    private final PaperFormatChecker checker = new PaperFormatChecker();
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3})
+    void fixedDocumentHasNoIssues(long seed) throws IOException {
+        File original = TestDocuments.generate(directory, "original.docx", new ThesisSpec().seed(seed)
+                .paragraphs(300).tables(4).pictures(3).sections(2).marginViolation(true).pageNumbers(false));
+        File fixed = directory.resolve("fixed.docx").toFile();
+
+        List<CheckResult> fixes = checker.fixDocument(original, fixed);
+        assertFalse(fixes.isEmpty());
+        assertEquals(List.of(), describe(checker.checkDocument(fixed)));
+        assertEquals(List.of(), describe(checker.checkDocumentStreaming(fixed)));
+    }
+
+    @Test
+    void sharedBodyStyleIsFixedInsteadOfEveryParagraph() throws IOException {
+        File original = TestDocuments.write(createStyledDocument(BODY_STYLE, false, document -> {
+        }), directory, "styled.docx");
+        File fixed = directory.resolve("fixed.docx").toFile();
+
+        List<CheckResult> fixes = checker.fixDocument(original, fixed);
+        assertTrue(fixes.stream().anyMatch(fix -> fix.getDescription().startsWith("已修复样式")));
+        assertEquals(List.of(), describe(checker.checkDocument(fixed)));
+
+        // 正文段落继承修复后的样式，不再写入直接格式
+        try (InputStream in = Files.newInputStream(fixed.toPath());
+             XWPFDocument document = new XWPFDocument(in)) {
+            List<XWPFParagraph> paragraphs = document.getParagraphs();
+            for (XWPFParagraph paragraph : paragraphs.subList(1, paragraphs.size())) {
+                CTPPr pPr = paragraph.getCTP().getPPr();
+                assertFalse(pPr.isSetInd() || pPr.isSetSpacing(), paragraph.getText());
+                for (XWPFRun run : paragraph.getRuns()) {
+                    assertNull(run.getCTR().getRPr(), paragraph.getText());
+                }
+            }
+        }
+    }
+
+    @Test
+    void defaultStyleSharedWithTitleAndTableIsNotRewritten() throws IOException {
+        // 标题、正文、表格都未指定样式，都使用默认段落样式
+        assertFixedPerParagraph(createStyledDocument(DEFAULT_STYLE, true, document -> {
+            XWPFTable table = document.createTable(2, 2);
+            table.getRow(0).getCell(0).setText("表头");
+            table.getRow(1).getCell(0).setText("1.00");
+        }), DEFAULT_STYLE);
+    }
+
+    @Test
+    void bodyStyleUsedByTableIsNotRewritten() throws IOException {
+        assertFixedPerParagraph(createStyledDocument(BODY_STYLE, false, document -> {
+            XWPFTable table = document.createTable(1, 2);
+            for (XWPFTableCell cell : table.getRow(0).getTableCells()) {
+                cell.getParagraphs().get(0).setStyle(BODY_STYLE);
+                cell.getParagraphs().get(0).createRun().setText("单元格");
+            }
+        }), BODY_STYLE);
+    }
+
+    @Test
+    void bodyStyleWithDerivedStyleIsNotRewritten() throws IOException {
+        assertFixedPerParagraph(createStyledDocument(BODY_STYLE, false, document -> {
+            CTStyle derived = CTStyle.Factory.newInstance();
+            derived.setStyleId("Quote");
+            derived.setType(STStyleType.PARAGRAPH);
+            derived.addNewBasedOn().setVal(BODY_STYLE);
+            document.getStyles().addStyle(new XWPFStyle(derived));
+        }), BODY_STYLE);
+    }
+
+    /**
+     * 共用的样式还有正文以外的使用者时不改写样式，逐段修复后再次检查没有问题，标题和表格的格式不受正文修复影响
+     */
+    private void assertFixedPerParagraph(XWPFDocument document, String styleId) throws IOException {
+        File original = TestDocuments.write(document, directory, "shared.docx");
+        File fixed = directory.resolve("fixed.docx").toFile();
+
+        List<CheckResult> fixes = checker.fixDocument(original, fixed);
+        assertFalse(fixes.isEmpty());
+        assertFalse(fixes.stream().anyMatch(fix -> fix.getDescription().startsWith("已修复样式")));
+        assertEquals(List.of(), describe(checker.checkDocument(fixed)));
+
+        try (InputStream in = Files.newInputStream(fixed.toPath());
+             XWPFDocument result = new XWPFDocument(in)) {
+            CTPPrGeneral pPr = result.getStyles().getStyle(styleId).getCTStyle().getPPr();
+            assertEquals(BigInteger.valueOf(200), pPr.getInd().getFirstLine());
+            assertEquals(BigInteger.valueOf(240), pPr.getSpacing().getLine());
+            assertUnchangedIndentAndSpacing(result.getParagraphs().get(0));
+            for (XWPFTable table : result.getTables()) {
+                for (XWPFTableRow row : table.getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        cell.getParagraphs().forEach(FixRecheckTest::assertUnchangedIndentAndSpacing);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertUnchangedIndentAndSpacing(XWPFParagraph paragraph) {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        assertFalse(pPr != null && (pPr.isSetInd() || pPr.isSetSpacing()), paragraph.getText());
+    }
+
+    /**
+     * 正文段落都使用同一个缩进、行距、字体、字号都不符合要求的样式，段落本身不带格式
+     *
+     * @param styleId      正文样式
+     * @param defaultStyle 是否为默认段落样式，是时正文段落不指定样式
+     * @param customizer   保存前对文档的其他修改
+     */
+    private static XWPFDocument createStyledDocument(String styleId, boolean defaultStyle,
+                                                     Consumer<XWPFDocument> customizer) {
+        XWPFDocument document = new XWPFDocument();
+        CTStyle style = CTStyle.Factory.newInstance();
+        style.setStyleId(styleId);
+        style.setType(STStyleType.PARAGRAPH);
+        style.addNewName().setVal(defaultStyle ? "正文" : "正文文本");
+        if (defaultStyle) {
+            style.setDefault(true);
+        }
+        CTPPrGeneral pPr = style.addNewPPr();
+        pPr.addNewInd().setFirstLine(BigInteger.valueOf(200));
+        pPr.addNewSpacing().setLine(BigInteger.valueOf(240));
+        CTRPr rPr = style.addNewRPr();
+        rPr.addNewRFonts().setAscii("楷体");
+        rPr.addNewSz().setVal(BigInteger.valueOf(21));
+        document.createStyles().addStyle(new XWPFStyle(style));
+
+        XWPFParagraph title = document.createParagraph();
+        title.setAlignment(ParagraphAlignment.CENTER);
+        XWPFRun titleRun = title.createRun();
+        titleRun.setText("论文标题");
+        titleRun.setFontFamily("黑体");
+        titleRun.setFontSize(16);
+        titleRun.setBold(true);
+        for (int i = 1; i <= 20; i++) {
+            XWPFParagraph paragraph = document.createParagraph();
+            if (!defaultStyle) {
+                paragraph.setStyle(styleId);
+            }
+            paragraph.createRun().setText("第" + i + "段正文，格式全部来自段落样式。");
+        }
+        customizer.accept(document);
+        return document;
+    }
+}
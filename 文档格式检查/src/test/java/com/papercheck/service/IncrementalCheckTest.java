@@ -0,0 +1,98 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisSpec;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.xmlbeans.XmlCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.papercheck.service.TestDocuments.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 增量检查：复用上次结果的重新检查与完整检查的结果及顺序相同
+ */
+class IncrementalCheckTest {
+    @TempDir
+    Path directory;
+
+    private final PaperFormatChecker checker = new PaperFormatChecker();
+    private File original;
+    private ParagraphFingerprintIndex index;
+
+    @BeforeEach
+    void checkOriginal() throws IOException {
+        original = TestDocuments.generate(directory, "original.docx",
+                new ThesisSpec().seed(5).paragraphs(200).tables(3).pictures(2));
+        try (DocumentSession session = checker.openSession(original)) {
+            session.check(CheckProgressListener.NONE);
+            index = session.getFingerprintIndex();
+        }
+        assertNotNull(index);
+    }
+
+    @Test
+    void unchangedDocumentReusesEveryParagraph() throws IOException {
+        try (DocumentSession session = checker.openSession(original, index)) {
+            List<CheckResult> results = session.check(CheckProgressListener.NONE);
+            assertEquals(describe(checker.checkDocument(original)), describe(results));
+            assertEquals(0, session.getFingerprintIndex().getEvaluated());
+            assertTrue(session.getFingerprintIndex().getReused() > 0);
+        }
+    }
+
+    @Test
+    void editedDocumentMatchesFullCheck() throws IOException {
+        File edited = edit("edited.docx", document -> {
+            List<XWPFParagraph> paragraphs = document.getParagraphs();
+            paragraphs.get(10).getRuns().get(0).setFontFamily("楷体");
+            paragraphs.get(15).setIndentationFirstLine(120);
+            try (XmlCursor cursor = paragraphs.get(20).getCTP().newCursor()) {
+                document.insertNewParagraph(cursor).createRun().setText("新插入的段落，未设置缩进和行距。");
+            }
+            document.removeBodyElement(document.getPosOfParagraph(paragraphs.get(40)));
+        });
+
+        try (DocumentSession session = checker.openSession(edited, index)) {
+            List<CheckResult> results = session.check(CheckProgressListener.NONE);
+            assertEquals(describe(checker.checkDocument(edited)), describe(results));
+            ParagraphFingerprintIndex current = session.getFingerprintIndex();
+            assertTrue(current.getEvaluated() > 0);
+            assertTrue(current.getReused() > current.getEvaluated());
+        }
+    }
+
+    @Test
+    void emptiedTitleMatchesFullCheck() throws IOException {
+        // 标题清空后下一个非空段落成为标题，其后各段落的上下文随之改变
+        File edited = edit("title.docx", document -> document.getParagraphs().get(0).getRuns()
+                .forEach(run -> run.setText("", 0)));
+
+        try (DocumentSession session = checker.openSession(edited, index)) {
+            List<CheckResult> results = session.check(CheckProgressListener.NONE);
+            assertEquals(describe(checker.checkDocument(edited)), describe(results));
+        }
+    }
+
+    private File edit(String name, Consumer<XWPFDocument> edit) throws IOException {
+        XWPFDocument document;
+        try (InputStream in = Files.newInputStream(original.toPath())) {
+            document = new XWPFDocument(in);
+        }
+        edit.accept(document);
+        return TestDocuments.write(document, directory, name);
+    }
+}
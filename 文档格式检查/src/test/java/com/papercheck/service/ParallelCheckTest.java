@@ -0,0 +1,104 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisSpec;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static com.papercheck.service.TestDocuments.describe;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 大文档分块并行检查：结果及顺序与流式检查相同，结果和进度随各块完成逐步推送，可以中途取消
+ */
+class ParallelCheckTest {
+    @TempDir
+    Path directory;
+
+    private final PaperFormatChecker checker = new PaperFormatChecker();
+    private File file;
+
+    @BeforeEach
+    void generate() throws IOException {
+        // 正文元素超过 ColumnarDocumentChecker.PARALLEL_THRESHOLD
+        file = TestDocuments.generate(directory, "large.docx",
+                new ThesisSpec().seed(4).paragraphs(2500).tables(40).pictures(10).sections(2));
+    }
+
+    @Test
+    void parallelCheckMatchesStreaming() throws IOException {
+        List<String> expected = describe(checker.checkDocumentStreaming(file));
+        assertEquals(expected, describe(checker.checkDocument(file)));
+        try (DocumentSession session = checker.openSession(file)) {
+            assertEquals(expected, describe(session.check(CheckProgressListener.NONE)), "会话检查");
+            assertTrue(session.getFingerprintIndex().size() > 0);
+        }
+    }
+
+    @Test
+    void resultsAndProgressArriveWhileChecking() throws IOException {
+        RecordingListener listener = new RecordingListener();
+        List<CheckResult> results = checkLoaded(listener);
+
+        assertEquals(describe(results), describe(listener.received));
+        assertTrue(listener.batches > 2, "结果应分批推送");
+        // 进度到达总数时全部结果都已推送，读取列数据期间不会提前到达
+        assertEquals(results.size(), listener.receivedAtCompletion);
+    }
+
+    @Test
+    void cancellationStopsCheck() throws IOException {
+        RecordingListener listener = new RecordingListener();
+        listener.cancelAfterBatches = 1;
+        assertThrows(CancellationException.class, () -> checkLoaded(listener));
+    }
+
+    private List<CheckResult> checkLoaded(CheckProgressListener listener) throws IOException {
+        XWPFDocument document = checker.loadDocument(file);
+        try {
+            return checker.checkLoaded(file, document, listener);
+        } finally {
+            document.getPackage().revert();
+        }
+    }
+
+    private static final class RecordingListener implements CheckProgressListener {
+        final List<CheckResult> received = new ArrayList<>();
+        volatile int batches;
+        int receivedAtCompletion = -1;
+        int cancelAfterBatches = -1;
+        private int lastProcessed;
+
+        @Override
+        public void onProgress(int processed, int total) {
+            assertTrue(processed >= lastProcessed, "进度不应倒退");
+            lastProcessed = processed;
+            if (processed == total && receivedAtCompletion < 0) {
+                receivedAtCompletion = received.size();
+            }
+        }
+
+        @Override
+        public void onResults(List<CheckResult> batch) {
+            received.addAll(batch);
+            batches++;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            // 在检查线程池的线程上也会调用
+            return cancelAfterBatches >= 0 && batches >= cancelAfterBatches;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.papercheck.service;
+
+import com.papercheck.model.CheckResult;
+import com.papercheck.model.IssueType;
+import com.papercheck.model.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 检查结果的合并
+ */
+class ResultAggregatorTest {
+    @Test
+    void consecutiveParagraphsMergeIntoRange() {
+        List<CheckResult> results = new ArrayList<>();
+        results.add(body(3, "缺少首行缩进"));
+        results.add(body(4, "缺少首行缩进"));
+        results.add(body(4, "缺少首行缩进"));
+        results.add(body(4, "字体不符合要求"));
+        results.add(body(5, "缺少首行缩进"));
+        results.add(body(7, "缺少首行缩进"));
+
+        List<CheckResult> aggregated = ResultAggregator.aggregate(results);
+        assertEquals(3, aggregated.size());
+        assertEquals(Location.paragraphs(3, 5), aggregated.get(0).getPosition());
+        assertEquals(4, aggregated.get(0).getCount());
+        assertEquals(Location.paragraph(4), aggregated.get(1).getPosition());
+        assertEquals(Location.paragraph(7), aggregated.get(2).getPosition());
+        assertEquals(1, aggregated.get(2).getCount());
+    }
+
+    @Test
+    void tableRowsMergeOnlyWithinTable() {
+        List<CheckResult> results = new ArrayList<>();
+        results.add(new CheckResult(IssueType.TABLE, Location.tableRow(1, 1), "字号过大", "改为五号"));
+        results.add(new CheckResult(IssueType.TABLE, Location.tableRow(1, 2), "字号过大", "改为五号"));
+        results.add(new CheckResult(IssueType.TABLE, Location.tableRow(2, 3), "字号过大", "改为五号"));
+
+        List<CheckResult> aggregated = ResultAggregator.aggregate(results);
+        assertEquals(2, aggregated.size());
+        assertEquals(Location.tableRows(1, 1, 2), aggregated.get(0).getPosition());
+        assertEquals(2, aggregated.get(0).getCount());
+        assertEquals(Location.tableRow(2, 3), aggregated.get(1).getPosition());
+    }
+
+    private static CheckResult body(int paragraph, String description) {
+        return new CheckResult(IssueType.BODY, Location.paragraph(paragraph), description, null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.papercheck.service;
+
+import com.papercheck.generator.ThesisGenerator;
+import com.papercheck.generator.ThesisSpec;
+import com.papercheck.model.CheckResult;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 测试用文档
+ */
+final class TestDocuments {
+    private TestDocuments() {
+    }
+
+    /**
+     * 按参数生成样例文档
+     */
+    static File generate(Path directory, String name, ThesisSpec spec) throws IOException {
+        File file = directory.resolve(name).toFile();
+        ThesisGenerator.write(spec, file);
+        return file;
+    }
+
+    /**
+     * 保存文档并关闭
+     */
+    static File write(XWPFDocument document, Path directory, String name) throws IOException {
+        Path file = directory.resolve(name);
+        try (XWPFDocument closing = document;
+             OutputStream out = Files.newOutputStream(file)) {
+            closing.write(out);
+        }
+        return file.toFile();
+    }
+
+    /**
+     * @return 每条结果的全部字段，用于比较两次检查的结果及顺序
+     */
+    static List<String> describe(List<CheckResult> results) {
+        return results.stream().map(CheckResult::toString).collect(Collectors.toList());
+    }
+}